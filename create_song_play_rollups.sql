@@ -0,0 +1,22 @@
+-- Hourly ('H') and daily ('D') play counts per song (needed where ddl-auto=validate)
+CREATE TABLE IF NOT EXISTS song_play_rollups (
+    song_id BIGINT NOT NULL,
+    granularity VARCHAR(1) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    play_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (song_id, granularity, bucket_start)
+);
+
+CREATE INDEX IF NOT EXISTS idx_song_play_rollups_bucket ON song_play_rollups (granularity, bucket_start);
+
+-- Backfill from existing plays: hourly buckets for the last 7 days, daily buckets for all history
+INSERT INTO song_play_rollups (song_id, granularity, bucket_start, play_count)
+SELECT song_id, 'H', date_trunc('hour', played_at), COUNT(*) FROM track_plays
+WHERE played_at >= date_trunc('day', now()) - INTERVAL '7 days'
+GROUP BY song_id, date_trunc('hour', played_at)
+ON CONFLICT (song_id, granularity, bucket_start) DO NOTHING;
+
+INSERT INTO song_play_rollups (song_id, granularity, bucket_start, play_count)
+SELECT song_id, 'D', date_trunc('day', played_at), COUNT(*) FROM track_plays
+GROUP BY song_id, date_trunc('day', played_at)
+ON CONFLICT (song_id, granularity, bucket_start) DO NOTHING;
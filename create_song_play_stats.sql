@@ -0,0 +1,15 @@
+-- Per-song play totals maintained by the track play writer (needed where ddl-auto=validate)
+CREATE TABLE IF NOT EXISTS song_play_stats (
+    song_id BIGINT PRIMARY KEY,
+    play_count BIGINT NOT NULL DEFAULT 0,
+    first_played_at TIMESTAMP,
+    last_played_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_song_play_stats_play_count ON song_play_stats (play_count);
+CREATE INDEX IF NOT EXISTS idx_song_play_stats_last_played_at ON song_play_stats (last_played_at);
+
+-- Initial load from existing plays (the application also rebuilds at startup and nightly)
+INSERT INTO song_play_stats (song_id, play_count, first_played_at, last_played_at)
+SELECT song_id, COUNT(*), MIN(played_at), MAX(played_at) FROM track_plays GROUP BY song_id
+ON CONFLICT (song_id) DO NOTHING;
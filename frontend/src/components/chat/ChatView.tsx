@@ -10,6 +10,17 @@ function ChatView() {
 
   useEffect(() => {
     const chatService = new ChatService();
+    const messageKey = (m: ChatMessage) => `${m.timestamp}|${m.username}|${m.message}`;
+
+    // Show recent history right away instead of waiting for the next live message
+    ChatService.getRecentMessages(50)
+      .then(recent => {
+        setMessages(prev => {
+          const live = new Set(prev.map(messageKey));
+          return [...recent.filter(m => !live.has(messageKey(m))), ...prev].slice(-50);
+        });
+      })
+      .catch(error => console.error('Error loading recent chat messages:', error));
     
     chatService.connect(
       (message) => {
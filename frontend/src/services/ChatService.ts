@@ -23,8 +23,10 @@ export class ChatService {
         this.subscription = this.stompClient.subscribe('/topic/messages', (message: any) => {
           if (onMessage && message.body) {
             try {
-              const chatMessage: ChatMessage = JSON.parse(message.body);
-              onMessage(chatMessage);
+              // The server sends either a single message or a batched array of messages
+              const payload: ChatMessage | ChatMessage[] = JSON.parse(message.body);
+              const chatMessages = Array.isArray(payload) ? payload : [payload];
+              chatMessages.forEach(chatMessage => onMessage(chatMessage));
             } catch (error) {
               console.error('Error parsing chat message:', error);
             }
@@ -38,6 +40,14 @@ export class ChatService {
     });
   }
 
+  static async getRecentMessages(limit: number = 50): Promise<ChatMessage[]> {
+    const response = await fetch(`/api/chat/recent?limit=${limit}`);
+    if (!response.ok) {
+      throw new Error(`HTTP error! status: ${response.status}`);
+    }
+    return await response.json();
+  }
+
   disconnect(): void {
     if (this.subscription) {
       this.subscription.unsubscribe();
@@ -0,0 +1,133 @@
+-- Convert track_plays into a table range-partitioned by month on played_at.
+-- Run once with the application stopped; TrackPlayPartitionManager creates later months and applies retention.
+-- The old table is kept as track_plays_legacy; drop it by hand once the new table has been checked.
+-- Views on track_plays (such as the one behind SongPlayCountView) are recreated on the new table with
+-- their definition and options; their grants, comments and materialized view indexes must be reapplied.
+BEGIN;
+
+-- Refuse to run on data the new table cannot hold rather than silently leaving rows or columns behind
+DO $$
+DECLARE
+    null_plays BIGINT;
+    extra_columns TEXT;
+BEGIN
+    SELECT COUNT(*) INTO null_plays FROM track_plays WHERE played_at IS NULL;
+    IF null_plays > 0 THEN
+        RAISE EXCEPTION '% track_plays rows have no played_at; set or delete them before migrating', null_plays;
+    END IF;
+
+    SELECT string_agg(column_name, ', ') INTO extra_columns FROM information_schema.columns
+    WHERE table_schema = current_schema() AND table_name = 'track_plays'
+      AND column_name NOT IN ('id', 'song_id', 'played_at');
+    IF extra_columns IS NOT NULL THEN
+        RAISE EXCEPTION 'track_plays has columns this migration does not copy: %', extra_columns;
+    END IF;
+END $$;
+
+-- Views are bound to the table itself, not its name, and would follow the rename to the frozen legacy
+-- table, so save every view depending on track_plays (directly or through other views) and drop them
+CREATE TEMP TABLE track_plays_dependent_views ON COMMIT DROP AS
+WITH RECURSIVE dependents(view_oid, depth) AS (
+    SELECT r.ev_class, 1
+    FROM pg_depend d JOIN pg_rewrite r ON r.oid = d.objid
+    WHERE d.classid = 'pg_rewrite'::regclass AND d.refclassid = 'pg_class'::regclass
+      AND d.refobjid = 'track_plays'::regclass AND r.ev_class <> 'track_plays'::regclass
+    UNION
+    SELECT r.ev_class, dependents.depth + 1
+    FROM dependents JOIN pg_depend d ON d.refobjid = dependents.view_oid AND d.refclassid = 'pg_class'::regclass
+    JOIN pg_rewrite r ON r.oid = d.objid AND d.classid = 'pg_rewrite'::regclass
+    WHERE r.ev_class <> dependents.view_oid
+)
+SELECT n.nspname AS view_schema, c.relname AS view_name, c.relkind AS view_kind,
+       array_to_string(c.reloptions, ', ') AS view_options, pg_get_viewdef(c.oid) AS view_definition,
+       MAX(dependents.depth) AS depth
+FROM dependents JOIN pg_class c ON c.oid = dependents.view_oid JOIN pg_namespace n ON n.oid = c.relnamespace
+GROUP BY n.nspname, c.relname, c.relkind, c.reloptions, c.oid;
+
+DO $$
+DECLARE
+    dependent RECORD;
+BEGIN
+    FOR dependent IN SELECT * FROM track_plays_dependent_views ORDER BY depth DESC LOOP
+        RAISE NOTICE 'Recreating view %.% on the partitioned track_plays', dependent.view_schema, dependent.view_name;
+        EXECUTE format(CASE WHEN dependent.view_kind = 'm' THEN 'DROP MATERIALIZED VIEW %I.%I' ELSE 'DROP VIEW %I.%I' END,
+                       dependent.view_schema, dependent.view_name);
+    END LOOP;
+END $$;
+
+ALTER TABLE track_plays RENAME TO track_plays_legacy;
+
+-- Index names are schema-wide, so move the legacy ones (including track_plays_pkey) out of the way,
+-- and drop the legacy foreign keys so the kept copy does not block removing songs
+DO $$
+DECLARE
+    legacy_index TEXT;
+    legacy_fk TEXT;
+BEGIN
+    FOR legacy_fk IN
+        SELECT conname FROM pg_constraint WHERE conrelid = 'track_plays_legacy'::regclass AND contype = 'f'
+    LOOP
+        EXECUTE format('ALTER TABLE track_plays_legacy DROP CONSTRAINT %I', legacy_fk);
+    END LOOP;
+
+    FOR legacy_index IN
+        SELECT i.relname FROM pg_index x
+        JOIN pg_class i ON i.oid = x.indexrelid JOIN pg_class t ON t.oid = x.indrelid
+        JOIN pg_namespace n ON n.oid = t.relnamespace
+        WHERE t.relname = 'track_plays_legacy' AND n.nspname = current_schema()
+    LOOP
+        EXECUTE format('ALTER INDEX %I RENAME TO %I', legacy_index, legacy_index || '_legacy');
+    END LOOP;
+END $$;
+
+-- played_at is part of the primary key because every unique constraint must include the partition key
+CREATE TABLE track_plays (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    song_id BIGINT NOT NULL REFERENCES songs(id),
+    played_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (id, played_at)
+) PARTITION BY RANGE (played_at);
+
+-- One partition per month from the oldest play through three months ahead
+DO $$
+DECLARE
+    month_start DATE := date_trunc('month', COALESCE((SELECT MIN(played_at) FROM track_plays_legacy), now()))::DATE;
+    last_month DATE := (date_trunc('month', now()) + INTERVAL '3 months')::DATE;
+BEGIN
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF track_plays FOR VALUES FROM (%L) TO (%L)',
+                       'track_plays_p' || to_char(month_start, 'YYYYMM'),
+                       month_start, (month_start + INTERVAL '1 month')::DATE);
+        month_start := (month_start + INTERVAL '1 month')::DATE;
+    END LOOP;
+END $$;
+
+-- Catches plays outside the created months (e.g. if maintenance has not run in time)
+CREATE TABLE IF NOT EXISTS track_plays_default PARTITION OF track_plays DEFAULT;
+
+CREATE INDEX IF NOT EXISTS idx_track_plays_song_played_at ON track_plays (song_id, played_at);
+CREATE INDEX IF NOT EXISTS idx_track_plays_played_at ON track_plays (played_at);
+
+INSERT INTO track_plays (id, song_id, played_at)
+SELECT id, song_id, played_at FROM track_plays_legacy;
+
+SELECT setval(pg_get_serial_sequence('track_plays', 'id'), COALESCE((SELECT MAX(id) FROM track_plays), 0) + 1, false);
+
+-- Recreate the saved views, innermost first; their definitions name track_plays, which is now the new table
+DO $$
+DECLARE
+    dependent RECORD;
+BEGIN
+    FOR dependent IN SELECT * FROM track_plays_dependent_views ORDER BY depth ASC LOOP
+        EXECUTE format('CREATE %s %I.%I %s AS %s',
+                       CASE WHEN dependent.view_kind = 'm' THEN 'MATERIALIZED VIEW' ELSE 'VIEW' END,
+                       dependent.view_schema, dependent.view_name,
+                       CASE WHEN dependent.view_options IS NOT NULL THEN 'WITH (' || dependent.view_options || ')' ELSE '' END,
+                       rtrim(dependent.view_definition, '; '));
+    END LOOP;
+END $$;
+
+-- Both counts must match before track_plays_legacy is dropped
+SELECT (SELECT COUNT(*) FROM track_plays_legacy) AS legacy_rows, (SELECT COUNT(*) FROM track_plays) AS migrated_rows;
+
+COMMIT;
@@ -0,0 +1,94 @@
+package com.twitchchat;
+
+import ch.qos.logback.classic.Level;
+import com.github.twitch4j.chat.events.channel.ChannelMessageEvent;
+import com.twitchchat.archive.ChatArchive;
+import com.twitchchat.config.RecentChatProperties;
+import com.twitchchat.echo.OffChatEchoSink;
+import com.twitchchat.event.TrackPlayEvent;
+import com.twitchchat.event.detector.TrackPlayDetector;
+import com.twitchchat.model.ChatMessage;
+import com.twitchchat.pipeline.ChatLatencyTracker;
+import com.twitchchat.service.ChatBroadcastService;
+import com.twitchchat.service.SongPlayTracker;
+import com.twitchchat.source.ChatEventFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-message cost of ChatEventHandler.onChannelMessage with the broadcast, tracking, echo and
+ * archive collaborators replaced by no-op stand-ins, and of the event to ChatMessage conversion alone.
+ * The stand-ins are hand-written because Mockito's per-call overhead would dwarf the handler itself.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChatEventHandlerBenchmark {
+    private static final int EVENT_COUNT = 1024;
+
+    private ChatEventHandler handler;
+    private ChannelMessageEvent[] events;
+    private int next;
+
+    @Setup
+    public void setup() {
+        // Without Spring Boot's logging setup logback defaults to DEBUG on the console
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+
+        handler = new ChatEventHandler();
+        ReflectionTestUtils.setField(handler, "chatBroadcastService", new ChatBroadcastService() {
+            @Override
+            public void broadcast(ChatMessage chatMessage) {
+            }
+        });
+        ReflectionTestUtils.setField(handler, "songPlayTracker", new SongPlayTracker());
+        ReflectionTestUtils.setField(handler, "trackPlayDetector", new TrackPlayDetector() {
+            @Override
+            public TrackPlayEvent detect(ChatMessage chatMessage) {
+                return null;
+            }
+        });
+        ReflectionTestUtils.setField(handler, "chatEchoSink", new OffChatEchoSink());
+        // Never opened, so archiving is disabled
+        ReflectionTestUtils.setField(handler, "chatArchive", new ChatArchive());
+        ReflectionTestUtils.setField(handler, "recentChatBuffer", new RecentChatBuffer(new RecentChatProperties()));
+        ReflectionTestUtils.setField(handler, "latencyTracker", new ChatLatencyTracker());
+
+        events = new ChannelMessageEvent[EVENT_COUNT];
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            events[i] = ChatEventFactory.create("fftbattleground", "viewer" + (i % 97), ChatSamples.message(i));
+        }
+    }
+
+    @Benchmark
+    public void onChannelMessage() {
+        handler.onChannelMessage(nextEvent());
+    }
+
+    @Benchmark
+    public Object toChatMessage() {
+        return handler.toChatMessage(nextEvent());
+    }
+
+    private ChannelMessageEvent nextEvent() {
+        ChannelMessageEvent event = events[next];
+        next = (next + 1) & (EVENT_COUNT - 1);
+        return event;
+    }
+}
@@ -0,0 +1,32 @@
+package com.twitchchat;
+
+/**
+ * Realistic chat lines for benchmarks: short chatter, bets, commands and track play announcements
+ */
+public final class ChatSamples {
+    private static final String[] MESSAGES = {
+        "gg",
+        "!bet red 500",
+        "!allin blue",
+        "that ninja is going to crit every turn LUL",
+        "agrias with excalibur vs a calculator, who wins",
+        "Now playing: Decisive Battle (3:45)",
+        "why does zodiac always whiff",
+        "!balance",
+        "KEKW the summoner one-shot their own team",
+        "Now playing: Ovelia's Worry (2:08)",
+        "red team has higher brave but blue has faith stacking",
+        "Pog",
+    };
+
+    private ChatSamples() {
+    }
+
+    public static String message(int i) {
+        return MESSAGES[i % MESSAGES.length];
+    }
+
+    public static int size() {
+        return MESSAGES.length;
+    }
+}
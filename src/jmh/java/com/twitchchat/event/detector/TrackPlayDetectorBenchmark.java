@@ -0,0 +1,54 @@
+package com.twitchchat.event.detector;
+
+import com.twitchchat.ChatSamples;
+import com.twitchchat.model.ChatMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of TrackPlayDetector.detect on a realistic mix of chatter and track play announcements
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TrackPlayDetectorBenchmark {
+    private TrackPlayDetector detector;
+    private ChatMessage[] chatter;
+    private ChatMessage announcement;
+    private int next;
+
+    @Setup
+    public void setup() {
+        detector = new TrackPlayDetector();
+        chatter = new ChatMessage[ChatSamples.size()];
+        for (int i = 0; i < chatter.length; i++) {
+            chatter[i] = new ChatMessage("viewer" + i, ChatSamples.message(i), "fftbattleground");
+        }
+        announcement = new ChatMessage("fftbattleground", "Now playing: Decisive Battle (3:45)", "fftbattleground");
+    }
+
+    @Benchmark
+    public Object detectMixed() {
+        ChatMessage chatMessage = chatter[next];
+        next = (next + 1) % chatter.length;
+        return detector.detect(chatMessage);
+    }
+
+    @Benchmark
+    public Object detectAnnouncement() {
+        return detector.detect(announcement);
+    }
+}
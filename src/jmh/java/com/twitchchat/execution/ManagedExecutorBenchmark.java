@@ -0,0 +1,69 @@
+package com.twitchchat.execution;
+
+import com.twitchchat.config.ExecutionProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Time to drain a burst of blocking tasks (a parked thread standing in for a JDBC round trip)
+ * on platform vs virtual threads. VIRTUAL falls back to platform threads before Java 21.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ManagedExecutorBenchmark {
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    private ExecutionProperties.Mode mode;
+
+    @Param({"200"})
+    private int burstSize;
+
+    @Param({"2"})
+    private int blockMillis;
+
+    private ManagedExecutor executor;
+
+    @Setup
+    public void setup() {
+        ExecutionProperties executionProperties = new ExecutionProperties();
+        executionProperties.setMode(mode);
+        executionProperties.setQueueCapacity(Math.max(burstSize, executionProperties.getQueueCapacity()));
+        executor = ManagedExecutor.create("bench-" + mode.name().toLowerCase(), executionProperties);
+    }
+
+    @Benchmark
+    public void burst() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(burstSize);
+        long blockNanos = TimeUnit.MILLISECONDS.toNanos(blockMillis);
+        for (int i = 0; i < burstSize; i++) {
+            executor.execute(() -> {
+                LockSupport.parkNanos(blockNanos);
+                done.countDown();
+            });
+        }
+        done.await();
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,60 @@
+package com.twitchchat.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation of creating a ChatMessage, with and without formatting its ISO timestamp, against the
+ * former path that formatted both timestamps eagerly (compare gc.alloc.rate.norm between them)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChatMessageBenchmark {
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private final String username = "viewer0042";
+    private final String message = "!bet red 500";
+    private final String channel = "fftbattleground";
+
+    /**
+     * The former path: an ISO string built in the constructor from the wall clock, plus the
+     * console time formatted again from a second clock read
+     */
+    @Benchmark
+    public void baseline(Blackhole blackhole) {
+        ChatMessage chatMessage = new ChatMessage();
+        chatMessage.setUsername(username);
+        chatMessage.setMessage(message);
+        chatMessage.setChannel(channel);
+        chatMessage.setTimestamp(LocalDateTime.now().atZone(ZoneOffset.UTC).toInstant().toString());
+        blackhole.consume(chatMessage);
+        blackhole.consume(LocalDateTime.now().format(TIME_FORMATTER));
+    }
+
+    @Benchmark
+    public ChatMessage construct() {
+        return new ChatMessage(username, message, channel);
+    }
+
+    @Benchmark
+    public String constructAndFormatTimestamp() {
+        return new ChatMessage(username, message, channel).getTimestamp();
+    }
+}
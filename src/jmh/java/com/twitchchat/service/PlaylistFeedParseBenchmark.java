@@ -0,0 +1,88 @@
+package com.twitchchat.service;
+
+import com.twitchchat.model.Song;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing a synthetic playlist.xml into songs: the former DOM walk, which builds the whole
+ * document and song list, vs the StAX pull parser, which hands songs on one at a time.
+ * Run with the default -prof gc to compare allocation per feed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class PlaylistFeedParseBenchmark {
+
+    @Param({"10000", "100000"})
+    private int leafCount;
+
+    private PlaylistSyncService service;
+    private byte[] feed;
+
+    @Setup
+    public void setup() {
+        // Without Spring Boot's logging setup logback defaults to DEBUG on the console
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME))
+                .setLevel(ch.qos.logback.classic.Level.INFO);
+
+        service = new PlaylistSyncService();
+        StringBuilder xml = new StringBuilder(leafCount * 120);
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<playlist>\n");
+        for (int i = 0; i < leafCount; i++) {
+            xml.append("  <leaf uri=\"file:///C:/sharec/FFTBattleground-battle/Synthetic%20Track%20")
+               .append(i)
+               .append("%20-%20Battle_Theme.mp3\" duration=\"")
+               .append(60 + i % 300)
+               .append("\"/>\n");
+        }
+        xml.append("</playlist>\n");
+        feed = xml.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public int dom() throws Exception {
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(feed));
+        NodeList leafNodes = document.getElementsByTagName("leaf");
+        List<Song> songs = new ArrayList<>();
+        for (int i = 0; i < leafNodes.getLength(); i++) {
+            Element leafElement = (Element) leafNodes.item(i);
+            Song song = service.toSong(leafElement.getAttribute("uri"), leafElement.getAttribute("duration"));
+            if (song != null) {
+                songs.add(song);
+            }
+        }
+        return songs.size();
+    }
+
+    @Benchmark
+    public int stax(Blackhole blackhole) throws Exception {
+        return service.parseSongs(new ByteArrayInputStream(feed), blackhole::consume);
+    }
+}
@@ -0,0 +1,67 @@
+package com.twitchchat.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-song helpers of the playlist sync, run once for every leaf in the playlist XML
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlaylistSyncServiceBenchmark {
+    private static final String[] URIS = {
+        "file:///C:/sharec/FFTBattleground-battle/4%20Elements%20II%20-%20World%20of%20Magic.mp3",
+        "file:///C:/sharec/FFTBattleground-battle/Decisive_Battle.mp3",
+        "file:///C:/sharec/FFTBattleground-battle/Ovelia%27s%20Worry%20%28Remix%29.mp3",
+        "file:///C:/sharec/FFTBattleground-battle/Final%20Fantasy%20Tactics%20-%20Antipyretic%20%20%20Extended.mp3",
+    };
+    private static final String[] RAW_TITLES = {
+        "4 Elements II - World of Magic",
+        "Decisive_Battle",
+        "  Final Fantasy Tactics -  Antipyretic   Extended ",
+    };
+    private static final int[] DURATIONS = {0, 59, 225, 3725};
+
+    private PlaylistSyncService service;
+    private int next;
+
+    @Setup
+    public void setup() {
+        service = new PlaylistSyncService();
+    }
+
+    @Benchmark
+    public String extractTitleFromUri() {
+        return service.extractTitleFromUri(URIS[advance(URIS.length)]);
+    }
+
+    @Benchmark
+    public String cleanSongTitle() {
+        return service.cleanSongTitle(RAW_TITLES[advance(RAW_TITLES.length)]);
+    }
+
+    @Benchmark
+    public String formatDuration() {
+        return service.formatDuration(DURATIONS[advance(DURATIONS.length)]);
+    }
+
+    private int advance(int length) {
+        int index = next % length;
+        next++;
+        return index;
+    }
+}
@@ -0,0 +1,148 @@
+package com.twitchchat.service;
+
+import com.twitchchat.model.Song;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Initial playlist sync of a 50k-song catalog into an empty songs table: one INSERT per song with
+ * its generated id read back (what saveAll does for an IDENTITY id) vs the unnest insert in
+ * batches of 1000, plus the bulk insert into a table that already holds every title (a resync).
+ * Needs a scratch PostgreSQL database, set with -Dbench.jdbc.url, -Dbench.jdbc.user and
+ * -Dbench.jdbc.password; the songs table there is created and truncated by the benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SongBulkInsertBenchmark {
+    private static final int BATCH_SIZE = 1000;
+    private static final String CREATE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS songs (" +
+            "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, title VARCHAR(1000) NOT NULL, " +
+            "creator VARCHAR(500), album VARCHAR(500), duration VARCHAR(20), location VARCHAR(1000), " +
+            "created_at TIMESTAMP NOT NULL, updated_at TIMESTAMP, occurrence INTEGER NOT NULL)";
+    private static final String INSERT_ONE_SQL = "INSERT INTO songs (title, creator, album, duration, location, created_at, occurrence) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Param({"50000"})
+    private int songCount;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private PlaylistSyncService service;
+    private List<Song> songs;
+
+    @Setup
+    public void setup() {
+        // Without Spring Boot's logging setup logback defaults to DEBUG on the console
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(ch.qos.logback.classic.Level.INFO);
+
+        dataSource = new SingleConnectionDataSource(
+                System.getProperty("bench.jdbc.url", "jdbc:postgresql://localhost:5432/twitchchat_bench"),
+                System.getProperty("bench.jdbc.user", "postgres"),
+                System.getProperty("bench.jdbc.password", "postgres"),
+                true);
+        dataSource.setAutoCommit(false);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute(CREATE_TABLE_SQL);
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_title ON songs (title)");
+
+        service = new PlaylistSyncService();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+
+        songs = new ArrayList<>(songCount);
+        for (int i = 0; i < songCount; i++) {
+            Song song = new Song();
+            song.setTitle("Synthetic Track " + i + " - Battle Theme");
+            song.setDuration(service.formatDuration(60 + i % 300));
+            song.setOccurrence(0);
+            songs.add(song);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void resetTable(BenchmarkParams params) throws SQLException {
+        jdbcTemplate.execute("TRUNCATE songs");
+        if (params.getBenchmark().endsWith("bulkResync")) {
+            insertAll();
+        }
+        dataSource.getConnection().commit();
+    }
+
+    @Benchmark
+    public int rowByRow() throws SQLException {
+        int inserted = 0;
+        for (Song song : songs) {
+            GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+            inserted += jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(INSERT_ONE_SQL, Statement.RETURN_GENERATED_KEYS);
+                ps.setString(1, song.getTitle());
+                ps.setString(2, song.getCreator());
+                ps.setString(3, song.getAlbum());
+                ps.setString(4, song.getDuration());
+                ps.setString(5, song.getLocation());
+                ps.setTimestamp(6, Timestamp.valueOf(song.getCreatedAt()));
+                ps.setInt(7, song.getOccurrence());
+                return ps;
+            }, keyHolder);
+        }
+        dataSource.getConnection().commit();
+        return inserted;
+    }
+
+    @Benchmark
+    public int bulk() throws SQLException {
+        int inserted = insertAll();
+        dataSource.getConnection().commit();
+        return inserted;
+    }
+
+    @Benchmark
+    public int bulkResync() throws SQLException {
+        // The table already holds every title
+        int inserted = insertAll();
+        dataSource.getConnection().commit();
+        return inserted;
+    }
+
+    private int insertAll() {
+        int inserted = 0;
+        for (int i = 0; i < songs.size(); i += BATCH_SIZE) {
+            inserted += service.insertNewSongs(songs.subList(i, Math.min(i + BATCH_SIZE, songs.size())));
+        }
+        return inserted;
+    }
+
+    @TearDown
+    public void tearDown() {
+        dataSource.destroy();
+    }
+}
@@ -1,19 +1,22 @@
 package com.twitchchat;
 
 import com.github.twitch4j.chat.events.channel.ChannelMessageEvent;
+import com.twitchchat.archive.ChatArchive;
+import com.twitchchat.echo.ChatEchoSink;
 import com.twitchchat.event.TrackPlayEvent;
 import com.twitchchat.event.detector.TrackPlayDetector;
 import com.twitchchat.model.ChatMessage;
-
+import com.twitchchat.pipeline.ChatLatencyTracker;
+import com.twitchchat.service.ChatBroadcastService;
 import com.twitchchat.service.SongPlayTracker;
+import com.twitchchat.service.TrackPlaySpill;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Spring component that handles various Twitch chat events and formats them for console display
@@ -21,60 +24,127 @@ import java.time.format.DateTimeFormatter;
 @Component
 public class ChatEventHandler {
     private static final Logger logger = LoggerFactory.getLogger(ChatEventHandler.class);
-    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
 
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    private ChatBroadcastService chatBroadcastService;
     
     @Autowired
     private SongPlayTracker songPlayTracker;
     
     @Autowired
     private TrackPlayDetector trackPlayDetector;
+    
+    @Autowired
+    private TrackPlaySpill trackPlaySpill;
+    
+    @Autowired
+    private ChatEchoSink chatEchoSink;
+    
+    @Autowired
+    private RecentChatBuffer recentChatBuffer;
+    
+    @Autowired
+    private ChatArchive chatArchive;
+    
+    @Autowired
+    private ChatLatencyTracker latencyTracker;
 
     /**
-     * Handle incoming chat messages
+     * Handle incoming chat messages inline on the calling thread
      */
     public void onChannelMessage(ChannelMessageEvent event) {
         try {
-            String timestamp = LocalDateTime.now().format(TIME_FORMATTER);
-            String username = event.getUser().getName();
-            String message = event.getMessage();
-            String channel = event.getChannel().getName();
+            ChatMessage chatMessage = toChatMessage(event);
 
-            // Create chat message object
-            ChatMessage chatMessage = new ChatMessage(username, message, channel);
+            detectTrackPlay(chatMessage);
+            broadcast(chatMessage);
+            echo(chatMessage);
+            archive(chatMessage);
             
-            // Detect track play events
+        } catch (Exception e) {
+            logger.error("Error processing channel message: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Create chat message object from a twitch4j event
+     */
+    public ChatMessage toChatMessage(ChannelMessageEvent event) {
+        ChatMessage chatMessage = new ChatMessage(event.getUser().getName(), event.getMessage(), event.getChannel().getName());
+        latencyTracker.markIngested(chatMessage);
+        return chatMessage;
+    }
+
+    /**
+     * Detect track play events and update the database asynchronously
+     */
+    public void detectTrackPlay(ChatMessage chatMessage) {
+        try {
             TrackPlayEvent trackPlayEvent = trackPlayDetector.detect(chatMessage);
             if (trackPlayEvent != null) {
                 logger.info("Track play event detected: {}", trackPlayEvent);
                 
                 // Asynchronously update the database
-                songPlayTracker.trackSongPlayAsync(trackPlayEvent)
-                    .thenAccept(success -> {
-                        if (success) {
-                            logger.info("Song play tracked from message: {}", message);
-                        } else {
-                            logger.warn("Failed to track song play for: {}", trackPlayEvent.getSongTitle());
-                        }
-                    });
+                CompletableFuture<Boolean> tracked;
+                try {
+                    tracked = songPlayTracker.trackSongPlayAsync(trackPlayEvent);
+                } catch (RejectedExecutionException e) {
+                    // Track play executor is full and its policy hands the play back (spill or abort)
+                    trackPlaySpill.spill(trackPlayEvent);
+                    return;
+                }
+                tracked.thenAccept(success -> {
+                    if (success) {
+                        latencyTracker.recordCommit(chatMessage);
+                        logger.info("Song play tracked from message: {}", chatMessage.getMessage());
+                    } else {
+                        logger.warn("Failed to track song play for: {}", trackPlayEvent.getSongTitle());
+                    }
+                });
             }
-            
-            // Broadcast message via WebSocket
-            messagingTemplate.convertAndSend("/topic/messages", chatMessage);
+        } catch (Exception e) {
+            logger.error("Error detecting track play: {}", e.getMessage(), e);
+        }
+    }
 
-            // Format and display the message
-            String formattedMessage = String.format("[%s] %s: %s", 
-                timestamp, username, message);
-            
-            System.out.println(formattedMessage);
+    /**
+     * Record the message for replay and broadcast it via WebSocket (single or batched frames depending on broadcast mode)
+     */
+    public void broadcast(ChatMessage chatMessage) {
+        try {
+            recentChatBuffer.add(chatMessage);
+            chatBroadcastService.broadcast(chatMessage);
+        } catch (Exception e) {
+            logger.error("Error broadcasting chat message: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Display the message on the console (formatting and output happen on the echo sink's writer)
+     */
+    public void echo(ChatMessage chatMessage) {
+        try {
+            chatEchoSink.echo(chatMessage);
             
             // Log the message for debugging
-            logger.debug("Message in {}: {} - {}", channel, username, message);
+            logger.debug("Message in {}: {} - {}", chatMessage.getChannel(), chatMessage.getUsername(), chatMessage.getMessage());
             
         } catch (Exception e) {
-            logger.error("Error processing channel message: {}", e.getMessage(), e);
+            logger.error("Error echoing chat message: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Append the message to the on-disk chat archive (no-op when archiving is disabled)
+     */
+    public void archive(ChatMessage chatMessage) {
+        if (!chatArchive.isEnabled()) {
+            return;
+        }
+        try {
+            chatArchive.append(chatMessage);
+        } catch (Exception e) {
+            logger.error("Error archiving chat message: {}", e.getMessage(), e);
         }
     }
 
@@ -83,12 +153,8 @@ public class ChatEventHandler {
      */
     public void onUserJoin(Object event) {
         try {
-            String timestamp = LocalDateTime.now().format(TIME_FORMATTER);
-            
-            // Format and display the join message
-            String joinMessage = String.format("[%s] --> User joined the chat", timestamp);
-            
-            System.out.println(joinMessage);
+            // Display the join message
+            chatEchoSink.notice("--> User joined the chat");
             
             logger.debug("User joined event received");
             
@@ -102,12 +168,8 @@ public class ChatEventHandler {
      */
     public void onUserLeave(Object event) {
         try {
-            String timestamp = LocalDateTime.now().format(TIME_FORMATTER);
-
-            // Format and display the leave message
-            String leaveMessage = String.format("[%s] <-- User left the chat", timestamp);
-            
-            System.out.println(leaveMessage);
+            // Display the leave message
+            chatEchoSink.notice("<-- User left the chat");
             
             logger.debug("User left event received");
             
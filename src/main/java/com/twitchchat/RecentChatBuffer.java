@@ -0,0 +1,80 @@
+package com.twitchchat;
+
+import com.twitchchat.config.RecentChatProperties;
+import com.twitchchat.model.ChatMessage;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-capacity, lock-free ring of the most recent chat messages so newly connected
+ * clients can be shown history without any database or upstream work
+ */
+@Component
+public class RecentChatBuffer {
+
+    private final AtomicReferenceArray<ChatMessage> slots;
+    private final AtomicLong sequence = new AtomicLong();
+    private final int capacity;
+    private final int mask;
+
+    public RecentChatBuffer(RecentChatProperties recentChatProperties) {
+        // Round up to a power of two so the slot index is a mask instead of a modulo
+        int requested = Math.max(recentChatProperties.getCapacity(), 2);
+        int highest = Integer.highestOneBit(requested);
+        this.capacity = highest == requested ? requested : highest << 1;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Record a chat message, overwriting the oldest one when full
+     */
+    public void add(ChatMessage chatMessage) {
+        long next = sequence.getAndIncrement();
+        slots.set((int) (next & mask), chatMessage);
+    }
+
+    /**
+     * Get up to limit of the most recent messages, oldest first
+     */
+    public List<ChatMessage> getRecent(int limit) {
+        return getRecent(limit, null);
+    }
+
+    /**
+     * Get up to limit of the most recent messages from one channel (all channels if null), oldest first
+     */
+    public List<ChatMessage> getRecent(int limit, String channel) {
+        long end = sequence.get();
+        long start = Math.max(end - capacity, 0);
+        int wanted = Math.min(Math.max(limit, 0), capacity);
+
+        // Walk backwards from the newest slot, then reverse into chronological order
+        List<ChatMessage> recent = new ArrayList<>(Math.min(wanted, (int) (end - start)));
+        for (long i = end - 1; i >= start && recent.size() < wanted; i--) {
+            ChatMessage chatMessage = slots.get((int) (i & mask));
+            // A slot can still be empty if its writer has claimed the sequence but not stored yet
+            if (chatMessage != null && (channel == null || channel.equalsIgnoreCase(chatMessage.getChannel()))) {
+                recent.add(chatMessage);
+            }
+        }
+        Collections.reverse(recent);
+        return recent;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Total number of messages recorded since startup
+     */
+    public long getTotalRecorded() {
+        return sequence.get();
+    }
+}
@@ -3,17 +3,26 @@ package com.twitchchat;
 import com.github.philippheuer.credentialmanager.domain.OAuth2Credential;
 import com.github.twitch4j.TwitchClientBuilder;
 import com.github.twitch4j.chat.TwitchChat;
+import com.twitchchat.config.ChatSourceProperties;
+import com.twitchchat.config.ExecutionConfig;
 import com.twitchchat.config.TwitchProperties;
+import com.twitchchat.execution.ManagedExecutor;
+import com.twitchchat.pipeline.ChatPipelineRouter;
+import com.twitchchat.source.ChatRecorder;
+import com.twitchchat.source.LocalChatSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PreDestroy;
 import javax.annotation.PostConstruct;
 
+import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -29,27 +38,52 @@ public class TwitchChatReader {
     @Autowired
     private ChatEventHandler eventHandler;
     
+    @Autowired
+    private ChatPipelineRouter pipelineRouter;
+    
+    @Autowired
+    @Qualifier(ExecutionConfig.CHAT_HANDLER_EXECUTOR)
+    private ManagedExecutor chatHandlerExecutor;
+    
+    @Autowired
+    private ChatSourceProperties sourceProperties;
+    
+    @Autowired
+    private LocalChatSource localChatSource;
+    
+    @Autowired
+    private ChatRecorder chatRecorder;
+    
     private TwitchChat twitchChat;
     private boolean isConnected = false;
-    private ScheduledExecutorService reconnectService;
+    private ScheduledExecutorService connectionService;
 
     public TwitchChatReader() {
-        this.reconnectService = Executors.newScheduledThreadPool(1);
+        // One timer thread for both the delayed start and the reconnect checks
+        this.connectionService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "TwitchChatReader");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     @PostConstruct
     public void initialize() {
-        // Start Twitch connection in background thread to avoid blocking server startup
-        Thread twitchThread = new Thread(() -> {
+        if (sourceProperties.isLocal()) {
+            // Replay or synthetic traffic replaces the Twitch connection entirely
+            connectionService.schedule(() -> localChatSource.start(this::onChannelMessage), 2, TimeUnit.SECONDS);
+            logger.info("Twitch Chat Reader initialized with local chat source: {}", sourceProperties.getType());
+            return;
+        }
+
+        // Start Twitch connection in the background to avoid blocking server startup
+        connectionService.schedule(() -> {
             try {
-                Thread.sleep(2000); // Wait for server to fully start
                 start();
             } catch (Exception e) {
                 logger.error("Failed to start Twitch connection", e);
             }
-        });
-        twitchThread.setName("TwitchChatReader");
-        twitchThread.start();
+        }, 2, TimeUnit.SECONDS); // Wait for server to fully start
         logger.info("Twitch Chat Reader initialized - connection starting in background");
     }
 
@@ -63,8 +97,8 @@ public class TwitchChatReader {
             // Initialize Twitch client
             initializeTwitchClient();
             
-            // Join the configured channel
-            joinChannel();
+            // Join the configured channels
+            joinChannels();
             
             // Start monitoring connection
             startConnectionMonitoring();
@@ -104,43 +138,77 @@ public class TwitchChatReader {
      * Register all event handlers for chat events
      */
     private void registerEventHandlers() {
-        // Handle incoming chat messages
         twitchChat.getEventManager().onEvent(
             com.github.twitch4j.chat.events.channel.ChannelMessageEvent.class,
-            eventHandler::onChannelMessage
+            this::onChannelMessage
         );
 
-        logger.info("Event handlers registered");
+        logger.info("Event handlers registered (ingest pipeline: {}, recording: {})",
+                   pipelineRouter.isRunning(), chatRecorder.isRecording());
+    }
+
+    /**
+     * Route one chat message from the Twitch client or the local chat source
+     */
+    private void onChannelMessage(com.github.twitch4j.chat.events.channel.ChannelMessageEvent event) {
+        if (chatRecorder.isRecording()) {
+            chatRecorder.record(event);
+        }
+
+        // Hand off to the channel's ring buffer shard when the pipeline is running so the
+        // IRC reader thread never waits on detection, broadcast or console output. Without the
+        // pipeline the handlers run on the managed chat handler executor (platform or virtual
+        // threads); message order across tasks is not preserved
+        if (pipelineRouter.isRunning()) {
+            pipelineRouter.publish(event);
+        } else {
+            dispatchToHandler(event);
+        }
+    }
+
+    /**
+     * Run the chat handlers for one message on the chat handler executor
+     */
+    private void dispatchToHandler(com.github.twitch4j.chat.events.channel.ChannelMessageEvent event) {
+        try {
+            chatHandlerExecutor.execute(() -> eventHandler.onChannelMessage(event));
+        } catch (RejectedExecutionException e) {
+            logger.debug("Chat handler executor saturated, handling message on the event thread");
+            eventHandler.onChannelMessage(event);
+        }
     }
 
     /**
-     * Join the configured Twitch channel
+     * Join the configured Twitch channels
      */
-    private void joinChannel() {
-        String channelName = twitchProperties.getCleanChannelName();
+    private void joinChannels() {
+        List<String> channelNames = twitchProperties.getCleanChannelNames();
         
-        if (channelName == null || channelName.trim().isEmpty()) {
+        if (twitchProperties.getCleanChannelName() == null) {
             throw new IllegalArgumentException("Channel name is required. Please set twitch.channel-name property");
         }
 
-        try {
-            twitchChat.joinChannel(channelName);
-            isConnected = true;
-            
-            logger.info("Joined channel: {}", channelName);
-            System.out.println("Joined channel: " + channelName);
-            System.out.println("Listening for chat messages...");
-            
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to join channel: " + channelName, e);
+        for (String channelName : channelNames) {
+            try {
+                twitchChat.joinChannel(channelName);
+                
+                logger.info("Joined channel: {}", channelName);
+                System.out.println("Joined channel: " + channelName);
+                
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to join channel: " + channelName, e);
+            }
         }
+        
+        isConnected = true;
+        System.out.println("Listening for chat messages...");
     }
 
     /**
      * Start monitoring connection and implement auto-reconnect
      */
     private void startConnectionMonitoring() {
-        reconnectService.scheduleAtFixedRate(() -> {
+        connectionService.scheduleAtFixedRate(() -> {
             if (!isConnected) {
                 logger.info("Attempting to reconnect...");
                 System.out.println("Attempting to reconnect...");
@@ -148,7 +216,7 @@ public class TwitchChatReader {
                 try {
                     // Reinitialize and reconnect
                     initializeTwitchClient();
-                    joinChannel();
+                    joinChannels();
                     
                 } catch (Exception e) {
                     logger.error("Reconnection failed: {}", e.getMessage());
@@ -182,8 +250,8 @@ public class TwitchChatReader {
                 twitchChat.close();
             }
             
-            if (reconnectService != null) {
-                reconnectService.shutdown();
+            if (connectionService != null) {
+                connectionService.shutdown();
             }
             
             logger.info("Twitch Chat Reader shutdown complete");
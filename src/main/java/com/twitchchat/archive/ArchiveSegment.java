@@ -0,0 +1,246 @@
+package com.twitchchat.archive;
+
+import com.twitchchat.model.ChatMessage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One fixed-size, memory-mapped archive file of chat records.
+ *
+ * Layout: a 16 byte header (magic, version, first record timestamp) followed by records of
+ * [int length][long epochMillis][short usernameLength][short channelLength][int messageLength]
+ * [username][channel][message], with strings in UTF-8. A zero length marks the end of data.
+ * Every indexInterval-th record is added to a sparse in-memory (timestamp, offset) index.
+ */
+class ArchiveSegment {
+    static final int MAGIC = 0x43484154; // "CHAT"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_OVERHEAD = 4 + 8 + 2 + 2 + 4;
+
+    private static final int FIRST_TIMESTAMP_OFFSET = 8;
+
+    private final long sequence;
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final ByteBuffer writer;
+    private final int indexInterval;
+
+    private volatile int writePosition = HEADER_SIZE;
+    private volatile long firstTimestamp;
+    private long lastTimestamp;
+    private long recordCount;
+
+    // Sparse index, guarded by this
+    private long[] indexTimestamps = new long[64];
+    private int[] indexOffsets = new int[64];
+    private int indexSize;
+
+    private ArchiveSegment(long sequence, Path path, MappedByteBuffer buffer, int indexInterval) {
+        this.sequence = sequence;
+        this.path = path;
+        this.buffer = buffer;
+        this.writer = buffer.duplicate();
+        this.indexInterval = Math.max(indexInterval, 1);
+    }
+
+    /**
+     * Create a new, empty segment file of the given size
+     */
+    static ArchiveSegment create(long sequence, Path path, int size, int indexInterval) throws IOException {
+        MappedByteBuffer buffer = map(path, size, true);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putLong(FIRST_TIMESTAMP_OFFSET, 0L);
+        buffer.putInt(HEADER_SIZE, 0);
+        return new ArchiveSegment(sequence, path, buffer, indexInterval);
+    }
+
+    /**
+     * Open an existing segment, rebuilding the sparse index and finding the end of data
+     */
+    static ArchiveSegment open(long sequence, Path path, int indexInterval) throws IOException {
+        MappedByteBuffer buffer = map(path, 0, false);
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a chat archive segment: " + path);
+        }
+
+        ArchiveSegment segment = new ArchiveSegment(sequence, path, buffer, indexInterval);
+        segment.firstTimestamp = buffer.getLong(FIRST_TIMESTAMP_OFFSET);
+        segment.recover();
+        return segment;
+    }
+
+    private static MappedByteBuffer map(Path path, int size, boolean create) throws IOException {
+        StandardOpenOption[] options = create
+            ? new StandardOpenOption[] {StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE}
+            : new StandardOpenOption[] {StandardOpenOption.READ, StandardOpenOption.WRITE};
+
+        try (FileChannel channel = FileChannel.open(path, options)) {
+            long length = create ? size : channel.size();
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+        }
+    }
+
+    private void recover() {
+        int position = HEADER_SIZE;
+        while (position + RECORD_OVERHEAD <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + 4 + length > buffer.capacity()) {
+                break;
+            }
+            long timestamp = buffer.getLong(position + 4);
+            if (recordCount % indexInterval == 0) {
+                addIndexEntry(timestamp, position);
+            }
+            lastTimestamp = timestamp;
+            recordCount++;
+            position += 4 + length;
+        }
+        writePosition = position;
+    }
+
+    /**
+     * Append one record. Called from a single writer thread.
+     * @return false if the record does not fit in the remaining space
+     */
+    boolean append(long timestamp, byte[] username, byte[] channel, byte[] message) {
+        int length = RECORD_OVERHEAD - 4 + username.length + channel.length + message.length;
+        int position = writePosition;
+        // Keep room for the zero terminator after the record
+        if (position + 4 + length + 4 > buffer.capacity()) {
+            return false;
+        }
+
+        writer.position(position + 4);
+        writer.putLong(timestamp);
+        writer.putShort((short) username.length);
+        writer.putShort((short) channel.length);
+        writer.putInt(message.length);
+        writer.put(username);
+        writer.put(channel);
+        writer.put(message);
+        writer.putInt(0);
+
+        // Length last so a torn write is never read back as a complete record
+        buffer.putInt(position, length);
+
+        if (recordCount == 0) {
+            buffer.putLong(FIRST_TIMESTAMP_OFFSET, timestamp);
+            firstTimestamp = timestamp;
+        }
+        if (recordCount % indexInterval == 0) {
+            addIndexEntry(timestamp, position);
+        }
+        lastTimestamp = timestamp;
+        recordCount++;
+        writePosition = position + 4 + length;
+        return true;
+    }
+
+    /**
+     * Read records with from <= timestamp <= to into results, up to limit entries in total
+     * @return false once a record newer than to was reached (later segments can be skipped)
+     */
+    boolean read(long from, long to, int limit, List<ChatMessage> results) {
+        int end = writePosition;
+        ByteBuffer in = buffer.duplicate();
+        int position = findStartOffset(from);
+
+        while (position < end && results.size() < limit) {
+            int length = in.getInt(position);
+            long timestamp = in.getLong(position + 4);
+            if (timestamp > to) {
+                return false;
+            }
+
+            if (timestamp >= from) {
+                int usernameLength = in.getShort(position + 12) & 0xFFFF;
+                int channelLength = in.getShort(position + 14) & 0xFFFF;
+                int messageLength = in.getInt(position + 16);
+                int dataStart = position + RECORD_OVERHEAD;
+
+                ChatMessage chatMessage = new ChatMessage();
+                chatMessage.setUsername(decode(in, dataStart, usernameLength));
+                chatMessage.setChannel(decode(in, dataStart + usernameLength, channelLength));
+                chatMessage.setMessage(decode(in, dataStart + usernameLength + channelLength, messageLength));
+                chatMessage.setEpochMillis(timestamp);
+                results.add(chatMessage);
+            }
+            position += 4 + length;
+        }
+        return true;
+    }
+
+    /**
+     * Offset of the last indexed record with a timestamp strictly before from, or the first record
+     */
+    private synchronized int findStartOffset(long from) {
+        // Lower bound: first index entry with timestamp >= from (timestamps are non-decreasing)
+        int low = 0;
+        int high = indexSize;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (indexTimestamps[mid] < from) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low == 0 ? HEADER_SIZE : indexOffsets[low - 1];
+    }
+
+    private synchronized void addIndexEntry(long timestamp, int offset) {
+        if (indexSize == indexTimestamps.length) {
+            indexTimestamps = Arrays.copyOf(indexTimestamps, indexSize * 2);
+            indexOffsets = Arrays.copyOf(indexOffsets, indexSize * 2);
+        }
+        indexTimestamps[indexSize] = timestamp;
+        indexOffsets[indexSize] = offset;
+        indexSize++;
+    }
+
+    private static String decode(ByteBuffer in, int offset, int length) {
+        byte[] bytes = new byte[length];
+        ByteBuffer slice = in.duplicate();
+        slice.position(offset);
+        slice.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    boolean isEmpty() {
+        return writePosition == HEADER_SIZE;
+    }
+
+    long getFirstTimestamp() {
+        return firstTimestamp;
+    }
+
+    long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    int getWritePosition() {
+        return writePosition;
+    }
+}
@@ -0,0 +1,225 @@
+package com.twitchchat.archive;
+
+import com.twitchchat.config.ChatArchiveProperties;
+import com.twitchchat.model.ChatMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Append-only chat archive stored in rolling memory-mapped segment files.
+ * Segments are selected for a time range by their first timestamps, and the sparse index
+ * inside each segment positions the scan close to the start of the range.
+ */
+@Component
+public class ChatArchive {
+    private static final Logger logger = LoggerFactory.getLogger(ChatArchive.class);
+    private static final Pattern SEGMENT_NAME = Pattern.compile("chat-(\\d+)\\.seg");
+    private static final byte[] EMPTY = new byte[0];
+
+    @Autowired
+    private ChatArchiveProperties archiveProperties;
+
+    private final List<ArchiveSegment> segments = new CopyOnWriteArrayList<>();
+    private volatile ArchiveSegment activeSegment;
+    private Path directory;
+    private long lastTimestamp;
+
+    private final AtomicLong appendedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong appendedBytes = new AtomicLong();
+
+    @PostConstruct
+    public void open() {
+        if (!archiveProperties.isEnabled()) {
+            logger.info("Chat archive disabled");
+            return;
+        }
+
+        try {
+            directory = Paths.get(archiveProperties.getDirectory());
+            Files.createDirectories(directory);
+
+            List<Path> files = new ArrayList<>();
+            try (Stream<Path> listing = Files.list(directory)) {
+                listing.filter(path -> SEGMENT_NAME.matcher(path.getFileName().toString()).matches())
+                       .forEach(files::add);
+            }
+            Collections.sort(files);
+
+            for (Path file : files) {
+                try {
+                    ArchiveSegment segment = ArchiveSegment.open(parseSequence(file), file, archiveProperties.getIndexInterval());
+                    segments.add(segment);
+                    if (!segment.isEmpty()) {
+                        lastTimestamp = Math.max(lastTimestamp, segment.getLastTimestamp());
+                    }
+                } catch (IOException e) {
+                    logger.error("Skipping unreadable chat archive segment {}: {}", file, e.getMessage());
+                }
+            }
+
+            if (segments.isEmpty()) {
+                activeSegment = createSegment(0);
+            } else {
+                activeSegment = segments.get(segments.size() - 1);
+            }
+
+            logger.info("Chat archive opened at {} ({} segments)", directory.toAbsolutePath(), segments.size());
+        } catch (IOException e) {
+            logger.error("Failed to open chat archive, archiving disabled: {}", e.getMessage(), e);
+            activeSegment = null;
+        }
+    }
+
+    /**
+     * Check if messages are being archived
+     */
+    public boolean isEnabled() {
+        return activeSegment != null;
+    }
+
+    /**
+     * Append a chat message to the active segment, rolling to a new segment when it is full
+     */
+    public synchronized void append(ChatMessage chatMessage) {
+        if (activeSegment == null) {
+            return;
+        }
+
+        // Keep timestamps non-decreasing so segment and index lookups stay valid if the clock steps back
+        long timestamp = Math.max(chatMessage.getEpochMillis(), lastTimestamp);
+        byte[] username = bytes(chatMessage.getUsername());
+        byte[] channel = bytes(chatMessage.getChannel());
+        byte[] message = bytes(chatMessage.getMessage());
+
+        try {
+            if (!activeSegment.append(timestamp, username, channel, message)) {
+                if (activeSegment.isEmpty()) {
+                    droppedCount.incrementAndGet();
+                    logger.warn("Chat message from {} is larger than an archive segment, dropped", chatMessage.getUsername());
+                    return;
+                }
+                roll();
+                if (!activeSegment.append(timestamp, username, channel, message)) {
+                    droppedCount.incrementAndGet();
+                    return;
+                }
+            }
+
+            lastTimestamp = timestamp;
+            appendedCount.incrementAndGet();
+            appendedBytes.addAndGet(ArchiveSegment.RECORD_OVERHEAD + username.length + channel.length + message.length);
+        } catch (IOException e) {
+            droppedCount.incrementAndGet();
+            logger.error("Error rolling chat archive segment: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Read archived messages with from <= timestamp <= to (epoch millis), oldest first
+     */
+    public List<ChatMessage> read(long from, long to, int limit) {
+        List<ChatMessage> results = new ArrayList<>();
+        if (activeSegment == null || from > to) {
+            return results;
+        }
+
+        int effectiveLimit = Math.min(Math.max(limit, 0), archiveProperties.getMaxQueryResults());
+        List<ArchiveSegment> snapshot = new ArrayList<>(segments);
+
+        for (int i = 0; i < snapshot.size() && results.size() < effectiveLimit; i++) {
+            ArchiveSegment segment = snapshot.get(i);
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (segment.getFirstTimestamp() > to) {
+                break;
+            }
+
+            // Everything in this segment is older than the next segment's first record
+            ArchiveSegment next = i + 1 < snapshot.size() ? snapshot.get(i + 1) : null;
+            if (next != null && !next.isEmpty() && next.getFirstTimestamp() < from) {
+                continue;
+            }
+
+            if (!segment.read(from, to, effectiveLimit, results)) {
+                break;
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Get archive counters
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", isEnabled());
+        stats.put("segments", segments.size());
+        stats.put("appended", appendedCount.get());
+        stats.put("appendedBytes", appendedBytes.get());
+        stats.put("dropped", droppedCount.get());
+        if (!segments.isEmpty()) {
+            stats.put("oldestTimestamp", segments.get(0).getFirstTimestamp());
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (activeSegment != null) {
+            activeSegment.force();
+            logger.info("Chat archive flushed ({} messages appended this run)", appendedCount.get());
+        }
+    }
+
+    private void roll() throws IOException {
+        activeSegment.force();
+        activeSegment = createSegment(activeSegment.getSequence() + 1);
+
+        while (segments.size() > Math.max(archiveProperties.getMaxSegments(), 1)) {
+            ArchiveSegment oldest = segments.remove(0);
+            Files.deleteIfExists(oldest.getPath());
+            logger.info("Deleted chat archive segment {} (retention {} segments)",
+                       oldest.getPath().getFileName(), archiveProperties.getMaxSegments());
+        }
+    }
+
+    private ArchiveSegment createSegment(long sequence) throws IOException {
+        Path path = directory.resolve(String.format("chat-%012d.seg", sequence));
+        ArchiveSegment segment = ArchiveSegment.create(sequence, path,
+                archiveProperties.getSegmentSizeBytes(), archiveProperties.getIndexInterval());
+        segments.add(segment);
+        logger.debug("Created chat archive segment {}", path.getFileName());
+        return segment;
+    }
+
+    private static long parseSequence(Path file) {
+        Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : 0L;
+    }
+
+    private static byte[] bytes(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : EMPTY;
+    }
+}
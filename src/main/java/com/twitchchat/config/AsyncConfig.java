@@ -0,0 +1,38 @@
+package com.twitchchat.config;
+
+import com.twitchchat.execution.ManagedExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Makes the bounded track play executor the default for @Async methods, so no @Async call
+ * falls back to Spring's unbounded SimpleAsyncTaskExecutor
+ */
+@Configuration
+public class AsyncConfig implements AsyncConfigurer {
+    private static final Logger logger = LoggerFactory.getLogger(AsyncConfig.class);
+
+    @Autowired
+    @Lazy
+    @Qualifier(ExecutionConfig.TRACK_PLAY_EXECUTOR)
+    private ManagedExecutor trackPlayExecutor;
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return trackPlayExecutor;
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (e, method, params) -> logger.error("Uncaught exception in @Async method {}: {}",
+                method.getName(), e.getMessage(), e);
+    }
+}
@@ -0,0 +1,75 @@
+package com.twitchchat.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for the memory-mapped chat archive
+ */
+@Component
+@ConfigurationProperties(prefix = "app.chat.archive")
+public class ChatArchiveProperties {
+
+    private boolean enabled = false;
+    private String directory = "data/chat-archive";
+    private int segmentSizeMb = 64;
+    private int maxSegments = 32;
+    private int indexInterval = 64;
+    private int maxQueryResults = 10000;
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public int getSegmentSizeMb() {
+        return segmentSizeMb;
+    }
+
+    public void setSegmentSizeMb(int segmentSizeMb) {
+        this.segmentSizeMb = segmentSizeMb;
+    }
+
+    public int getMaxSegments() {
+        return maxSegments;
+    }
+
+    public void setMaxSegments(int maxSegments) {
+        this.maxSegments = maxSegments;
+    }
+
+    public int getIndexInterval() {
+        return indexInterval;
+    }
+
+    public void setIndexInterval(int indexInterval) {
+        this.indexInterval = indexInterval;
+    }
+
+    public int getMaxQueryResults() {
+        return maxQueryResults;
+    }
+
+    public void setMaxQueryResults(int maxQueryResults) {
+        this.maxQueryResults = maxQueryResults;
+    }
+
+    /**
+     * Get the segment size in bytes
+     */
+    public int getSegmentSizeBytes() {
+        return (int) Math.min((long) segmentSizeMb * 1024 * 1024, Integer.MAX_VALUE);
+    }
+}
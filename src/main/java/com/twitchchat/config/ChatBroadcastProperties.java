@@ -0,0 +1,56 @@
+package com.twitchchat.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for WebSocket chat broadcasting
+ */
+@Component
+@ConfigurationProperties(prefix = "app.chat.broadcast")
+public class ChatBroadcastProperties {
+
+    /**
+     * SINGLE sends one frame per message, BATCHED coalesces messages into array frames
+     */
+    public enum Mode {
+        SINGLE,
+        BATCHED
+    }
+
+    private Mode mode = Mode.BATCHED;
+    private long windowMs = 50;
+    private int maxBatchSize = 64;
+
+    // Getters and Setters
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public long getWindowMs() {
+        return windowMs;
+    }
+
+    public void setWindowMs(long windowMs) {
+        this.windowMs = windowMs;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Check if messages should be coalesced into array frames
+     */
+    public boolean isBatched() {
+        return mode == Mode.BATCHED;
+    }
+}
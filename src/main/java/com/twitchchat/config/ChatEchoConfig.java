@@ -0,0 +1,42 @@
+package com.twitchchat.config;
+
+import com.twitchchat.echo.AsyncChatEchoSink;
+import com.twitchchat.echo.ChatEchoSink;
+import com.twitchchat.echo.OffChatEchoSink;
+import com.twitchchat.echo.SampledChatEchoSink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+
+/**
+ * Selects the console echo sink for chat messages based on app.chat.echo.mode
+ */
+@Configuration
+public class ChatEchoConfig {
+    private static final Logger logger = LoggerFactory.getLogger(ChatEchoConfig.class);
+
+    @Bean(destroyMethod = "close")
+    public ChatEchoSink chatEchoSink(ChatEchoProperties echoProperties) {
+        logger.info("Chat echo mode: {}", echoProperties.getMode());
+
+        switch (echoProperties.getMode()) {
+            case OFF:
+                return new OffChatEchoSink();
+            case SAMPLED:
+                return new SampledChatEchoSink(createAsyncSink(echoProperties), echoProperties.getSampleRate());
+            case ASYNC:
+            default:
+                return createAsyncSink(echoProperties);
+        }
+    }
+
+    private AsyncChatEchoSink createAsyncSink(ChatEchoProperties echoProperties) {
+        // Write to the stdout file descriptor directly instead of through System.out's locked PrintStream
+        return new AsyncChatEchoSink(new FileOutputStream(FileDescriptor.out).getChannel(),
+                echoProperties.getQueueCapacity(), echoProperties.getBufferSize());
+    }
+}
@@ -0,0 +1,60 @@
+package com.twitchchat.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for echoing chat messages to the console
+ */
+@Component
+@ConfigurationProperties(prefix = "app.chat.echo")
+public class ChatEchoProperties {
+
+    /**
+     * OFF disables console output, ASYNC writes every message from a background thread,
+     * SAMPLED writes every Nth message from the same background thread
+     */
+    public enum Mode {
+        OFF,
+        ASYNC,
+        SAMPLED
+    }
+
+    private Mode mode = Mode.ASYNC;
+    private int queueCapacity = 8192;
+    private int bufferSize = 64 * 1024;
+    private int sampleRate = 10;
+
+    // Getters and Setters
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+}
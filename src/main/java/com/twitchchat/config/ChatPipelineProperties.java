@@ -0,0 +1,69 @@
+package com.twitchchat.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for the chat ingest ring buffer
+ */
+@Component
+@ConfigurationProperties(prefix = "app.chat.pipeline")
+public class ChatPipelineProperties {
+
+    /**
+     * How pipeline consumers wait for new messages
+     */
+    public enum WaitStrategyType {
+        BLOCKING,
+        SLEEPING,
+        YIELDING,
+        BUSY_SPIN
+    }
+
+    private boolean enabled = true;
+    private int bufferSize = 4096;
+    private WaitStrategyType waitStrategy = WaitStrategyType.BLOCKING;
+    private long shutdownTimeoutMs = 5000;
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public WaitStrategyType getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    public void setWaitStrategy(WaitStrategyType waitStrategy) {
+        this.waitStrategy = waitStrategy;
+    }
+
+    public long getShutdownTimeoutMs() {
+        return shutdownTimeoutMs;
+    }
+
+    public void setShutdownTimeoutMs(long shutdownTimeoutMs) {
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+    }
+
+    /**
+     * Get the buffer size rounded up to the next power of two (required by the ring buffer)
+     */
+    public int getNormalizedBufferSize() {
+        int size = Math.max(bufferSize, 2);
+        int highest = Integer.highestOneBit(size);
+        return highest == size ? size : highest << 1;
+    }
+}
@@ -0,0 +1,154 @@
+package com.twitchchat.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for the chat source (live Twitch, recorded log replay or synthetic load)
+ * and for recording live chat traffic
+ */
+@Component
+@ConfigurationProperties(prefix = "app.chat.source")
+public class ChatSourceProperties {
+
+    /**
+     * Where chat events come from
+     */
+    public enum Type {
+        TWITCH,
+        REPLAY,
+        SYNTHETIC
+    }
+
+    private Type type = Type.TWITCH;
+
+    // Recording of live traffic (TWITCH source only)
+    private boolean record = false;
+    private String recordFile = "data/chat-recording.log";
+
+    // Replay of a recorded log: speed 1 is real time, N is N times faster, 0 is as fast as possible
+    private String replayFile = "data/chat-recording.log";
+    private double speed = 1.0;
+    private boolean loop = false;
+
+    // Synthetic traffic: rate 0 is as fast as possible, count 0 runs until shutdown
+    private int rate = 50;
+    private long count = 0;
+    private int users = 500;
+    private long seed = 42;
+    private int trackPlayEvery = 200;
+    private String trackPlayUsername = "fftbattleground";
+    private String trackPlayTemplate = "Now playing: {title} ({duration})";
+
+    // Getters and Setters
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public boolean isRecord() {
+        return record;
+    }
+
+    public void setRecord(boolean record) {
+        this.record = record;
+    }
+
+    public String getRecordFile() {
+        return recordFile;
+    }
+
+    public void setRecordFile(String recordFile) {
+        this.recordFile = recordFile;
+    }
+
+    public String getReplayFile() {
+        return replayFile;
+    }
+
+    public void setReplayFile(String replayFile) {
+        this.replayFile = replayFile;
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    public void setSpeed(double speed) {
+        this.speed = speed;
+    }
+
+    public boolean isLoop() {
+        return loop;
+    }
+
+    public void setLoop(boolean loop) {
+        this.loop = loop;
+    }
+
+    public int getRate() {
+        return rate;
+    }
+
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public void setUsers(int users) {
+        this.users = users;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public int getTrackPlayEvery() {
+        return trackPlayEvery;
+    }
+
+    public void setTrackPlayEvery(int trackPlayEvery) {
+        this.trackPlayEvery = trackPlayEvery;
+    }
+
+    public String getTrackPlayUsername() {
+        return trackPlayUsername;
+    }
+
+    public void setTrackPlayUsername(String trackPlayUsername) {
+        this.trackPlayUsername = trackPlayUsername;
+    }
+
+    public String getTrackPlayTemplate() {
+        return trackPlayTemplate;
+    }
+
+    public void setTrackPlayTemplate(String trackPlayTemplate) {
+        this.trackPlayTemplate = trackPlayTemplate;
+    }
+
+    /**
+     * Check if chat comes from somewhere other than a live Twitch connection
+     */
+    public boolean isLocal() {
+        return type != Type.TWITCH;
+    }
+}
@@ -0,0 +1,32 @@
+package com.twitchchat.config;
+
+import com.twitchchat.execution.ManagedExecutor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Executors for blocking application work, switchable between platform and virtual threads
+ * with app.execution.mode
+ */
+@Configuration
+public class ExecutionConfig {
+    public static final String TRACK_PLAY_EXECUTOR = "trackPlayExecutor";
+    public static final String CHAT_HANDLER_EXECUTOR = "chatHandlerExecutor";
+
+    /**
+     * Runs @Async track play tracking (JDBC lookups and updates), and any other @Async method
+     * without an explicit executor; full-pool handling follows app.execution.track-play-rejection-policy
+     */
+    @Bean(name = TRACK_PLAY_EXECUTOR, destroyMethod = "shutdown")
+    public ManagedExecutor trackPlayExecutor(ExecutionProperties executionProperties) {
+        return ManagedExecutor.create("track-play", executionProperties, executionProperties.getTrackPlayRejectionPolicy());
+    }
+
+    /**
+     * Runs chat handlers when the ingest pipeline is disabled
+     */
+    @Bean(name = CHAT_HANDLER_EXECUTOR, destroyMethod = "shutdown")
+    public ManagedExecutor chatHandlerExecutor(ExecutionProperties executionProperties) {
+        return ManagedExecutor.create("chat-handler", executionProperties);
+    }
+}
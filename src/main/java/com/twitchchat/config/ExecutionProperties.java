@@ -0,0 +1,98 @@
+package com.twitchchat.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for the managed executors that run track play and chat handler work
+ */
+@Component
+@ConfigurationProperties(prefix = "app.execution")
+public class ExecutionProperties {
+
+    /**
+     * PLATFORM runs tasks on a bounded pool of platform threads, VIRTUAL starts one virtual
+     * thread per task (falls back to PLATFORM on runtimes without virtual threads)
+     */
+    public enum Mode {
+        PLATFORM,
+        VIRTUAL
+    }
+
+    /**
+     * What an executor does with a task when its pool and queue are full: ABORT throws to the
+     * caller, CALLER_RUNS runs it on the submitting thread, DISCARD drops it and counts it, SPILL
+     * throws so the caller can persist the work (track plays are appended to the spill file)
+     */
+    public enum RejectionPolicy {
+        ABORT,
+        CALLER_RUNS,
+        DISCARD,
+        SPILL
+    }
+
+    private Mode mode = Mode.PLATFORM;
+    private int corePoolSize = 4;
+    private int maxPoolSize = 16;
+    private int queueCapacity = 1000;
+    private long shutdownTimeoutMs = 5000;
+    private RejectionPolicy trackPlayRejectionPolicy = RejectionPolicy.CALLER_RUNS;
+    private String trackPlaySpillFile = "data/track-play-spill.log";
+
+    // Getters and Setters
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public int getCorePoolSize() {
+        return corePoolSize;
+    }
+
+    public void setCorePoolSize(int corePoolSize) {
+        this.corePoolSize = corePoolSize;
+    }
+
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    public void setMaxPoolSize(int maxPoolSize) {
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public long getShutdownTimeoutMs() {
+        return shutdownTimeoutMs;
+    }
+
+    public void setShutdownTimeoutMs(long shutdownTimeoutMs) {
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+    }
+
+    public RejectionPolicy getTrackPlayRejectionPolicy() {
+        return trackPlayRejectionPolicy;
+    }
+
+    public void setTrackPlayRejectionPolicy(RejectionPolicy trackPlayRejectionPolicy) {
+        this.trackPlayRejectionPolicy = trackPlayRejectionPolicy;
+    }
+
+    public String getTrackPlaySpillFile() {
+        return trackPlaySpillFile;
+    }
+
+    public void setTrackPlaySpillFile(String trackPlaySpillFile) {
+        this.trackPlaySpillFile = trackPlaySpillFile;
+    }
+}
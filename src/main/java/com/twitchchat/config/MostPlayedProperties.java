@@ -0,0 +1,64 @@
+package com.twitchchat.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Configuration properties for the sliding-window most played songs summaries
+ */
+@Component
+@ConfigurationProperties(prefix = "app.track-play.most-played")
+public class MostPlayedProperties {
+
+    private boolean enabled = true;
+    // Window lengths such as 1h, 24h or 7d, also used as the window labels in the API
+    private List<String> windows = new ArrayList<>(Arrays.asList("1h", "24h", "7d"));
+    private int panes = 12;
+    private int capacity = 200;
+    private int defaultLimit = 20;
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<String> getWindows() {
+        return windows;
+    }
+
+    public void setWindows(List<String> windows) {
+        this.windows = windows;
+    }
+
+    public int getPanes() {
+        return panes;
+    }
+
+    public void setPanes(int panes) {
+        this.panes = panes;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getDefaultLimit() {
+        return defaultLimit;
+    }
+
+    public void setDefaultLimit(int defaultLimit) {
+        this.defaultLimit = defaultLimit;
+    }
+}
@@ -0,0 +1,59 @@
+package com.twitchchat.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for fetching the FFT Battleground playlist feed and its local cache
+ */
+@Component
+@ConfigurationProperties(prefix = "app.playlist.feed")
+public class PlaylistFeedProperties {
+
+    private String url = "http://www.fftbattleground.com/fftbg/playlist.xml";
+    private String cacheDirectory = "data/playlist-cache";
+    private boolean conditionalFetch = true;
+    private int connectTimeoutMs = 10000;
+    private int readTimeoutMs = 30000;
+
+    // Getters and Setters
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getCacheDirectory() {
+        return cacheDirectory;
+    }
+
+    public void setCacheDirectory(String cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    public boolean isConditionalFetch() {
+        return conditionalFetch;
+    }
+
+    public void setConditionalFetch(boolean conditionalFetch) {
+        this.conditionalFetch = conditionalFetch;
+    }
+
+    public int getConnectTimeoutMs() {
+        return connectTimeoutMs;
+    }
+
+    public void setConnectTimeoutMs(int connectTimeoutMs) {
+        this.connectTimeoutMs = connectTimeoutMs;
+    }
+
+    public int getReadTimeoutMs() {
+        return readTimeoutMs;
+    }
+
+    public void setReadTimeoutMs(int readTimeoutMs) {
+        this.readTimeoutMs = readTimeoutMs;
+    }
+}
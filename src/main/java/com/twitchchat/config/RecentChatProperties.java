@@ -0,0 +1,32 @@
+package com.twitchchat.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for the in-memory recent chat replay buffer
+ */
+@Component
+@ConfigurationProperties(prefix = "app.chat.recent")
+public class RecentChatProperties {
+
+    private int capacity = 256;
+    private int defaultLimit = 50;
+
+    // Getters and Setters
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getDefaultLimit() {
+        return defaultLimit;
+    }
+
+    public void setDefaultLimit(int defaultLimit) {
+        this.defaultLimit = defaultLimit;
+    }
+}
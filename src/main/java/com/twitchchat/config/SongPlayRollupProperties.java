@@ -0,0 +1,59 @@
+package com.twitchchat.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for hourly and daily song play rollups and the trending endpoint
+ */
+@Component
+@ConfigurationProperties(prefix = "app.track-play.rollups")
+public class SongPlayRollupProperties {
+
+    private boolean enabled = true;
+    private int hourlyRetentionDays = 7;
+    private int dailyRetentionDays = 400;
+    private int defaultLimit = 20;
+    private int maxLimit = 100;
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getHourlyRetentionDays() {
+        return hourlyRetentionDays;
+    }
+
+    public void setHourlyRetentionDays(int hourlyRetentionDays) {
+        this.hourlyRetentionDays = hourlyRetentionDays;
+    }
+
+    public int getDailyRetentionDays() {
+        return dailyRetentionDays;
+    }
+
+    public void setDailyRetentionDays(int dailyRetentionDays) {
+        this.dailyRetentionDays = dailyRetentionDays;
+    }
+
+    public int getDefaultLimit() {
+        return defaultLimit;
+    }
+
+    public void setDefaultLimit(int defaultLimit) {
+        this.defaultLimit = defaultLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+}
@@ -0,0 +1,41 @@
+package com.twitchchat.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for the song_play_stats table and its rebuild job
+ */
+@Component
+@ConfigurationProperties(prefix = "app.track-play.stats")
+public class SongPlayStatsProperties {
+
+    private boolean enabled = true;
+    private boolean rebuildOnStartup = true;
+    private String rebuildCron = "0 30 4 * * *";
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isRebuildOnStartup() {
+        return rebuildOnStartup;
+    }
+
+    public void setRebuildOnStartup(boolean rebuildOnStartup) {
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    public String getRebuildCron() {
+        return rebuildCron;
+    }
+
+    public void setRebuildCron(String rebuildCron) {
+        this.rebuildCron = rebuildCron;
+    }
+}
@@ -0,0 +1,72 @@
+package com.twitchchat.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for monthly track_plays partitions and their retention
+ */
+@Component
+@ConfigurationProperties(prefix = "app.track-play.partitions")
+public class TrackPlayPartitionProperties {
+
+    private boolean enabled = true;
+    private int monthsAhead = 3;
+    private int retentionMonths = 0;
+    private ArchiveMode archiveMode = ArchiveMode.EXPORT;
+    private String exportDirectory = "data/track-play-archive";
+    private String maintenanceCron = "0 10 3 * * *";
+
+    public enum ArchiveMode {
+        EXPORT, DROP
+    }
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMonthsAhead() {
+        return monthsAhead;
+    }
+
+    public void setMonthsAhead(int monthsAhead) {
+        this.monthsAhead = monthsAhead;
+    }
+
+    public int getRetentionMonths() {
+        return retentionMonths;
+    }
+
+    public void setRetentionMonths(int retentionMonths) {
+        this.retentionMonths = retentionMonths;
+    }
+
+    public ArchiveMode getArchiveMode() {
+        return archiveMode;
+    }
+
+    public void setArchiveMode(ArchiveMode archiveMode) {
+        this.archiveMode = archiveMode;
+    }
+
+    public String getExportDirectory() {
+        return exportDirectory;
+    }
+
+    public void setExportDirectory(String exportDirectory) {
+        this.exportDirectory = exportDirectory;
+    }
+
+    public String getMaintenanceCron() {
+        return maintenanceCron;
+    }
+
+    public void setMaintenanceCron(String maintenanceCron) {
+        this.maintenanceCron = maintenanceCron;
+    }
+}
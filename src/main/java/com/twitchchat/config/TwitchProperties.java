@@ -3,6 +3,11 @@ package com.twitchchat.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
 /**
  * Spring Boot configuration properties for Twitch settings
  */
@@ -13,6 +18,7 @@ public class TwitchProperties {
     private String accessToken;
     private String username;
     private String channelName;
+    private List<String> channels = new ArrayList<>();
 
     // Getters and Setters
     public String getAccessToken() {
@@ -39,6 +45,14 @@ public class TwitchProperties {
         this.channelName = channelName;
     }
 
+    public List<String> getChannels() {
+        return channels;
+    }
+
+    public void setChannels(List<String> channels) {
+        this.channels = channels;
+    }
+
     /**
      * Check if access token is configured
      */
@@ -53,15 +67,39 @@ public class TwitchProperties {
         return username != null && !username.trim().isEmpty();
     }
 
+    /**
+     * Get all channels to join, cleaned and de-duplicated, with the primary channel first
+     */
+    public List<String> getCleanChannelNames() {
+        Set<String> names = new LinkedHashSet<>();
+        String primary = getCleanChannelName();
+        if (primary != null) {
+            names.add(primary);
+        }
+        if (channels != null) {
+            for (String channel : channels) {
+                String cleaned = cleanChannelName(channel);
+                if (cleaned != null) {
+                    names.add(cleaned);
+                }
+            }
+        }
+        return new ArrayList<>(names);
+    }
+
     /**
      * Get cleaned channel name (lowercase, no #)
      */
     public String getCleanChannelName() {
-        if (channelName == null || channelName.trim().isEmpty()) {
+        return cleanChannelName(channelName);
+    }
+
+    private static String cleanChannelName(String name) {
+        if (name == null || name.trim().isEmpty()) {
             return null;
         }
         
-        String cleaned = channelName.trim();
+        String cleaned = name.trim();
         if (cleaned.startsWith("#")) {
             cleaned = cleaned.substring(1);
         }
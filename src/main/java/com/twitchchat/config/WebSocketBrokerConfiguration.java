@@ -0,0 +1,35 @@
+package com.twitchchat.config;
+
+import com.twitchchat.websocket.SlowConsumerMetrics;
+import com.twitchchat.websocket.SlowConsumerSubProtocolWebSocketHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.config.annotation.DelegatingWebSocketMessageBrokerConfiguration;
+
+/**
+ * Message broker infrastructure (in place of @EnableWebSocketMessageBroker) so the STOMP handler
+ * can apply the slow consumer policy to each session. Broker and endpoint settings still come
+ * from the WebSocketMessageBrokerConfigurer beans such as WebSocketConfig.
+ */
+@Configuration(proxyBeanMethods = false)
+public class WebSocketBrokerConfiguration extends DelegatingWebSocketMessageBrokerConfiguration {
+
+    @Autowired
+    private WebSocketTransportProperties transportProperties;
+
+    @Autowired
+    private SlowConsumerMetrics slowConsumerMetrics;
+
+    @Bean
+    @Override
+    public WebSocketHandler subProtocolWebSocketHandler(
+            @Qualifier("clientInboundChannel") AbstractSubscribableChannel clientInboundChannel,
+            @Qualifier("clientOutboundChannel") AbstractSubscribableChannel clientOutboundChannel) {
+        return new SlowConsumerSubProtocolWebSocketHandler(clientInboundChannel, clientOutboundChannel,
+                transportProperties, slowConsumerMetrics);
+    }
+}
@@ -1,18 +1,22 @@
 package com.twitchchat.config;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
-import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 /**
- * WebSocket configuration for real-time chat message broadcasting
+ * WebSocket configuration for real-time chat message broadcasting.
+ * The broker itself is enabled by WebSocketBrokerConfiguration.
  */
 @Configuration
-@EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    @Autowired
+    private WebSocketTransportProperties transportProperties;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         config.enableSimpleBroker("/topic");
@@ -25,4 +29,12 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOriginPatterns("*")
                 .withSockJS();
     }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // Per-session limits; what happens when a session exceeds the buffer limit is set by app.websocket.slow-session-policy
+        registration.setSendTimeLimit(transportProperties.getSendTimeLimitMs())
+                    .setSendBufferSizeLimit(transportProperties.getSendBufferSizeLimitKb() * 1024)
+                    .setMessageSizeLimit(transportProperties.getMessageSizeLimitKb() * 1024);
+    }
 }
\ No newline at end of file
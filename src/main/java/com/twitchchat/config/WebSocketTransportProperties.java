@@ -0,0 +1,70 @@
+package com.twitchchat.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for per-session WebSocket send limits and slow consumer handling
+ */
+@Component
+@ConfigurationProperties(prefix = "app.websocket")
+public class WebSocketTransportProperties {
+
+    /**
+     * What to do with a session whose outbound buffer exceeds the limit:
+     * DROP_OLDEST discards the oldest queued frames, DROP_SESSION closes the session,
+     * DOWNSAMPLE only forwards every Nth chat frame until the session catches up
+     */
+    public enum SlowSessionPolicy {
+        DROP_OLDEST,
+        DROP_SESSION,
+        DOWNSAMPLE
+    }
+
+    private int sendTimeLimitMs = 10 * 1000;
+    private int sendBufferSizeLimitKb = 512;
+    private int messageSizeLimitKb = 64;
+    private SlowSessionPolicy slowSessionPolicy = SlowSessionPolicy.DROP_OLDEST;
+    private int downsampleRate = 4;
+
+    // Getters and Setters
+    public int getSendTimeLimitMs() {
+        return sendTimeLimitMs;
+    }
+
+    public void setSendTimeLimitMs(int sendTimeLimitMs) {
+        this.sendTimeLimitMs = sendTimeLimitMs;
+    }
+
+    public int getSendBufferSizeLimitKb() {
+        return sendBufferSizeLimitKb;
+    }
+
+    public void setSendBufferSizeLimitKb(int sendBufferSizeLimitKb) {
+        this.sendBufferSizeLimitKb = sendBufferSizeLimitKb;
+    }
+
+    public int getMessageSizeLimitKb() {
+        return messageSizeLimitKb;
+    }
+
+    public void setMessageSizeLimitKb(int messageSizeLimitKb) {
+        this.messageSizeLimitKb = messageSizeLimitKb;
+    }
+
+    public SlowSessionPolicy getSlowSessionPolicy() {
+        return slowSessionPolicy;
+    }
+
+    public void setSlowSessionPolicy(SlowSessionPolicy slowSessionPolicy) {
+        this.slowSessionPolicy = slowSessionPolicy;
+    }
+
+    public int getDownsampleRate() {
+        return downsampleRate;
+    }
+
+    public void setDownsampleRate(int downsampleRate) {
+        this.downsampleRate = downsampleRate;
+    }
+}
@@ -1,14 +1,42 @@
 package com.twitchchat.controller;
 
+import com.twitchchat.RecentChatBuffer;
+import com.twitchchat.archive.ChatArchive;
+import com.twitchchat.config.ExecutionConfig;
+import com.twitchchat.config.MostPlayedProperties;
+import com.twitchchat.config.RecentChatProperties;
+import com.twitchchat.config.SongPlayRollupProperties;
+import com.twitchchat.config.TwitchProperties;
+import com.twitchchat.echo.ChatEchoSink;
+import com.twitchchat.execution.ManagedExecutor;
+import com.twitchchat.model.ChatMessage;
 import com.twitchchat.model.Song;
-import com.twitchchat.model.SongPlayCountView;
+import com.twitchchat.model.TrackPlay;
+import com.twitchchat.pipeline.ChatLatencyTracker;
+import com.twitchchat.pipeline.ChatPipelineRouter;
 import com.twitchchat.repository.SongRepository;
+import com.twitchchat.repository.TrackPlayStatsRepository;
+import com.twitchchat.service.ChatBroadcastService;
+import com.twitchchat.service.MostPlayedWindows;
+import com.twitchchat.service.PlaylistFeedFetcher;
 import com.twitchchat.service.PlaylistSyncService;
 import com.twitchchat.service.PlaylistService;
+import com.twitchchat.service.SongPlayAggregates;
+import com.twitchchat.service.SongPlayRollups;
+import com.twitchchat.service.SongPlayStatsService;
 import com.twitchchat.service.SongPlayTracker;
+import com.twitchchat.service.SongTitleIndex;
+import com.twitchchat.service.TrackPlayPartitionManager;
+import com.twitchchat.service.TrackPlaySpill;
+import com.twitchchat.service.TrackPlayWriteBehind;
 import com.twitchchat.service.SongPlayCountViewService;
+import com.twitchchat.source.ChatRecorder;
+import com.twitchchat.source.LocalChatSource;
+import com.twitchchat.websocket.SlowConsumerMetrics;
 import com.twitchchat.dto.SongWithTrackPlayCount;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -16,7 +44,12 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -41,6 +74,83 @@ public class ApiController {
     
     @Autowired
     private SongPlayCountViewService songPlayCountViewService;
+    
+    @Autowired
+    private ChatPipelineRouter chatPipelineRouter;
+    
+    @Autowired
+    private ChatBroadcastService chatBroadcastService;
+    
+    @Autowired
+    private ChatEchoSink chatEchoSink;
+    
+    @Autowired
+    private RecentChatBuffer recentChatBuffer;
+    
+    @Autowired
+    private RecentChatProperties recentChatProperties;
+    
+    @Autowired
+    private TwitchProperties twitchProperties;
+    
+    @Autowired
+    private ChatArchive chatArchive;
+
+    @Autowired
+    private SlowConsumerMetrics slowConsumerMetrics;
+
+    @Autowired
+    @Qualifier(ExecutionConfig.TRACK_PLAY_EXECUTOR)
+    private ManagedExecutor trackPlayExecutor;
+
+    @Autowired
+    @Qualifier(ExecutionConfig.CHAT_HANDLER_EXECUTOR)
+    private ManagedExecutor chatHandlerExecutor;
+
+    @Autowired
+    private ChatLatencyTracker latencyTracker;
+
+    @Autowired
+    private LocalChatSource localChatSource;
+
+    @Autowired
+    private ChatRecorder chatRecorder;
+
+    @Autowired
+    private TrackPlayWriteBehind trackPlayWriteBehind;
+    
+    @Autowired
+    private SongTitleIndex songTitleIndex;
+    
+    @Autowired
+    private SongPlayAggregates songPlayAggregates;
+    
+    @Autowired
+    private SongPlayStatsService songPlayStatsService;
+    
+    @Autowired
+    private SongPlayRollups songPlayRollups;
+    
+    @Autowired
+    private SongPlayRollupProperties songPlayRollupProperties;
+    
+    @Autowired
+    private MostPlayedWindows mostPlayedWindows;
+    
+    @Autowired
+    private MostPlayedProperties mostPlayedProperties;
+    
+    @Autowired
+    private TrackPlayStatsRepository trackPlayStatsRepository;
+    
+    @Autowired
+    private TrackPlayPartitionManager trackPlayPartitionManager;
+    
+    @Autowired
+    private TrackPlaySpill trackPlaySpill;
+    
+    @Autowired
+    private PlaylistFeedFetcher playlistFeedFetcher;
 
     /**
      * Get playlist status and statistics
@@ -49,8 +159,8 @@ public class ApiController {
     public ResponseEntity<Map<String, Object>> getPlaylistStatus() {
         Map<String, Object> status = new HashMap<>();
         
-        long totalSongs = playlistService.getTotalSongCount();
-        boolean isAvailable = playlistService.isPlaylistAvailable();
+        long totalSongs = songPlayAggregates.getTotalSongs();
+        boolean isAvailable = totalSongs > 0;
         long totalPlays = songPlayTracker.getTotalPlays();
         long playedSongs = songPlayTracker.getPlayedSongsCount();
         
@@ -117,9 +227,12 @@ public class ApiController {
         Map<String, Object> response = new HashMap<>();
 
         try {
-            org.springframework.data.domain.Page<SongPlayCountView> songsPage;
+            org.springframework.data.domain.Page<?> songsPage;
             
-            if (search != null && !search.trim().isEmpty()) {
+            if (songPlayStatsService.isEnabled()) {
+                // Maintained per-song totals, no aggregation over TrackPlay per request
+                songsPage = songPlayStatsService.searchSongs(search, page, size, sortBy, sortDirection);
+            } else if (search != null && !search.trim().isEmpty()) {
                 songsPage = songPlayCountViewService.searchSongs(search, page, size, sortBy, sortDirection);
             } else {
                 songsPage = songPlayCountViewService.fetchSongs(page, size, sortBy, sortDirection);
@@ -210,6 +323,14 @@ public class ApiController {
         }
     }
     
+    /**
+     * Get the playlist feed validators, applied content hash and last fetch result
+     */
+    @GetMapping("/playlist/feed/status")
+    public ResponseEntity<Map<String, Object>> getPlaylistFeedStatus() {
+        return ResponseEntity.ok(playlistFeedFetcher.getStats());
+    }
+    
     /**
      * Get song play statistics
      */
@@ -219,7 +340,7 @@ public class ApiController {
         
         stats.put("totalPlays", songPlayTracker.getTotalPlays());
         stats.put("playedSongs", songPlayTracker.getPlayedSongsCount());
-        stats.put("totalSongs", playlistService.getTotalSongCount());
+        stats.put("totalSongs", songPlayAggregates.getTotalSongs());
         
         return ResponseEntity.ok(stats);
     }
@@ -232,4 +353,267 @@ public class ApiController {
         List<Song> mostPlayed = songRepository.findTop20ByOrderByOccurrenceDesc();
         return ResponseEntity.ok(mostPlayed);
     }
+    
+    /**
+     * Get approximate most played songs over a configured sliding window (e.g. 1h, 24h, 7d)
+     */
+    @GetMapping("/songs/most-played/window")
+    public ResponseEntity<Map<String, Object>> getMostPlayedInWindow(
+            @RequestParam(defaultValue = "24h") String window,
+            @RequestParam(required = false) Integer limit) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        try {
+            List<Map<String, Object>> songs = mostPlayedWindows.getMostPlayed(window,
+                    limit != null ? limit : mostPlayedProperties.getDefaultLimit());
+            response.put("window", window);
+            response.put("count", songs.size());
+            response.put("songs", songs);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            response.put("error", e.getMessage());
+            response.put("windows", mostPlayedWindows.getWindowLabels());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+    
+    /**
+     * Get the most played songs over the last 24h, 7d or 30d from the play rollups
+     */
+    @GetMapping("/songs/trending")
+    public ResponseEntity<Map<String, Object>> getTrendingSongs(
+            @RequestParam(defaultValue = "24h") String window,
+            @RequestParam(required = false) Integer limit) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        SongPlayRollups.Window trendingWindow;
+        try {
+            trendingWindow = SongPlayRollups.Window.fromLabel(window);
+        } catch (IllegalArgumentException e) {
+            response.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+        
+        List<Map<String, Object>> songs = songPlayRollups.getTrending(trendingWindow,
+                limit != null ? limit : songPlayRollupProperties.getDefaultLimit());
+        response.put("window", trendingWindow.getLabel());
+        response.put("count", songs.size());
+        response.put("songs", songs);
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Get the most recent track plays within the last N hours
+     */
+    @GetMapping("/songs/recent-plays")
+    public ResponseEntity<List<Map<String, Object>>> getRecentPlays(
+            @RequestParam(defaultValue = "24") int hours,
+            @RequestParam(defaultValue = "50") int limit) {
+        LocalDateTime since = LocalDateTime.now().minusHours(Math.max(hours, 1));
+        List<Map<String, Object>> plays = new ArrayList<>();
+        for (TrackPlay trackPlay : trackPlayStatsRepository.findPlayedSince(since,
+                PageRequest.of(0, Math.min(Math.max(limit, 1), 500)))) {
+            Map<String, Object> play = new LinkedHashMap<>();
+            play.put("playedAt", trackPlay.getPlayedAt());
+            play.put("songId", trackPlay.getSong().getId());
+            play.put("title", trackPlay.getSong().getTitle());
+            plays.add(play);
+        }
+        return ResponseEntity.ok(plays);
+    }
+    
+    /**
+     * Get track_plays partitions and the last partition maintenance result
+     */
+    @GetMapping("/songs/partitions")
+    public ResponseEntity<Map<String, Object>> getTrackPlayPartitions() {
+        return ResponseEntity.ok(trackPlayPartitionManager.getStats());
+    }
+    
+    /**
+     * Run track_plays partition maintenance now (create upcoming months, archive expired ones)
+     */
+    @PostMapping("/songs/partitions/maintain")
+    public ResponseEntity<Map<String, Object>> maintainTrackPlayPartitions() {
+        try {
+            trackPlayPartitionManager.maintain();
+            return ResponseEntity.ok(trackPlayPartitionManager.getStats());
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Partition maintenance failed: " + e.getMessage());
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+    
+    /**
+     * Get track play write-behind counters (queue depth, flushes, flush latency)
+     */
+    @GetMapping("/songs/write-behind/stats")
+    public ResponseEntity<Map<String, Object>> getTrackPlayWriteBehindStats() {
+        return ResponseEntity.ok(trackPlayWriteBehind.getStats());
+    }
+    
+    /**
+     * Get song_play_stats rebuild status
+     */
+    @GetMapping("/songs/play-stats/status")
+    public ResponseEntity<Map<String, Object>> getSongPlayStatsStatus() {
+        return ResponseEntity.ok(songPlayStatsService.getStats());
+    }
+    
+    /**
+     * Rebuild song_play_stats from the TrackPlay table
+     */
+    @PostMapping("/songs/play-stats/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildSongPlayStats() {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            int songs = songPlayStatsService.rebuild();
+            response.put("success", true);
+            response.put("songsWithPlays", songs);
+            response.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "Rebuild failed: " + e.getMessage());
+            response.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+    
+    /**
+     * Get song title index counters (size, last rebuild, lookup hit rate)
+     */
+    @GetMapping("/songs/index/stats")
+    public ResponseEntity<Map<String, Object>> getSongTitleIndexStats() {
+        return ResponseEntity.ok(songTitleIndex.getStats());
+    }
+    
+    /**
+     * Get per-channel chat ingest pipeline counters (queue depth, drops, throughput, lag)
+     */
+    @GetMapping("/chat/pipeline/stats")
+    public ResponseEntity<Map<String, Object>> getChatPipelineStats() {
+        return ResponseEntity.ok(chatPipelineRouter.getStats());
+    }
+    
+    /**
+     * Get WebSocket chat broadcast counters (frames vs messages sent)
+     */
+    @GetMapping("/chat/broadcast/stats")
+    public ResponseEntity<Map<String, Object>> getChatBroadcastStats() {
+        return ResponseEntity.ok(chatBroadcastService.getStats());
+    }
+    
+    /**
+     * Get console echo counters (queue depth, drops)
+     */
+    @GetMapping("/chat/echo/stats")
+    public ResponseEntity<Map<String, Object>> getChatEchoStats() {
+        return ResponseEntity.ok(chatEchoSink.getStats());
+    }
+    
+    /**
+     * Get the most recent chat messages (oldest first) so new clients can show history immediately.
+     * Defaults to the primary channel, matching what /topic/messages carries.
+     */
+    @GetMapping("/chat/recent")
+    public ResponseEntity<List<ChatMessage>> getRecentChat(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String channel) {
+        int effectiveLimit = limit != null ? limit : recentChatProperties.getDefaultLimit();
+        String effectiveChannel = channel != null ? channel : twitchProperties.getCleanChannelName();
+        return ResponseEntity.ok(recentChatBuffer.getRecent(effectiveLimit, effectiveChannel));
+    }
+    
+    /**
+     * Get archived chat messages in a time range (ISO-8601 instants or epoch millis, default: the last hour)
+     */
+    @GetMapping("/chat/history")
+    public ResponseEntity<?> getChatHistory(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(defaultValue = "1000") int limit) {
+        
+        if (!chatArchive.isEnabled()) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("error", "Chat archive is disabled");
+            response.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.status(404).body(response);
+        }
+        
+        try {
+            long toMillis = to != null ? parseTime(to) : System.currentTimeMillis();
+            long fromMillis = from != null ? parseTime(from) : toMillis - 3600_000L;
+            return ResponseEntity.ok(chatArchive.read(fromMillis, toMillis, limit));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("error", "Invalid time range");
+            response.put("message", e.getMessage());
+            response.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+    
+    /**
+     * Get chat archive counters
+     */
+    @GetMapping("/chat/archive/stats")
+    public ResponseEntity<Map<String, Object>> getChatArchiveStats() {
+        return ResponseEntity.ok(chatArchive.getStats());
+    }
+    
+    /**
+     * Get WebSocket slow consumer counters (dropped frames and evicted sessions per topic)
+     */
+    @GetMapping("/websocket/stats")
+    public ResponseEntity<Map<String, Object>> getWebSocketStats() {
+        return ResponseEntity.ok(slowConsumerMetrics.getStats());
+    }
+    
+    /**
+     * Get active task and queue counters for the managed executors
+     */
+    @GetMapping("/execution/stats")
+    public ResponseEntity<Map<String, Object>> getExecutionStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put(trackPlayExecutor.getName(), trackPlayExecutor.getStats());
+        stats.put(chatHandlerExecutor.getName(), chatHandlerExecutor.getStats());
+        stats.put("trackPlaySpill", trackPlaySpill.getStats());
+        return ResponseEntity.ok(stats);
+    }
+    
+    /**
+     * Get the chat source counters and the end-to-end latency report
+     * (messages/sec, ingest to broadcast and ingest to DB commit percentiles)
+     */
+    @GetMapping("/chat/latency")
+    public ResponseEntity<Map<String, Object>> getChatLatencyReport() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("source", localChatSource.getStats());
+        report.put("recorded", chatRecorder.getRecordedCount());
+        report.put("latency", latencyTracker.getReport());
+        return ResponseEntity.ok(report);
+    }
+    
+    /**
+     * Reset the latency report, e.g. before a load run
+     */
+    @PostMapping("/chat/latency/reset")
+    public ResponseEntity<Map<String, Object>> resetChatLatency() {
+        latencyTracker.reset();
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Parse an ISO-8601 instant or epoch milliseconds
+     */
+    private long parseTime(String value) {
+        String trimmed = value.trim();
+        if (!trimmed.isEmpty() && trimmed.chars().allMatch(Character::isDigit)) {
+            return Long.parseLong(trimmed);
+        }
+        return Instant.parse(trimmed).toEpochMilli();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.twitchchat.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Song columns joined with its song_play_stats row, serialized with the same fields as SongPlayCountView
+ */
+public class SongPlayStatsRow {
+    private final Long songId;
+    private final String title;
+    private final String creator;
+    private final String album;
+    private final String duration;
+    private final String location;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    private final Integer occurrence;
+    private final Long trackPlayCount;
+    private final LocalDateTime firstPlayedAt;
+    private final LocalDateTime lastPlayedAt;
+
+    public SongPlayStatsRow(Long songId, String title, String creator, String album, String duration, String location,
+                            LocalDateTime createdAt, LocalDateTime updatedAt, Integer occurrence,
+                            Long trackPlayCount, LocalDateTime firstPlayedAt, LocalDateTime lastPlayedAt) {
+        this.songId = songId;
+        this.title = title;
+        this.creator = creator;
+        this.album = album;
+        this.duration = duration;
+        this.location = location;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.occurrence = occurrence;
+        this.trackPlayCount = trackPlayCount != null ? trackPlayCount : 0L;
+        this.firstPlayedAt = firstPlayedAt;
+        this.lastPlayedAt = lastPlayedAt;
+    }
+
+    // Getters
+    public Long getSongId() {
+        return songId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getCreator() {
+        return creator;
+    }
+
+    public String getAlbum() {
+        return album;
+    }
+
+    public String getDuration() {
+        return duration;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public Integer getOccurrence() {
+        return occurrence;
+    }
+
+    public Long getTrackPlayCount() {
+        return trackPlayCount;
+    }
+
+    public LocalDateTime getFirstPlayedAt() {
+        return firstPlayedAt;
+    }
+
+    public LocalDateTime getLastPlayedAt() {
+        return lastPlayedAt;
+    }
+}
@@ -0,0 +1,218 @@
+package com.twitchchat.echo;
+
+import com.twitchchat.model.ChatMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Chat echo sink that hands lines to a background writer through a bounded queue.
+ * Callers never format or touch stdout; the writer encodes lines into one pre-sized
+ * byte buffer and writes it through an NIO channel. When the queue is full lines are dropped.
+ */
+public class AsyncChatEchoSink implements ChatEchoSink {
+    private static final Logger logger = LoggerFactory.getLogger(AsyncChatEchoSink.class);
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
+    private static final byte[] SEPARATOR = ": ".getBytes(StandardCharsets.UTF_8);
+    private static final int DRAIN_LIMIT = 256;
+
+    private final WritableByteChannel channel;
+    private final BlockingQueue<Entry> queue;
+    private final ByteBuffer buffer;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    private long cachedSecond = Long.MIN_VALUE;
+    private byte[] cachedPrefix;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong writeErrors = new AtomicLong();
+
+    public AsyncChatEchoSink(WritableByteChannel channel, int queueCapacity, int bufferSize) {
+        this.channel = channel;
+        this.queue = new ArrayBlockingQueue<>(Math.max(queueCapacity, 1));
+        this.buffer = ByteBuffer.allocateDirect(Math.max(bufferSize, 1024));
+
+        this.writerThread = new Thread(this::runWriter, "chat-echo-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    @Override
+    public void echo(ChatMessage chatMessage) {
+        offer(new Entry(chatMessage.getEpochMillis(), chatMessage.getUsername(), chatMessage.getMessage()));
+    }
+
+    @Override
+    public void notice(String text) {
+        offer(new Entry(System.currentTimeMillis(), null, text));
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("mode", "ASYNC");
+        stats.put("queueDepth", queue.size());
+        stats.put("enqueued", enqueued.get());
+        stats.put("written", written.get());
+        stats.put("dropped", dropped.get());
+        stats.put("writeErrors", writeErrors.get());
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            writerThread.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void offer(Entry entry) {
+        if (queue.offer(entry)) {
+            enqueued.incrementAndGet();
+        } else {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Writer loop: drain whatever is queued, encode it into the buffer and write once per drain
+     */
+    private void runWriter() {
+        List<Entry> batch = new ArrayList<>(DRAIN_LIMIT);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch, DRAIN_LIMIT - 1);
+
+                for (Entry entry : batch) {
+                    encode(entry);
+                }
+                writeBuffer();
+                written.addAndGet(batch.size());
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                writeErrors.incrementAndGet();
+                logger.error("Error writing chat echo output: {}", e.getMessage(), e);
+                buffer.clear();
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void encode(Entry entry) throws IOException {
+        putBytes(timePrefix(entry.millis));
+        if (entry.username != null) {
+            putString(entry.username);
+            putBytes(SEPARATOR);
+        }
+        putString(entry.text);
+        putByte((byte) '\n');
+    }
+
+    /**
+     * "[HH:mm:ss] " bytes, recomputed at most once per second
+     */
+    private byte[] timePrefix(long millis) {
+        long second = Math.floorDiv(millis, 1000L);
+        if (second != cachedSecond) {
+            String time = LocalTime.ofInstant(Instant.ofEpochMilli(millis), zone).format(TIME_FORMATTER);
+            cachedPrefix = ("[" + time + "] ").getBytes(StandardCharsets.UTF_8);
+            cachedSecond = second;
+        }
+        return cachedPrefix;
+    }
+
+    private void putString(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+
+        CharBuffer chars = CharBuffer.wrap(value);
+        encoder.reset();
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, true);
+            if (result.isOverflow()) {
+                writeBuffer();
+            } else {
+                break;
+            }
+        }
+    }
+
+    private void putBytes(byte[] bytes) throws IOException {
+        if (buffer.remaining() < bytes.length) {
+            writeBuffer();
+        }
+        buffer.put(bytes);
+    }
+
+    private void putByte(byte value) throws IOException {
+        if (!buffer.hasRemaining()) {
+            writeBuffer();
+        }
+        buffer.put(value);
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * One queued console line
+     */
+    private static final class Entry {
+        private final long millis;
+        private final String username;
+        private final String text;
+
+        private Entry(long millis, String username, String text) {
+            this.millis = millis;
+            this.username = username;
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.twitchchat.echo;
+
+import com.twitchchat.model.ChatMessage;
+
+import java.util.Map;
+
+/**
+ * Destination for the console echo of chat activity
+ */
+public interface ChatEchoSink {
+
+    /**
+     * Echo a chat message as "[HH:mm:ss] username: message"
+     */
+    void echo(ChatMessage chatMessage);
+
+    /**
+     * Echo a notice line such as a join or leave as "[HH:mm:ss] notice"
+     */
+    void notice(String text);
+
+    /**
+     * Get sink counters
+     */
+    Map<String, Object> getStats();
+
+    /**
+     * Flush pending output and release resources
+     */
+    default void close() {
+    }
+}
@@ -0,0 +1,27 @@
+package com.twitchchat.echo;
+
+import com.twitchchat.model.ChatMessage;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Chat echo sink that discards everything
+ */
+public class OffChatEchoSink implements ChatEchoSink {
+
+    @Override
+    public void echo(ChatMessage chatMessage) {
+    }
+
+    @Override
+    public void notice(String text) {
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("mode", "OFF");
+        return stats;
+    }
+}
@@ -0,0 +1,49 @@
+package com.twitchchat.echo;
+
+import com.twitchchat.model.ChatMessage;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Chat echo sink that forwards every Nth chat message (and every notice) to a delegate
+ */
+public class SampledChatEchoSink implements ChatEchoSink {
+    private final ChatEchoSink delegate;
+    private final int sampleRate;
+    private final AtomicLong seen = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+
+    public SampledChatEchoSink(ChatEchoSink delegate, int sampleRate) {
+        this.delegate = delegate;
+        this.sampleRate = Math.max(sampleRate, 1);
+    }
+
+    @Override
+    public void echo(ChatMessage chatMessage) {
+        if (seen.getAndIncrement() % sampleRate == 0) {
+            delegate.echo(chatMessage);
+        } else {
+            skipped.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void notice(String text) {
+        delegate.notice(text);
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = delegate.getStats();
+        stats.put("mode", "SAMPLED");
+        stats.put("sampleRate", sampleRate);
+        stats.put("skipped", skipped.get());
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
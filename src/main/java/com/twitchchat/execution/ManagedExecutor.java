@@ -0,0 +1,258 @@
+package com.twitchchat.execution;
+
+import com.twitchchat.config.ExecutionProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executor for blocking work (JDBC track play updates, chat handlers) that runs either on a
+ * bounded platform thread pool or on one virtual thread per task, and counts what it runs.
+ * In virtual mode the number of unfinished tasks is capped at max pool size plus queue capacity,
+ * so both modes hold the same amount of work before the rejection policy applies.
+ * Virtual threads are created reflectively so the application still builds and runs on Java 11.
+ */
+public class ManagedExecutor implements Executor {
+    private static final Logger logger = LoggerFactory.getLogger(ManagedExecutor.class);
+
+    private final String name;
+    private final ExecutionProperties.Mode mode;
+    private final ExecutorService delegate;
+    private final ThreadPoolExecutor pool;
+    private final Semaphore permits;
+    private final int capacity;
+    private final ExecutionProperties.RejectionPolicy rejectionPolicy;
+    private final long shutdownTimeoutMs;
+
+    private final AtomicLong submittedCount = new AtomicLong();
+    private final AtomicLong completedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong callerRunsCount = new AtomicLong();
+    private final AtomicLong discardedCount = new AtomicLong();
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final AtomicInteger queuedCount = new AtomicInteger();
+    private final AtomicInteger peakActiveCount = new AtomicInteger();
+
+    private ManagedExecutor(String name, ExecutionProperties.Mode mode, ExecutorService delegate, int capacity,
+                            ExecutionProperties.RejectionPolicy rejectionPolicy, long shutdownTimeoutMs) {
+        this.name = name;
+        this.mode = mode;
+        this.delegate = delegate;
+        this.pool = delegate instanceof ThreadPoolExecutor ? (ThreadPoolExecutor) delegate : null;
+        this.permits = pool == null ? new Semaphore(capacity) : null;
+        this.capacity = capacity;
+        this.rejectionPolicy = rejectionPolicy;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+    }
+
+    /**
+     * Create an executor in the configured mode that throws RejectedExecutionException when full
+     */
+    public static ManagedExecutor create(String name, ExecutionProperties executionProperties) {
+        return create(name, executionProperties, ExecutionProperties.RejectionPolicy.ABORT);
+    }
+
+    /**
+     * Create an executor in the configured mode with the given policy for tasks submitted while it is full
+     */
+    public static ManagedExecutor create(String name, ExecutionProperties executionProperties,
+                                         ExecutionProperties.RejectionPolicy rejectionPolicy) {
+        int maxPoolSize = Math.max(executionProperties.getMaxPoolSize(), executionProperties.getCorePoolSize());
+        int queueCapacity = Math.max(executionProperties.getQueueCapacity(), 1);
+        if (executionProperties.getMode() == ExecutionProperties.Mode.VIRTUAL) {
+            ExecutorService virtual = newVirtualThreadExecutor(name);
+            if (virtual != null) {
+                logger.info("Executor '{}' running tasks on virtual threads (max unfinished: {}, when full: {})",
+                           name, maxPoolSize + queueCapacity, rejectionPolicy);
+                return new ManagedExecutor(name, ExecutionProperties.Mode.VIRTUAL, virtual, maxPoolSize + queueCapacity,
+                        rejectionPolicy, executionProperties.getShutdownTimeoutMs());
+            }
+            logger.warn("Virtual threads are not available on Java {}, executor '{}' falls back to platform threads",
+                       System.getProperty("java.specification.version"), name);
+        }
+
+        ThreadPoolExecutor platform = new ThreadPoolExecutor(
+            executionProperties.getCorePoolSize(),
+            maxPoolSize,
+            60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new NamedThreadFactory(name));
+        logger.info("Executor '{}' running tasks on platform threads (core: {}, max: {}, queue: {}, when full: {})",
+                   name, platform.getCorePoolSize(), platform.getMaximumPoolSize(), queueCapacity, rejectionPolicy);
+        return new ManagedExecutor(name, ExecutionProperties.Mode.PLATFORM, platform, queueCapacity,
+                rejectionPolicy, executionProperties.getShutdownTimeoutMs());
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        submittedCount.incrementAndGet();
+        if (permits != null && !permits.tryAcquire()) {
+            rejected(task, new RejectedExecutionException("Executor '" + name + "' has " + capacity + " unfinished tasks"));
+            return;
+        }
+        queuedCount.incrementAndGet();
+        try {
+            delegate.execute(() -> runQueued(task));
+        } catch (RejectedExecutionException e) {
+            queuedCount.decrementAndGet();
+            if (permits != null) {
+                permits.release();
+            }
+            rejected(task, e);
+        }
+    }
+
+    /**
+     * Apply the rejection policy to a task that did not fit; a shut down executor always throws
+     */
+    private void rejected(Runnable task, RejectedExecutionException e) {
+        long rejected = rejectedCount.incrementAndGet();
+        if (delegate.isShutdown()) {
+            throw e;
+        }
+        switch (rejectionPolicy) {
+            case CALLER_RUNS:
+                callerRunsCount.incrementAndGet();
+                run(task);
+                return;
+            case DISCARD:
+                long discarded = discardedCount.incrementAndGet();
+                if (discarded == 1 || discarded % 100 == 0) {
+                    logger.warn("Executor '{}' is full, discarded {} tasks so far ({} rejected)", name, discarded, rejected);
+                }
+                return;
+            default:
+                throw e;
+        }
+    }
+
+    private void runQueued(Runnable task) {
+        queuedCount.decrementAndGet();
+        try {
+            run(task);
+        } finally {
+            if (permits != null) {
+                permits.release();
+            }
+        }
+    }
+
+    private void run(Runnable task) {
+        int active = activeCount.incrementAndGet();
+        peakActiveCount.accumulateAndGet(active, Math::max);
+        try {
+            task.run();
+            completedCount.incrementAndGet();
+        } catch (RuntimeException | Error e) {
+            failedCount.incrementAndGet();
+            throw e;
+        } finally {
+            activeCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Get task counters (active, queued, submitted, completed, failed, rejected) and pool limits
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("mode", mode);
+        stats.put("rejectionPolicy", rejectionPolicy);
+        stats.put("activeTasks", activeCount.get());
+        stats.put("peakActiveTasks", peakActiveCount.get());
+        stats.put("queuedTasks", queuedCount.get());
+        stats.put("submitted", submittedCount.get());
+        stats.put("completed", completedCount.get());
+        stats.put("failed", failedCount.get());
+        stats.put("rejected", rejectedCount.get());
+        stats.put("callerRuns", callerRunsCount.get());
+        stats.put("discarded", discardedCount.get());
+        if (pool != null) {
+            stats.put("poolSize", pool.getPoolSize());
+            stats.put("largestPoolSize", pool.getLargestPoolSize());
+            stats.put("corePoolSize", pool.getCorePoolSize());
+            stats.put("maxPoolSize", pool.getMaximumPoolSize());
+            stats.put("queueCapacity", capacity);
+            stats.put("queueRemainingCapacity", pool.getQueue().remainingCapacity());
+        } else {
+            stats.put("maxUnfinishedTasks", capacity);
+            stats.put("availablePermits", permits.availablePermits());
+        }
+        return stats;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ExecutionProperties.Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Stop accepting tasks and wait up to the shutdown timeout for queued and running ones to finish
+     */
+    public void shutdown() {
+        delegate.shutdown();
+        try {
+            if (!delegate.awaitTermination(shutdownTimeoutMs, TimeUnit.MILLISECONDS)) {
+                logger.warn("Executor '{}' did not finish within {} ms ({} tasks active, {} queued), interrupting",
+                           name, shutdownTimeoutMs, activeCount.get(), queuedCount.get());
+                delegate.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            delegate.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(prefix, 0).factory()), or null before Java 21
+     */
+    private static ExecutorService newVirtualThreadExecutor(String name) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, name + "-", 1L);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            Method perTask = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) perTask.invoke(null, factory);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Names pool threads after the executor so they are recognisable in thread dumps
+     */
+    private static class NamedThreadFactory implements ThreadFactory {
+        private final String name;
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        private NamedThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, name + "-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
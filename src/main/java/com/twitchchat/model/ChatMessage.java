@@ -1,8 +1,6 @@
 package com.twitchchat.model;
 
-import java.time.LocalDateTime;
-import java.time.ZoneOffset;
-import java.time.format.DateTimeFormatter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 /**
  * Model class representing a Twitch chat message
@@ -10,17 +8,24 @@ import java.time.format.DateTimeFormatter;
 public class ChatMessage {
     private String username;
     private String message;
-    private String timestamp;
     private String channel;
+    // Captured once at construction; the ISO string is only built when first requested
+    private long epochMillis;
+    private String timestamp;
+    // System.nanoTime() when the message was ingested, for latency tracking only
+    private long ingestNanos;
 
     public ChatMessage() {}
 
     public ChatMessage(String username, String message, String channel) {
+        this(username, message, channel, System.currentTimeMillis());
+    }
+
+    public ChatMessage(String username, String message, String channel, long epochMillis) {
         this.username = username;
         this.message = message;
         this.channel = channel;
-        // Use ISO instant format for proper JavaScript Date parsing
-        this.timestamp = LocalDateTime.now().atZone(ZoneOffset.UTC).toInstant().toString();
+        this.epochMillis = epochMillis;
     }
 
     // Getters and Setters
@@ -40,14 +45,43 @@ public class ChatMessage {
         this.message = message;
     }
 
+    /**
+     * Get the ISO instant timestamp (UTC) for proper JavaScript Date parsing
+     */
     public String getTimestamp() {
-        return timestamp;
+        String formatted = timestamp;
+        if (formatted == null && epochMillis != 0) {
+            formatted = IsoTimestampFormatter.format(epochMillis);
+            timestamp = formatted;
+        }
+        return formatted;
     }
 
     public void setTimestamp(String timestamp) {
         this.timestamp = timestamp;
     }
 
+    @JsonIgnore
+    public long getEpochMillis() {
+        return epochMillis;
+    }
+
+    @JsonIgnore
+    public void setEpochMillis(long epochMillis) {
+        this.epochMillis = epochMillis;
+        this.timestamp = null;
+    }
+
+    @JsonIgnore
+    public long getIngestNanos() {
+        return ingestNanos;
+    }
+
+    @JsonIgnore
+    public void setIngestNanos(long ingestNanos) {
+        this.ingestNanos = ingestNanos;
+    }
+
     public String getChannel() {
         return channel;
     }
@@ -55,4 +89,4 @@ public class ChatMessage {
     public void setChannel(String channel) {
         this.channel = channel;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,53 @@
+package com.twitchchat.model;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Formats epoch millis as ISO-8601 UTC instants ("2025-07-19T12:34:56.789Z").
+ * The "yyyy-MM-ddTHH:mm:ss." prefix is cached per second, so most calls only append the millis.
+ */
+final class IsoTimestampFormatter {
+    private static final DateTimeFormatter PREFIX_FORMATTER =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.").withZone(ZoneOffset.UTC);
+
+    private static volatile CachedPrefix cachedPrefix = new CachedPrefix(Long.MIN_VALUE, "");
+
+    private IsoTimestampFormatter() {
+    }
+
+    static String format(long epochMillis) {
+        long second = Math.floorDiv(epochMillis, 1000L);
+        int millis = (int) Math.floorMod(epochMillis, 1000L);
+
+        CachedPrefix prefix = cachedPrefix;
+        if (prefix.second != second) {
+            prefix = new CachedPrefix(second, PREFIX_FORMATTER.format(Instant.ofEpochSecond(second)));
+            cachedPrefix = prefix;
+        }
+
+        StringBuilder builder = new StringBuilder(prefix.text.length() + 4);
+        builder.append(prefix.text);
+        if (millis < 100) {
+            builder.append('0');
+        }
+        if (millis < 10) {
+            builder.append('0');
+        }
+        return builder.append(millis).append('Z').toString();
+    }
+
+    /**
+     * Immutable (second, prefix) pair so readers never see a prefix for the wrong second
+     */
+    private static final class CachedPrefix {
+        private final long second;
+        private final String text;
+
+        private CachedPrefix(long second, String text) {
+            this.second = second;
+            this.text = text;
+        }
+    }
+}
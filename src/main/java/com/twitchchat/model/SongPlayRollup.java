@@ -0,0 +1,103 @@
+package com.twitchchat.model;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Number of plays of one song within one hourly ('H'), daily ('D') or monthly ('M') time bucket.
+ * Monthly buckets are written when a track_plays partition is archived and are never pruned.
+ */
+@Entity
+@Table(name = "song_play_rollups", indexes = {
+    @Index(name = "idx_song_play_rollups_bucket", columnList = "granularity, bucket_start")
+})
+public class SongPlayRollup {
+
+    public static final String HOURLY = "H";
+    public static final String DAILY = "D";
+    public static final String MONTHLY = "M";
+
+    @EmbeddedId
+    private Key key;
+
+    @Column(name = "play_count", nullable = false)
+    private Long playCount = 0L;
+
+    public SongPlayRollup() {
+    }
+
+    // Getters and Setters
+    public Key getKey() {
+        return key;
+    }
+
+    public void setKey(Key key) {
+        this.key = key;
+    }
+
+    public Long getPlayCount() {
+        return playCount;
+    }
+
+    public void setPlayCount(Long playCount) {
+        this.playCount = playCount;
+    }
+
+    /**
+     * Song, granularity and bucket start
+     */
+    @Embeddable
+    public static class Key implements Serializable {
+
+        @Column(name = "song_id")
+        private Long songId;
+
+        @Column(name = "granularity", length = 1)
+        private String granularity;
+
+        @Column(name = "bucket_start")
+        private LocalDateTime bucketStart;
+
+        public Key() {
+        }
+
+        public Key(Long songId, String granularity, LocalDateTime bucketStart) {
+            this.songId = songId;
+            this.granularity = granularity;
+            this.bucketStart = bucketStart;
+        }
+
+        public Long getSongId() {
+            return songId;
+        }
+
+        public String getGranularity() {
+            return granularity;
+        }
+
+        public LocalDateTime getBucketStart() {
+            return bucketStart;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return Objects.equals(songId, other.songId)
+                && Objects.equals(granularity, other.granularity)
+                && Objects.equals(bucketStart, other.bucketStart);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(songId, granularity, bucketStart);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.twitchchat.model;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Per-song play totals maintained alongside TrackPlay rows, so sorting and paging songs by
+ * play count or last play reads one row per song instead of aggregating the play history
+ */
+@Entity
+@Table(name = "song_play_stats", indexes = {
+    @Index(name = "idx_song_play_stats_play_count", columnList = "play_count"),
+    @Index(name = "idx_song_play_stats_last_played_at", columnList = "last_played_at")
+})
+public class SongPlayStats {
+
+    @Id
+    @Column(name = "song_id")
+    private Long songId;
+
+    @Column(name = "play_count", nullable = false)
+    private Long playCount = 0L;
+
+    @Column(name = "first_played_at")
+    private LocalDateTime firstPlayedAt;
+
+    @Column(name = "last_played_at")
+    private LocalDateTime lastPlayedAt;
+
+    public SongPlayStats() {
+    }
+
+    // Getters and Setters
+    public Long getSongId() {
+        return songId;
+    }
+
+    public void setSongId(Long songId) {
+        this.songId = songId;
+    }
+
+    public Long getPlayCount() {
+        return playCount;
+    }
+
+    public void setPlayCount(Long playCount) {
+        this.playCount = playCount;
+    }
+
+    public LocalDateTime getFirstPlayedAt() {
+        return firstPlayedAt;
+    }
+
+    public void setFirstPlayedAt(LocalDateTime firstPlayedAt) {
+        this.firstPlayedAt = firstPlayedAt;
+    }
+
+    public LocalDateTime getLastPlayedAt() {
+        return lastPlayedAt;
+    }
+
+    public void setLastPlayedAt(LocalDateTime lastPlayedAt) {
+        this.lastPlayedAt = lastPlayedAt;
+    }
+}
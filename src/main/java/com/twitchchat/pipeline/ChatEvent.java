@@ -0,0 +1,24 @@
+package com.twitchchat.pipeline;
+
+import com.twitchchat.model.ChatMessage;
+
+/**
+ * Pre-allocated ring buffer slot carrying one chat message through the ingest pipeline
+ */
+public class ChatEvent {
+    private ChatMessage chatMessage;
+    private long publishedNanos;
+
+    public ChatMessage getChatMessage() {
+        return chatMessage;
+    }
+
+    public long getPublishedNanos() {
+        return publishedNanos;
+    }
+
+    void set(ChatMessage chatMessage, long publishedNanos) {
+        this.chatMessage = chatMessage;
+        this.publishedNanos = publishedNanos;
+    }
+}
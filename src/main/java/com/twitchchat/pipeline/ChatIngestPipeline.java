@@ -0,0 +1,261 @@
+package com.twitchchat.pipeline;
+
+import com.github.twitch4j.chat.events.channel.ChannelMessageEvent;
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.BusySpinWaitStrategy;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.EventTranslatorOneArg;
+import com.lmax.disruptor.ExceptionHandler;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.SleepingWaitStrategy;
+import com.lmax.disruptor.TimeoutException;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.YieldingWaitStrategy;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+import com.twitchchat.ChatEventHandler;
+import com.twitchchat.config.ChatPipelineProperties;
+import com.twitchchat.model.ChatMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ring buffer stage between the twitch4j event thread and ChatEventHandler for one channel shard.
+ * The IRC reader thread only copies the message into a pre-allocated slot; track play detection,
+ * WebSocket broadcast, console output and archiving each run on their own consumer thread, and a
+ * final stage records how long each message took to clear every stage.
+ */
+public class ChatIngestPipeline {
+    private static final Logger logger = LoggerFactory.getLogger(ChatIngestPipeline.class);
+
+    private static final EventTranslatorOneArg<ChatEvent, ChatMessage> TRANSLATOR =
+        (event, sequence, chatMessage) -> event.set(chatMessage, System.nanoTime());
+
+    private final String channel;
+    private final ChatPipelineProperties pipelineProperties;
+    private final ChatEventHandler eventHandler;
+
+    private Disruptor<ChatEvent> disruptor;
+    private volatile RingBuffer<ChatEvent> ringBuffer;
+
+    private final AtomicLong publishedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final ThroughputMeter throughput = new ThroughputMeter();
+
+    // Written only by the lag stage thread
+    private volatile long lastLagNanos;
+    private volatile long maxLagNanos;
+    private final AtomicLong totalLagNanos = new AtomicLong();
+    private final AtomicLong completedCount = new AtomicLong();
+
+    public ChatIngestPipeline(String channel, ChatPipelineProperties pipelineProperties, ChatEventHandler eventHandler) {
+        this.channel = channel;
+        this.pipelineProperties = pipelineProperties;
+        this.eventHandler = eventHandler;
+    }
+
+    public void start() {
+        int bufferSize = pipelineProperties.getNormalizedBufferSize();
+        disruptor = new Disruptor<>(ChatEvent::new, bufferSize, new PipelineThreadFactory(channel),
+                ProducerType.SINGLE, createWaitStrategy(pipelineProperties.getWaitStrategy()));
+
+        disruptor.setDefaultExceptionHandler(new LoggingExceptionHandler());
+        disruptor.handleEventsWith(
+            stage(chatMessage -> eventHandler.detectTrackPlay(chatMessage)),
+            stage(chatMessage -> eventHandler.broadcast(chatMessage)),
+            stage(chatMessage -> eventHandler.echo(chatMessage)),
+            stage(chatMessage -> eventHandler.archive(chatMessage))
+        ).then((event, sequence, endOfBatch) -> recordLag(event));
+
+        ringBuffer = disruptor.start();
+        logger.info("Chat ingest pipeline started for #{} (capacity: {}, wait strategy: {})",
+                   channel, bufferSize, pipelineProperties.getWaitStrategy());
+    }
+
+    /**
+     * Check if the pipeline is accepting messages
+     */
+    public boolean isRunning() {
+        return ringBuffer != null;
+    }
+
+    /**
+     * Publish a twitch4j chat event into the ring buffer.
+     * Synchronized so a reconnect that briefly leaves two chat clients alive cannot break the
+     * single-producer sequencer; the lock is uncontended in steady state.
+     * @return true if the message was accepted, false if the buffer was full and it was dropped
+     */
+    public synchronized boolean publish(ChannelMessageEvent event) {
+        if (ringBuffer == null) {
+            // Not started or already shutting down
+            droppedCount.incrementAndGet();
+            return false;
+        }
+
+        ChatMessage chatMessage;
+        try {
+            chatMessage = eventHandler.toChatMessage(event);
+        } catch (Exception e) {
+            failedCount.incrementAndGet();
+            logger.error("Error converting channel message: {}", e.getMessage(), e);
+            return false;
+        }
+
+        if (ringBuffer.tryPublishEvent(TRANSLATOR, chatMessage)) {
+            publishedCount.incrementAndGet();
+            throughput.mark();
+            return true;
+        }
+
+        long dropped = droppedCount.incrementAndGet();
+        logger.debug("Chat ingest buffer for #{} full, dropped message from {} (total dropped: {})",
+                    channel, chatMessage.getUsername(), dropped);
+        return false;
+    }
+
+    /**
+     * Get ring buffer counters (capacity, queue depth, published, dropped, throughput, lag)
+     */
+    public Map<String, Object> getStats() {
+        RingBuffer<ChatEvent> current = ringBuffer;
+        long completed = completedCount.get();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("running", current != null);
+        stats.put("capacity", current != null ? current.getBufferSize() : 0);
+        stats.put("queueDepth", getQueueDepth());
+        stats.put("published", publishedCount.get());
+        stats.put("dropped", droppedCount.get());
+        stats.put("failed", failedCount.get());
+        stats.put("messagesPerSecond", throughput.getRatePerSecond());
+        stats.put("lastLagMicros", TimeUnit.NANOSECONDS.toMicros(lastLagNanos));
+        stats.put("maxLagMicros", TimeUnit.NANOSECONDS.toMicros(maxLagNanos));
+        stats.put("avgLagMicros", completed > 0 ? TimeUnit.NANOSECONDS.toMicros(totalLagNanos.get() / completed) : 0);
+        return stats;
+    }
+
+    /**
+     * Number of published messages not yet consumed by the slowest stage
+     */
+    public long getQueueDepth() {
+        RingBuffer<ChatEvent> current = ringBuffer;
+        if (current == null) {
+            return 0;
+        }
+        return current.getBufferSize() - current.remainingCapacity();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public void shutdown() {
+        if (disruptor == null) {
+            return;
+        }
+
+        RingBuffer<ChatEvent> stopped;
+        synchronized (this) {
+            stopped = ringBuffer;
+            ringBuffer = null;
+        }
+
+        try {
+            disruptor.shutdown(pipelineProperties.getShutdownTimeoutMs(), TimeUnit.MILLISECONDS);
+            logger.info("Chat ingest pipeline for #{} drained and stopped", channel);
+        } catch (TimeoutException e) {
+            logger.warn("Chat ingest pipeline for #{} did not drain within {} ms ({} messages pending), halting",
+                       channel, pipelineProperties.getShutdownTimeoutMs(),
+                       stopped.getBufferSize() - stopped.remainingCapacity());
+            disruptor.halt();
+        }
+    }
+
+    private void recordLag(ChatEvent event) {
+        long lag = System.nanoTime() - event.getPublishedNanos();
+        lastLagNanos = lag;
+        if (lag > maxLagNanos) {
+            maxLagNanos = lag;
+        }
+        totalLagNanos.addAndGet(lag);
+        completedCount.incrementAndGet();
+    }
+
+    private static EventHandler<ChatEvent> stage(ChatStage chatStage) {
+        return (event, sequence, endOfBatch) -> chatStage.accept(event.getChatMessage());
+    }
+
+    private static WaitStrategy createWaitStrategy(ChatPipelineProperties.WaitStrategyType type) {
+        switch (type) {
+            case SLEEPING:
+                return new SleepingWaitStrategy();
+            case YIELDING:
+                return new YieldingWaitStrategy();
+            case BUSY_SPIN:
+                return new BusySpinWaitStrategy();
+            case BLOCKING:
+            default:
+                return new BlockingWaitStrategy();
+        }
+    }
+
+    /**
+     * One consumer stage of the pipeline
+     */
+    @FunctionalInterface
+    private interface ChatStage {
+        void accept(ChatMessage chatMessage);
+    }
+
+    /**
+     * Names consumer threads after their channel so they are recognisable in thread dumps
+     */
+    private static class PipelineThreadFactory implements ThreadFactory {
+        private final String channel;
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        private PipelineThreadFactory(String channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "chat-pipeline-" + channel + "-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * Log stage failures without stopping the consumer thread
+     */
+    private class LoggingExceptionHandler implements ExceptionHandler<ChatEvent> {
+        @Override
+        public void handleEventException(Throwable ex, long sequence, ChatEvent event) {
+            failedCount.incrementAndGet();
+            logger.error("Error processing chat message for #{} at sequence {}: {}", channel, sequence, ex.getMessage(), ex);
+        }
+
+        @Override
+        public void handleOnStartException(Throwable ex) {
+            logger.error("Chat ingest pipeline for #{} failed to start", channel, ex);
+        }
+
+        @Override
+        public void handleOnShutdownException(Throwable ex) {
+            logger.error("Error shutting down chat ingest pipeline for #{}", channel, ex);
+        }
+    }
+}
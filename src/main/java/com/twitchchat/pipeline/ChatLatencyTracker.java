@@ -0,0 +1,80 @@
+package com.twitchchat.pipeline;
+
+import com.twitchchat.model.ChatMessage;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end latency of chat messages: from ingest (conversion of the twitch4j event) to the
+ * WebSocket send, and from ingest to the database commit of a detected track play
+ */
+@Component
+public class ChatLatencyTracker {
+    private final LatencyHistogram ingestToBroadcast = new LatencyHistogram();
+    private final LatencyHistogram ingestToCommit = new LatencyHistogram();
+    private final AtomicLong ingestedCount = new AtomicLong();
+    private volatile long startMillis = System.currentTimeMillis();
+    private volatile long startNanos = System.nanoTime();
+
+    /**
+     * Stamp a newly created message with its ingest time
+     */
+    public void markIngested(ChatMessage chatMessage) {
+        chatMessage.setIngestNanos(System.nanoTime());
+        ingestedCount.incrementAndGet();
+    }
+
+    /**
+     * Record that a message was handed to the WebSocket broker
+     */
+    public void recordBroadcast(ChatMessage chatMessage) {
+        record(ingestToBroadcast, chatMessage);
+    }
+
+    /**
+     * Record that a track play from this message was committed to the database
+     */
+    public void recordCommit(ChatMessage chatMessage) {
+        record(ingestToCommit, chatMessage);
+    }
+
+    /**
+     * Get messages/sec since the last reset and the latency percentiles of both paths
+     */
+    public Map<String, Object> getReport() {
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        long ingested = ingestedCount.get();
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("since", Instant.ofEpochMilli(startMillis).toString());
+        report.put("elapsedSeconds", Math.round(elapsedSeconds * 10) / 10.0);
+        report.put("ingested", ingested);
+        report.put("messagesPerSecond", elapsedSeconds > 0 ? Math.round(ingested / elapsedSeconds * 10) / 10.0 : 0);
+        report.put("ingestToBroadcast", ingestToBroadcast.getSummary());
+        report.put("ingestToCommit", ingestToCommit.getSummary());
+        return report;
+    }
+
+    /**
+     * Clear all counters, e.g. before a load run
+     */
+    public void reset() {
+        ingestToBroadcast.reset();
+        ingestToCommit.reset();
+        ingestedCount.set(0);
+        startMillis = System.currentTimeMillis();
+        startNanos = System.nanoTime();
+    }
+
+    private static void record(LatencyHistogram histogram, ChatMessage chatMessage) {
+        long ingestNanos = chatMessage.getIngestNanos();
+        if (ingestNanos != 0) {
+            histogram.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - ingestNanos));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.twitchchat.pipeline;
+
+import com.github.twitch4j.chat.events.channel.ChannelMessageEvent;
+import com.twitchchat.ChatEventHandler;
+import com.twitchchat.config.ChatPipelineProperties;
+import com.twitchchat.config.TwitchProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Routes chat events to a dedicated ingest pipeline shard per channel, so a busy channel
+ * fills (and drops from) its own ring buffer instead of delaying the others
+ */
+@Component
+public class ChatPipelineRouter {
+    private static final Logger logger = LoggerFactory.getLogger(ChatPipelineRouter.class);
+
+    @Autowired
+    private ChatPipelineProperties pipelineProperties;
+
+    @Autowired
+    private TwitchProperties twitchProperties;
+
+    @Autowired
+    private ChatEventHandler eventHandler;
+
+    private final ConcurrentMap<String, ChatIngestPipeline> shards = new ConcurrentHashMap<>();
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        if (!pipelineProperties.isEnabled()) {
+            logger.info("Chat ingest pipeline disabled - chat handlers run on the twitch4j event thread");
+            return;
+        }
+
+        for (String channel : twitchProperties.getCleanChannelNames()) {
+            shardFor(channel);
+        }
+        running = true;
+        logger.info("Chat ingest pipeline shards started for channels: {}", shards.keySet());
+    }
+
+    /**
+     * Check if events are being routed through pipeline shards
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Publish a twitch4j chat event to its channel's shard
+     * @return true if the message was accepted, false if it was dropped
+     */
+    public boolean publish(ChannelMessageEvent event) {
+        if (!running) {
+            return false;
+        }
+        return shardFor(event.getChannel().getName()).publish(event);
+    }
+
+    /**
+     * Get per-channel shard counters, keyed by channel name
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", running);
+        stats.put("waitStrategy", pipelineProperties.getWaitStrategy());
+
+        Map<String, Object> channels = new LinkedHashMap<>();
+        shards.forEach((channel, shard) -> channels.put(channel, shard.getStats()));
+        stats.put("channels", channels);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        shards.values().forEach(ChatIngestPipeline::shutdown);
+    }
+
+    private ChatIngestPipeline shardFor(String channel) {
+        String key = channel.toLowerCase();
+        ChatIngestPipeline shard = shards.get(key);
+        if (shard != null) {
+            return shard;
+        }
+
+        // Channels joined after startup get a shard on first message
+        return shards.computeIfAbsent(key, name -> {
+            ChatIngestPipeline pipeline = new ChatIngestPipeline(name, pipelineProperties, eventHandler);
+            pipeline.start();
+            return pipeline;
+        });
+    }
+}
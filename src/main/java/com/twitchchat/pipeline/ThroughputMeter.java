@@ -0,0 +1,42 @@
+package com.twitchchat.pipeline;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts events in one-second buckets over a rolling minute
+ */
+public class ThroughputMeter {
+    private static final int BUCKETS = 60;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLongArray seconds = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Record one event at the current time
+     */
+    public void mark() {
+        long second = System.currentTimeMillis() / 1000L;
+        int bucket = (int) (second % BUCKETS);
+        long bucketSecond = seconds.get(bucket);
+        if (bucketSecond != second && seconds.compareAndSet(bucket, bucketSecond, second)) {
+            counts.set(bucket, 0);
+        }
+        counts.incrementAndGet(bucket);
+    }
+
+    /**
+     * Average events per second over the last full minute
+     */
+    public double getRatePerSecond() {
+        long now = System.currentTimeMillis() / 1000L;
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            long age = now - seconds.get(i);
+            // Skip the current, still-filling second
+            if (age > 0 && age <= BUCKETS) {
+                total += counts.get(i);
+            }
+        }
+        return total / (double) BUCKETS;
+    }
+}
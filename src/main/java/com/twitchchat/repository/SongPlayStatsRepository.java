@@ -0,0 +1,83 @@
+package com.twitchchat.repository;
+
+import com.twitchchat.dto.SongPlayStatsRow;
+import com.twitchchat.model.SongPlayStats;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository for per-song play totals kept in song_play_stats
+ */
+@Repository
+public interface SongPlayStatsRepository extends JpaRepository<SongPlayStats, Long>, SongPlayStatsRepositoryCustom {
+
+    /**
+     * Add plays to a song's totals, creating its row on the first play
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO song_play_stats (song_id, play_count, first_played_at, last_played_at) " +
+                   "VALUES (:songId, :plays, :firstPlayedAt, :lastPlayedAt) " +
+                   "ON CONFLICT (song_id) DO UPDATE SET play_count = song_play_stats.play_count + EXCLUDED.play_count, " +
+                   "first_played_at = LEAST(song_play_stats.first_played_at, EXCLUDED.first_played_at), " +
+                   "last_played_at = GREATEST(song_play_stats.last_played_at, EXCLUDED.last_played_at)",
+           nativeQuery = true)
+    int recordPlays(@Param("songId") Long songId, @Param("plays") long plays,
+                    @Param("firstPlayedAt") LocalDateTime firstPlayedAt, @Param("lastPlayedAt") LocalDateTime lastPlayedAt);
+
+    /**
+     * Block concurrent play updates until the current transaction ends
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE song_play_stats IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    /**
+     * Remove every row before a rebuild
+     */
+    @Modifying
+    @Query(value = "DELETE FROM song_play_stats", nativeQuery = true)
+    int deleteAllRows();
+
+    /**
+     * Recompute every song's totals from the track_plays table plus the monthly rollups of archived
+     * partitions; for archived months only the month start is known, so first and last played are approximate
+     */
+    @Modifying
+    @Query(value = "INSERT INTO song_play_stats (song_id, play_count, first_played_at, last_played_at) " +
+                   "SELECT song_id, SUM(plays), MIN(first_played_at), MAX(last_played_at) FROM (" +
+                   "SELECT song_id, COUNT(*) AS plays, MIN(played_at) AS first_played_at, MAX(played_at) AS last_played_at " +
+                   "FROM track_plays GROUP BY song_id " +
+                   "UNION ALL " +
+                   "SELECT song_id, play_count, bucket_start, bucket_start FROM song_play_rollups WHERE granularity = 'M'" +
+                   ") plays GROUP BY song_id",
+           nativeQuery = true)
+    int insertFromTrackPlays();
+
+    /**
+     * Page through all songs joined with their play totals, for sorts on song columns
+     */
+    @Query(value = "SELECT new com.twitchchat.dto.SongPlayStatsRow(s.id, s.title, s.creator, s.album, s.duration, s.location, " +
+                   "s.createdAt, s.updatedAt, s.occurrence, ps.playCount, ps.firstPlayedAt, ps.lastPlayedAt) " +
+                   "FROM Song s LEFT JOIN SongPlayStats ps ON ps.songId = s.id",
+           countQuery = "SELECT COUNT(s) FROM Song s")
+    Page<SongPlayStatsRow> findSongsWithPlayStats(Pageable pageable);
+
+    /**
+     * Page through songs whose title contains the search term, joined with their play totals
+     */
+    @Query(value = "SELECT new com.twitchchat.dto.SongPlayStatsRow(s.id, s.title, s.creator, s.album, s.duration, s.location, " +
+                   "s.createdAt, s.updatedAt, s.occurrence, ps.playCount, ps.firstPlayedAt, ps.lastPlayedAt) " +
+                   "FROM Song s LEFT JOIN SongPlayStats ps ON ps.songId = s.id " +
+                   "WHERE LOWER(s.title) LIKE LOWER(CONCAT('%', :searchTerm, '%'))",
+           countQuery = "SELECT COUNT(s) FROM Song s WHERE LOWER(s.title) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
+    Page<SongPlayStatsRow> searchSongsWithPlayStats(@Param("searchTerm") String searchTerm, Pageable pageable);
+}
@@ -0,0 +1,19 @@
+package com.twitchchat.repository;
+
+import com.twitchchat.dto.SongPlayStatsRow;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Song pages sorted by a song_play_stats column, read from song_play_stats in index order
+ */
+public interface SongPlayStatsRepositoryCustom {
+
+    /**
+     * Page through songs sorted by playCount, firstPlayedAt or lastPlayedAt, ties by song id.
+     * Songs without plays sort as a play count of 0 and after every played song for the play times.
+     * @param searchTerm only songs whose title contains this, or null for all songs
+     * @throws IllegalArgumentException if the property is not one of the three
+     */
+    Page<SongPlayStatsRow> findSongsSortedByPlayStats(String searchTerm, String property, boolean descending, Pageable pageable);
+}
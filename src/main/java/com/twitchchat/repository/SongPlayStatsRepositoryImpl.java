@@ -0,0 +1,82 @@
+package com.twitchchat.repository;
+
+import com.twitchchat.dto.SongPlayStatsRow;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Splits a page into played songs, driven from song_play_stats and ordered by the bare sorted column
+ * so PostgreSQL can walk its index and stop at the page, and songs without plays, which have no
+ * value to sort by and follow in id order. Sorting the LEFT JOIN by COALESCE or a NULL flag instead
+ * would join and sort the whole catalog for every page.
+ */
+class SongPlayStatsRepositoryImpl implements SongPlayStatsRepositoryCustom {
+    private static final Set<String> PLAY_STATS_PROPERTIES = new HashSet<>(Arrays.asList(
+        "playCount", "firstPlayedAt", "lastPlayedAt"));
+
+    private static final String ROW = "SELECT new com.twitchchat.dto.SongPlayStatsRow(s.id, s.title, s.creator, s.album, " +
+            "s.duration, s.location, s.createdAt, s.updatedAt, s.occurrence, ps.playCount, ps.firstPlayedAt, ps.lastPlayedAt) ";
+    private static final String PLAYED = "FROM SongPlayStats ps JOIN Song s ON s.id = ps.songId";
+    private static final String UNPLAYED = "FROM Song s LEFT JOIN SongPlayStats ps ON ps.songId = s.id WHERE ps.songId IS NULL";
+    private static final String TITLE_MATCHES = "LOWER(s.title) LIKE LOWER(CONCAT('%', :searchTerm, '%'))";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<SongPlayStatsRow> findSongsSortedByPlayStats(String searchTerm, String property, boolean descending, Pageable pageable) {
+        if (!PLAY_STATS_PROPERTIES.contains(property)) {
+            throw new IllegalArgumentException("Not a song_play_stats sort property: " + property);
+        }
+
+        String played = PLAYED + (searchTerm != null ? " WHERE " + TITLE_MATCHES : "");
+        String unplayed = UNPLAYED + (searchTerm != null ? " AND " + TITLE_MATCHES : "");
+        long playedCount = count("SELECT COUNT(ps) " + played, searchTerm);
+        long total = count("SELECT COUNT(s) FROM Song s" + (searchTerm != null ? " WHERE " + TITLE_MATCHES : ""), searchTerm);
+
+        String playedRows = ROW + played + " ORDER BY ps." + property + (descending ? " DESC" : " ASC") + ", ps.songId ASC";
+        String unplayedRows = ROW + unplayed + " ORDER BY s.id ASC";
+        // Without plays a song counts as 0 plays, so it comes first only for ascending play counts
+        boolean unplayedFirst = "playCount".equals(property) && !descending;
+        String firstRows = unplayedFirst ? unplayedRows : playedRows;
+        String secondRows = unplayedFirst ? playedRows : unplayedRows;
+        long firstSize = unplayedFirst ? total - playedCount : playedCount;
+
+        long offset = pageable.getOffset();
+        int size = pageable.getPageSize();
+        List<SongPlayStatsRow> content = new ArrayList<>(size);
+        if (offset < firstSize) {
+            content.addAll(rows(firstRows, searchTerm, offset, size));
+        }
+        if (content.size() < size && offset + size > firstSize) {
+            content.addAll(rows(secondRows, searchTerm, Math.max(offset - firstSize, 0), size - content.size()));
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private long count(String jpql, String searchTerm) {
+        TypedQuery<Long> query = entityManager.createQuery(jpql, Long.class);
+        if (searchTerm != null) {
+            query.setParameter("searchTerm", searchTerm);
+        }
+        return query.getSingleResult();
+    }
+
+    private List<SongPlayStatsRow> rows(String jpql, String searchTerm, long offset, int limit) {
+        TypedQuery<SongPlayStatsRow> query = entityManager.createQuery(jpql, SongPlayStatsRow.class);
+        if (searchTerm != null) {
+            query.setParameter("searchTerm", searchTerm);
+        }
+        return query.setFirstResult(Math.toIntExact(offset)).setMaxResults(limit).getResultList();
+    }
+}
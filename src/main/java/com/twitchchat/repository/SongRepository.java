@@ -17,13 +17,21 @@ import java.util.Optional;
  * Repository for Song entities with custom queries for playlist management
  */
 @Repository
-public interface SongRepository extends JpaRepository<Song, Long> {
+public interface SongRepository extends JpaRepository<Song, Long>, SongRepositoryCustom {
     
     /**
      * Find song by exact title match
      */
     Optional<Song> findByTitle(String title);
     
+    /**
+     * Find the lowest song id whose title matches after trimming, collapsing whitespace runs
+     * and lower-casing, the same matching as SongTitleIndex
+     */
+    @Query(value = "SELECT id FROM songs WHERE lower(btrim(regexp_replace(title, '\\s+', ' ', 'g'))) = :normalizedTitle " +
+                   "ORDER BY id LIMIT 1", nativeQuery = true)
+    Optional<Long> findIdByNormalizedTitle(@Param("normalizedTitle") String normalizedTitle);
+    
     /**
      * Check if a song exists by title
      */
@@ -58,10 +66,16 @@ public interface SongRepository extends JpaRepository<Song, Long> {
     long countAllSongs();
     
     /**
-     * Get all song titles for duplicate checking (more efficient than loading full objects)
+     * Get title and duration of every song for the playlist sync diff
      */
-    @Query("SELECT s.title FROM Song s WHERE s.title IS NOT NULL")
-    List<String> findAllTitles();
+    @Query("SELECT s.title, s.duration FROM Song s WHERE s.title IS NOT NULL")
+    List<Object[]> findAllTitleDurations();
+    
+    /**
+     * Get id, title and duration of every song for the in-memory title index, lowest id first
+     */
+    @Query("SELECT s.id, s.title, s.duration FROM Song s ORDER BY s.id")
+    List<Object[]> findAllTitleIndexRows();
     
     /**
      * Get recently added songs (for sync verification)
@@ -73,6 +87,12 @@ public interface SongRepository extends JpaRepository<Song, Long> {
      */
     List<Song> findTop20ByOrderByOccurrenceDesc();
     
+    /**
+     * Get id and occurrence count of every song played at least once, for seeding play totals
+     */
+    @Query("SELECT s.id, s.occurrence FROM Song s WHERE s.occurrence > 0")
+    List<Object[]> findPlayedSongOccurrences();
+    
     /**
      * Get songs that have been played at least once
      */
@@ -0,0 +1,17 @@
+package com.twitchchat.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Occurrence updates for several songs in one statement, shared by the direct and write-behind play paths
+ */
+public interface SongRepositoryCustom {
+
+    /**
+     * Atomically add each delta to its song's occurrence count and set updated_at to its play time,
+     * in one UPDATE without loading the songs. The three lists are parallel.
+     * @return the number of songs updated
+     */
+    int incrementOccurrences(List<Long> ids, List<Integer> deltas, List<LocalDateTime> playedAts);
+}
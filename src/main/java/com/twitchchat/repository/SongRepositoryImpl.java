@@ -0,0 +1,36 @@
+package com.twitchchat.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Passes the songs as arrays and joins them with unnest, so a batch of any size is one statement
+ * and one round trip. Each row is incremented in place, so concurrent increments are never lost.
+ */
+class SongRepositoryImpl implements SongRepositoryCustom {
+    static final String INCREMENT_OCCURRENCES_SQL = "UPDATE songs s SET occurrence = s.occurrence + d.delta, updated_at = d.played_at " +
+            "FROM unnest(?::int8[], ?::int4[], ?::timestamp[]) AS d(id, delta, played_at) WHERE s.id = d.id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int incrementOccurrences(List<Long> ids, List<Integer> deltas, List<LocalDateTime> playedAts) {
+        if (ids.size() != deltas.size() || ids.size() != playedAts.size()) {
+            throw new IllegalArgumentException("ids, deltas and playedAts must have the same size");
+        }
+        Timestamp[] timestamps = playedAts.stream().map(Timestamp::valueOf).toArray(Timestamp[]::new);
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(INCREMENT_OCCURRENCES_SQL);
+            ps.setArray(1, con.createArrayOf("int8", ids.toArray()));
+            ps.setArray(2, con.createArrayOf("int4", deltas.toArray()));
+            ps.setArray(3, con.createArrayOf("timestamp", timestamps));
+            return ps;
+        });
+    }
+}
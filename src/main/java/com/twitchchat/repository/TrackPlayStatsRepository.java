@@ -0,0 +1,31 @@
+package com.twitchchat.repository;
+
+import com.twitchchat.model.TrackPlay;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Read-only aggregate queries over TrackPlay rows
+ */
+@org.springframework.stereotype.Repository
+public interface TrackPlayStatsRepository extends Repository<TrackPlay, Long> {
+
+    /**
+     * Get play count and last play time for the given songs in one query
+     * @return rows of [song id, play count, max played_at]; songs without plays are absent
+     */
+    @Query("SELECT tp.song.id, COUNT(tp), MAX(tp.playedAt) FROM TrackPlay tp WHERE tp.song.id IN :songIds GROUP BY tp.song.id")
+    List<Object[]> findPlayStatsBySongIds(@Param("songIds") Collection<Long> songIds);
+
+    /**
+     * Get plays since a time, newest first; the lower bound lets a partitioned track_plays skip older months
+     */
+    @Query("SELECT tp FROM TrackPlay tp JOIN FETCH tp.song WHERE tp.playedAt >= :since ORDER BY tp.playedAt DESC")
+    List<TrackPlay> findPlayedSince(@Param("since") LocalDateTime since, Pageable pageable);
+}
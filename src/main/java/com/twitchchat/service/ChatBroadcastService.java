@@ -0,0 +1,199 @@
+package com.twitchchat.service;
+
+import com.twitchchat.config.ChatBroadcastProperties;
+import com.twitchchat.config.TwitchProperties;
+import com.twitchchat.model.ChatMessage;
+import com.twitchchat.pipeline.ChatLatencyTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Broadcasts chat messages to WebSocket subscribers, either one frame per message or
+ * coalesced into array frames collected over a short window. Every channel has its own
+ * topic (/topic/messages/{channel}); the primary channel is also sent to /topic/messages,
+ * with the payload converted once and the same bytes sent to both topics.
+ */
+@Service
+public class ChatBroadcastService {
+    private static final Logger logger = LoggerFactory.getLogger(ChatBroadcastService.class);
+    public static final String MESSAGES_TOPIC = "/topic/messages";
+    public static final String CHANNEL_TOPIC_PREFIX = MESSAGES_TOPIC + "/";
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private ChatBroadcastProperties broadcastProperties;
+
+    @Autowired
+    private TwitchProperties twitchProperties;
+
+    @Autowired
+    private ChatLatencyTracker latencyTracker;
+
+    private final ConcurrentMap<String, ChannelBatch> batches = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flushService;
+
+    private final AtomicLong messagesSent = new AtomicLong();
+    private final AtomicLong framesSent = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        if (!broadcastProperties.isBatched()) {
+            logger.info("Chat broadcast mode: single frame per message");
+            return;
+        }
+
+        flushService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "chat-broadcast-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flushService.scheduleAtFixedRate(this::flush, broadcastProperties.getWindowMs(),
+                broadcastProperties.getWindowMs(), TimeUnit.MILLISECONDS);
+
+        logger.info("Chat broadcast mode: batched (window: {} ms, max batch: {})",
+                   broadcastProperties.getWindowMs(), broadcastProperties.getMaxBatchSize());
+    }
+
+    /**
+     * Broadcast a chat message, or queue it for its channel's next batch frame
+     */
+    public void broadcast(ChatMessage chatMessage) {
+        String channel = chatMessage.getChannel() != null ? chatMessage.getChannel().toLowerCase() : "";
+
+        if (flushService == null) {
+            sendToChannel(channel, chatMessage, 1);
+            latencyTracker.recordBroadcast(chatMessage);
+            return;
+        }
+
+        batches.computeIfAbsent(channel, ChannelBatch::new).add(chatMessage);
+    }
+
+    /**
+     * Send any queued messages as one array frame per channel
+     */
+    public void flush() {
+        for (ChannelBatch batch : batches.values()) {
+            batch.flush();
+        }
+    }
+
+    /**
+     * Get frame and message counters
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("mode", broadcastProperties.getMode());
+        stats.put("messagesSent", messagesSent.get());
+        stats.put("framesSent", framesSent.get());
+
+        Map<String, Integer> pending = new LinkedHashMap<>();
+        batches.forEach((channel, batch) -> pending.put(channel, batch.size()));
+        stats.put("pending", pending);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (flushService != null) {
+            flushService.shutdown();
+            flush();
+        }
+    }
+
+    private void sendBatch(String channel, List<ChatMessage> messages) {
+        sendToChannel(channel, messages, messages.size());
+        for (ChatMessage chatMessage : messages) {
+            latencyTracker.recordBroadcast(chatMessage);
+        }
+    }
+
+    private void sendToChannel(String channel, Object payload, int messageCount) {
+        Message<?> message;
+        try {
+            message = messagingTemplate.getMessageConverter().toMessage(payload, null);
+            if (message == null) {
+                throw new MessageConversionException("No converter for payload " + payload.getClass().getName());
+            }
+        } catch (Exception e) {
+            logger.error("Error converting chat message(s) for {}: {}", channel, e.getMessage(), e);
+            return;
+        }
+
+        send(CHANNEL_TOPIC_PREFIX + channel, message, messageCount);
+        if (channel.equals(twitchProperties.getCleanChannelName())) {
+            send(MESSAGES_TOPIC, message, 0);
+        }
+    }
+
+    private void send(String destination, Message<?> message, int messageCount) {
+        try {
+            // Each send copies the headers with its own destination and shares the payload
+            messagingTemplate.send(destination, message);
+            framesSent.incrementAndGet();
+            messagesSent.addAndGet(messageCount);
+        } catch (Exception e) {
+            logger.error("Error broadcasting chat message(s) to {}: {}", destination, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Pending messages for one channel, guarded by its own lock so channels do not contend.
+     * Batches are sent while holding the lock, so a channel's frames go out in the order
+     * their messages arrived even when the flush thread and the broadcaster send at once.
+     */
+    private class ChannelBatch {
+        private final String channel;
+        private List<ChatMessage> pending = new ArrayList<>();
+
+        private ChannelBatch(String channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Queue a message, sending the batch if it reached the maximum size
+         */
+        private synchronized void add(ChatMessage chatMessage) {
+            pending.add(chatMessage);
+            if (pending.size() >= broadcastProperties.getMaxBatchSize()) {
+                flush();
+            }
+        }
+
+        /**
+         * Send the queued messages as one frame
+         */
+        private synchronized void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<ChatMessage> batch = pending;
+            pending = new ArrayList<>(broadcastProperties.getMaxBatchSize());
+            sendBatch(channel, batch);
+        }
+
+        private synchronized int size() {
+            return pending.size();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.twitchchat.service;
+
+import com.twitchchat.config.MostPlayedProperties;
+import com.twitchchat.model.Song;
+import com.twitchchat.repository.SongRepository;
+import com.twitchchat.topk.SlidingTopK;
+import com.twitchchat.topk.SpaceSaving;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Most played songs over configurable sliding windows, kept in bounded Space-Saving summaries fed
+ * with each committed play. The summaries start empty at startup and fill as plays arrive.
+ */
+@Service
+public class MostPlayedWindows {
+    private static final Logger logger = LoggerFactory.getLogger(MostPlayedWindows.class);
+
+    @Autowired
+    private MostPlayedProperties mostPlayedProperties;
+
+    @Autowired
+    private SongRepository songRepository;
+
+    private Map<String, SlidingTopK<Long>> windows = Collections.emptyMap();
+
+    @PostConstruct
+    public void initialize() {
+        if (!mostPlayedProperties.isEnabled()) {
+            logger.info("Sliding-window most played songs disabled");
+            return;
+        }
+
+        Map<String, SlidingTopK<Long>> created = new LinkedHashMap<>();
+        // Keyed by the configured label, so "24h" is not normalized into another spelling of the same duration
+        for (String label : mostPlayedProperties.getWindows()) {
+            Duration window = DurationStyle.detectAndParse(label.trim());
+            created.put(label.trim(), new SlidingTopK<>(window, mostPlayedProperties.getPanes(), mostPlayedProperties.getCapacity()));
+        }
+        windows = created;
+        logger.info("Tracking most played songs over windows {} ({} counters x {} panes each)",
+                   created.keySet(), mostPlayedProperties.getCapacity(), mostPlayedProperties.getPanes());
+    }
+
+    /**
+     * Check if plays should be recorded
+     */
+    public boolean isEnabled() {
+        return !windows.isEmpty();
+    }
+
+    /**
+     * Count one committed play in every window
+     */
+    public void record(long songId, LocalDateTime playedAt) {
+        long epochMillis = playedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        for (SlidingTopK<Long> window : windows.values()) {
+            window.offer(songId, epochMillis);
+        }
+    }
+
+    /**
+     * Configured window labels such as "1h", "24h" and "7d"
+     */
+    public List<String> getWindowLabels() {
+        return new ArrayList<>(windows.keySet());
+    }
+
+    /**
+     * Get the most played songs in a window, highest estimated count first
+     * @throws IllegalArgumentException if the window is not configured
+     */
+    public List<Map<String, Object>> getMostPlayed(String windowLabel, int limit) {
+        SlidingTopK<Long> window = windows.get(windowLabel);
+        if (window == null) {
+            throw new IllegalArgumentException("Unknown window '" + windowLabel + "', configured windows: " + windows.keySet());
+        }
+
+        List<SpaceSaving.Entry<Long>> top = window.top(Math.max(limit, 1), System.currentTimeMillis());
+        Map<Long, Song> songs = new HashMap<>();
+        if (!top.isEmpty()) {
+            songs = songRepository.findAllById(top.stream().map(SpaceSaving.Entry::getItem).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(Song::getId, Function.identity()));
+        }
+
+        List<Map<String, Object>> mostPlayed = new ArrayList<>(top.size());
+        for (SpaceSaving.Entry<Long> entry : top) {
+            Song song = songs.get(entry.getItem());
+            if (song == null) {
+                continue;
+            }
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("rank", mostPlayed.size() + 1);
+            item.put("songId", song.getId());
+            item.put("title", song.getTitle());
+            item.put("creator", song.getCreator());
+            item.put("duration", song.getDuration());
+            item.put("plays", entry.getCount());
+            item.put("maxOvercount", entry.getError());
+            mostPlayed.add(item);
+        }
+        return mostPlayed;
+    }
+}
@@ -0,0 +1,312 @@
+package com.twitchchat.service;
+
+import com.twitchchat.config.PlaylistFeedProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fetches the playlist feed with If-None-Match/If-Modified-Since and compares its SHA-256 with
+ * the last feed a sync applied, so an unchanged feed is never parsed. The applied feed and its
+ * validators are kept in the cache directory, which also serves the first sync after a restart
+ * when the upstream is unreachable.
+ */
+@Service
+public class PlaylistFeedFetcher {
+    private static final Logger logger = LoggerFactory.getLogger(PlaylistFeedFetcher.class);
+
+    private static final String FEED_FILE = "playlist.xml";
+    private static final String DOWNLOAD_FILE = "playlist.xml.download";
+    private static final String META_FILE = "playlist.properties";
+    private static final int MAX_ATTEMPTS = 3;
+
+    /**
+     * Outcome of the last fetch
+     */
+    public enum Status {
+        NOT_MODIFIED,
+        UNCHANGED_HASH,
+        CHANGED,
+        CACHE_FALLBACK,
+        FAILED
+    }
+
+    @Autowired
+    private PlaylistFeedProperties feedProperties;
+
+    private volatile String appliedHash;
+    private volatile String etag;
+    private volatile String lastModified;
+    private volatile LocalDateTime appliedAt;
+    private volatile boolean appliedSinceStart;
+
+    private volatile Status lastStatus;
+    private volatile LocalDateTime lastCheckAt;
+    private final AtomicLong skippedCount = new AtomicLong();
+    private final AtomicLong appliedCount = new AtomicLong();
+
+    @PostConstruct
+    public void loadCacheMetadata() {
+        Path meta = cacheDirectory().resolve(META_FILE);
+        if (!Files.exists(meta)) {
+            return;
+        }
+        try (Reader reader = Files.newBufferedReader(meta, StandardCharsets.UTF_8)) {
+            Properties properties = new Properties();
+            properties.load(reader);
+            appliedHash = properties.getProperty("sha256");
+            etag = properties.getProperty("etag");
+            lastModified = properties.getProperty("lastModified");
+            String applied = properties.getProperty("appliedAt");
+            appliedAt = applied != null ? LocalDateTime.parse(applied) : null;
+            logger.info("Loaded cached playlist feed metadata (sha256: {}, applied: {})", appliedHash, appliedAt);
+        } catch (Exception e) {
+            logger.warn("Could not read cached playlist feed metadata, next sync fetches the full feed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Fetch the feed if it changed since the last applied sync
+     * @param force skip the validators and the hash comparison and always return the feed
+     * @return the feed to apply, or null if it is unchanged
+     */
+    public Feed fetch(boolean force) throws IOException, InterruptedException {
+        lastCheckAt = LocalDateTime.now();
+        Feed feed;
+        try {
+            feed = download(force);
+        } catch (IOException e) {
+            Path cached = cacheDirectory().resolve(FEED_FILE);
+            if (!appliedSinceStart && Files.exists(cached)) {
+                logger.warn("Playlist feed unreachable ({}), using cached copy from {}", e.getMessage(), appliedAt);
+                lastStatus = Status.CACHE_FALLBACK;
+                return new Feed(cached, appliedHash, etag, lastModified);
+            }
+            lastStatus = Status.FAILED;
+            throw e;
+        }
+
+        if (feed == null) {
+            lastStatus = Status.NOT_MODIFIED;
+        } else if (!force && feed.sha256.equals(appliedHash)) {
+            // Same content under new validators, keep them so the next request can get a 304
+            etag = feed.etag;
+            lastModified = feed.lastModified;
+            writeMetadata();
+            Files.deleteIfExists(feed.file);
+            lastStatus = Status.UNCHANGED_HASH;
+            feed = null;
+        } else {
+            lastStatus = Status.CHANGED;
+            return feed;
+        }
+        skippedCount.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Download the feed to the cache directory, retrying connection failures with backoff
+     * @return the downloaded feed, or null on 304 Not Modified
+     */
+    private Feed download(boolean force) throws IOException, InterruptedException {
+        long delayMs = 2000;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return downloadOnce(force);
+            } catch (IOException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                logger.warn("Fetching playlist failed (attempt {}), retrying in {} ms: {}", attempt, delayMs, e.getMessage());
+                Thread.sleep(delayMs);
+                delayMs *= 2;
+            }
+        }
+    }
+
+    private Feed downloadOnce(boolean force) throws IOException {
+        logger.info("Fetching playlist from: {}", feedProperties.getUrl());
+        HttpURLConnection connection = (HttpURLConnection) new URL(feedProperties.getUrl()).openConnection();
+        try {
+            connection.setConnectTimeout(feedProperties.getConnectTimeoutMs());
+            connection.setReadTimeout(feedProperties.getReadTimeoutMs());
+            // Validators only describe the applied feed while its cached copy is still there
+            if (!force && feedProperties.isConditionalFetch() && appliedHash != null
+                    && Files.exists(cacheDirectory().resolve(FEED_FILE))) {
+                if (etag != null) {
+                    connection.setRequestProperty("If-None-Match", etag);
+                }
+                if (lastModified != null) {
+                    connection.setRequestProperty("If-Modified-Since", lastModified);
+                }
+            }
+
+            int status = connection.getResponseCode();
+            if (status == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                logger.info("Playlist feed not modified since last sync");
+                return null;
+            }
+            if (status != HttpURLConnection.HTTP_OK) {
+                throw new IOException("Playlist feed returned HTTP " + status);
+            }
+
+            Path directory = cacheDirectory();
+            Files.createDirectories(directory);
+            Path download = directory.resolve(DOWNLOAD_FILE);
+            MessageDigest digest = sha256();
+            try (InputStream in = new DigestInputStream(new BufferedInputStream(connection.getInputStream()), digest);
+                 OutputStream out = Files.newOutputStream(download)) {
+                in.transferTo(out);
+            }
+            return new Feed(download, toHex(digest.digest()),
+                    connection.getHeaderField("ETag"), connection.getHeaderField("Last-Modified"));
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Record the feed as applied once the sync's transaction commits (immediately without one)
+     */
+    public void markAppliedAfterCommit(Feed feed) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markApplied(feed);
+                }
+            });
+        } else {
+            markApplied(feed);
+        }
+    }
+
+    private void markApplied(Feed feed) {
+        try {
+            Path cached = cacheDirectory().resolve(FEED_FILE);
+            if (!feed.file.equals(cached)) {
+                Files.move(feed.file, cached, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            appliedHash = feed.sha256;
+            etag = feed.etag;
+            lastModified = feed.lastModified;
+            appliedAt = LocalDateTime.now();
+            appliedSinceStart = true;
+            appliedCount.incrementAndGet();
+            writeMetadata();
+        } catch (IOException e) {
+            logger.error("Could not cache applied playlist feed, next sync fetches the full feed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void writeMetadata() throws IOException {
+        Properties properties = new Properties();
+        putIfPresent(properties, "sha256", appliedHash);
+        putIfPresent(properties, "etag", etag);
+        putIfPresent(properties, "lastModified", lastModified);
+        putIfPresent(properties, "appliedAt", appliedAt != null ? appliedAt.toString() : null);
+
+        Path directory = cacheDirectory();
+        Files.createDirectories(directory);
+        Path temp = directory.resolve(META_FILE + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            properties.store(writer, "Last applied playlist feed");
+        }
+        Files.move(temp, directory.resolve(META_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void putIfPresent(Properties properties, String key, String value) {
+        if (value != null) {
+            properties.setProperty(key, value);
+        }
+    }
+
+    private Path cacheDirectory() {
+        return Paths.get(feedProperties.getCacheDirectory());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Get the validators and hash of the applied feed and the result of the last check
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("url", feedProperties.getUrl());
+        stats.put("conditionalFetch", feedProperties.isConditionalFetch());
+        stats.put("lastStatus", lastStatus);
+        stats.put("lastCheckAt", lastCheckAt);
+        stats.put("appliedHash", appliedHash);
+        stats.put("appliedAt", appliedAt);
+        stats.put("etag", etag);
+        stats.put("lastModified", lastModified);
+        stats.put("skipped", skippedCount.get());
+        stats.put("applied", appliedCount.get());
+        return stats;
+    }
+
+    /**
+     * A feed on local disk waiting to be applied
+     */
+    public static final class Feed {
+        private final Path file;
+        private final String sha256;
+        private final String etag;
+        private final String lastModified;
+
+        private Feed(Path file, String sha256, String etag, String lastModified) {
+            this.file = file;
+            this.sha256 = sha256;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        public InputStream open() throws IOException {
+            return new BufferedInputStream(Files.newInputStream(file));
+        }
+
+        public String getSha256() {
+            return sha256;
+        }
+    }
+}
@@ -2,7 +2,7 @@ package com.twitchchat.service;
 
 import com.twitchchat.model.Song;
 import com.twitchchat.repository.SongRepository;
-import com.twitchchat.repository.TrackPlayRepository;
+import com.twitchchat.repository.TrackPlayStatsRepository;
 import com.twitchchat.dto.SongWithTrackPlayCount;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,12 +27,12 @@ public class PlaylistService {
     private static final Logger logger = LoggerFactory.getLogger(PlaylistService.class);
     
     private final SongRepository songRepository;
-    private final TrackPlayRepository trackPlayRepository;
+    private final TrackPlayStatsRepository trackPlayStatsRepository;
     
     // Constructor injection
-    public PlaylistService(SongRepository songRepository, TrackPlayRepository trackPlayRepository) {
+    public PlaylistService(SongRepository songRepository, TrackPlayStatsRepository trackPlayStatsRepository) {
         this.songRepository = songRepository;
-        this.trackPlayRepository = trackPlayRepository;
+        this.trackPlayStatsRepository = trackPlayStatsRepository;
     }
 
     /**
@@ -236,22 +236,7 @@ public class PlaylistService {
      */
     public Page<SongWithTrackPlayCount> fetchSongsWithTrackPlayCounts(int page, int size, String sortBy, String sortDirection) {
         try {
-            Page<Song> songPage = fetchSongsPaginated(page, size, sortBy, sortDirection);
-            
-            // Get track play counts for all songs on this page
-            Map<Long, Long> trackPlayCounts = getTrackPlayCountsForSongs(songPage.getContent());
-            Map<Long, LocalDateTime> lastPlayTimes = getLastPlayTimesForSongs(songPage.getContent());
-            
-            // Convert to SongWithTrackPlayCount DTOs
-            List<SongWithTrackPlayCount> songsWithCounts = songPage.getContent().stream()
-                .map(song -> new SongWithTrackPlayCount(
-                    song, 
-                    trackPlayCounts.getOrDefault(song.getId(), 0L),
-                    lastPlayTimes.get(song.getId())
-                ))
-                .collect(Collectors.toList());
-            
-            return new PageImpl<>(songsWithCounts, songPage.getPageable(), songPage.getTotalElements());
+            return withTrackPlayCounts(fetchSongsPaginated(page, size, sortBy, sortDirection));
         } catch (Exception e) {
             logger.error("Error retrieving songs with track play counts", e);
             return Page.empty();
@@ -263,22 +248,7 @@ public class PlaylistService {
      */
     public Page<SongWithTrackPlayCount> searchSongsWithTrackPlayCounts(String searchTerm, int page, int size, String sortBy, String sortDirection) {
         try {
-            Page<Song> songPage = searchSongsPaginated(searchTerm, page, size, sortBy, sortDirection);
-            
-            // Get track play counts for all songs on this page
-            Map<Long, Long> trackPlayCounts = getTrackPlayCountsForSongs(songPage.getContent());
-            Map<Long, LocalDateTime> lastPlayTimes = getLastPlayTimesForSongs(songPage.getContent());
-            
-            // Convert to SongWithTrackPlayCount DTOs
-            List<SongWithTrackPlayCount> songsWithCounts = songPage.getContent().stream()
-                .map(song -> new SongWithTrackPlayCount(
-                    song, 
-                    trackPlayCounts.getOrDefault(song.getId(), 0L),
-                    lastPlayTimes.get(song.getId())
-                ))
-                .collect(Collectors.toList());
-            
-            return new PageImpl<>(songsWithCounts, songPage.getPageable(), songPage.getTotalElements());
+            return withTrackPlayCounts(searchSongsPaginated(searchTerm, page, size, sortBy, sortDirection));
         } catch (Exception e) {
             logger.error("Error searching songs with track play counts for term: '{}'", searchTerm, e);
             return Page.empty();
@@ -286,52 +256,47 @@ public class PlaylistService {
     }
 
     /**
-     * Get track play counts for a list of songs efficiently
+     * Decorate a page of songs with their play counts and last play times
      */
-    private Map<Long, Long> getTrackPlayCountsForSongs(List<Song> songs) {
-        if (songs.isEmpty()) {
-            return Collections.emptyMap();
-        }
+    private Page<SongWithTrackPlayCount> withTrackPlayCounts(Page<Song> songPage) {
+        Map<Long, Object[]> playStats = getPlayStatsForSongs(songPage.getContent());
         
-        try {
-            // Get all track play counts efficiently
-            List<Object[]> results = trackPlayRepository.getPlayCountsBySongId();
-            
-            return results.stream()
-                .collect(Collectors.toMap(
-                    result -> (Long) result[0],  // song_id
-                    result -> (Long) result[1],  // count
-                    (existing, replacement) -> existing
-                ));
-        } catch (Exception e) {
-            logger.error("Error retrieving track play counts for songs", e);
-            return Collections.emptyMap();
-        }
+        List<SongWithTrackPlayCount> songsWithCounts = songPage.getContent().stream()
+            .map(song -> {
+                Object[] stats = playStats.get(song.getId());
+                return new SongWithTrackPlayCount(
+                    song,
+                    stats != null ? ((Number) stats[1]).longValue() : 0L,
+                    stats != null ? (LocalDateTime) stats[2] : null
+                );
+            })
+            .collect(Collectors.toList());
+        
+        return new PageImpl<>(songsWithCounts, songPage.getPageable(), songPage.getTotalElements());
     }
 
     /**
-     * Get last play times for a list of songs efficiently
+     * Get play count and last play time for the songs on one page with a single grouped query
      */
-    private Map<Long, LocalDateTime> getLastPlayTimesForSongs(List<Song> songs) {
+    private Map<Long, Object[]> getPlayStatsForSongs(List<Song> songs) {
         if (songs.isEmpty()) {
             return Collections.emptyMap();
         }
         
         try {
-            Map<Long, LocalDateTime> lastPlayTimes = new HashMap<>();
-            
-            // Get the most recent track play for each song
-            for (Song song : songs) {
-                List<com.twitchchat.model.TrackPlay> recentPlays = trackPlayRepository.findBySongOrderByPlayedAtDesc(song);
-                if (!recentPlays.isEmpty()) {
-                    lastPlayTimes.put(song.getId(), recentPlays.get(0).getPlayedAt());
-                }
-            }
+            List<Long> songIds = songs.stream()
+                .map(Song::getId)
+                .collect(Collectors.toList());
             
-            return lastPlayTimes;
+            return trackPlayStatsRepository.findPlayStatsBySongIds(songIds).stream()
+                .collect(Collectors.toMap(
+                    result -> ((Number) result[0]).longValue(),  // song_id
+                    Function.identity(),
+                    (existing, replacement) -> existing
+                ));
         } catch (Exception e) {
-            logger.error("Error retrieving last play times for songs", e);
+            logger.error("Error retrieving track play stats for songs", e);
             return Collections.emptyMap();
         }
     }
-}
\ No newline at end of file
+}
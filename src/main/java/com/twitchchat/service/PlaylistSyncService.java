@@ -5,21 +5,20 @@ import com.twitchchat.repository.SongRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.context.annotation.Profile;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Recover;
-import org.springframework.retry.annotation.Retryable;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
 
 import javax.annotation.PostConstruct;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import java.net.URL;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -28,8 +27,8 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Service for synchronizing playlist data from FFT Battleground XML feed
@@ -38,12 +37,37 @@ import java.util.Set;
 public class PlaylistSyncService {
 
     private static final Logger logger = LoggerFactory.getLogger(PlaylistSyncService.class);
-    private static final String PLAYLIST_URL = "http://www.fftbattleground.com/fftbg/playlist.xml";
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+    // NOT EXISTS skips titles already stored; ON CONFLICT also covers a unique index on title where one exists
+    static final String INSERT_NEW_SONGS_SQL = "INSERT INTO songs (title, creator, album, duration, location, created_at, occurrence) " +
+            "SELECT v.title, v.creator, v.album, v.duration, v.location, v.created_at, v.occurrence " +
+            "FROM unnest(?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::timestamp[], ?::int4[]) " +
+            "AS v(title, creator, album, duration, location, created_at, occurrence) " +
+            "WHERE NOT EXISTS (SELECT 1 FROM songs s WHERE s.title = v.title) " +
+            "ON CONFLICT DO NOTHING";
+    static final String FIX_DURATIONS_SQL = "UPDATE songs s SET duration = v.new_duration " +
+            "FROM unnest(?::text[], ?::text[], ?::text[]) AS v(title, new_duration, old_duration) " +
+            "WHERE s.title = v.title AND s.duration = v.old_duration";
     private final Object syncLock = new Object(); // Prevent concurrent sync operations
 
     @Autowired
     private SongRepository songRepository;
 
+    @Autowired
+    private SongTitleIndex songTitleIndex;
+
+    @Autowired
+    private SongPlayAggregates songPlayAggregates;
+
+    @Autowired
+    private PlaylistFeedFetcher playlistFeedFetcher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     /**
      * Initial sync when application starts (async to avoid blocking startup)
      * DISABLED: Use manual sync or scheduled sync instead of startup sync
@@ -70,41 +94,73 @@ public class PlaylistSyncService {
     /**
      * Synchronize playlist data from XML feed (synchronized to prevent race conditions)
      */
-    @Transactional
     public void syncPlaylist() {
+        syncPlaylist(false);
+    }
+
+    /**
+     * Synchronize playlist data, optionally applying the feed even if it is unchanged since the last sync.
+     * The feed is downloaded and hashed before any transaction opens, so no database connection is held
+     * through HTTP retries and timeouts; only applying a changed feed runs in a transaction.
+     */
+    public void syncPlaylist(boolean force) {
         synchronized (syncLock) {
-            doSyncPlaylist();
+            PlaylistFeedFetcher.Feed feed = fetchFeed(force);
+            if (feed != null) {
+                transactionTemplate.executeWithoutResult(status -> applyFeed(feed));
+            }
         }
     }
+
+    /**
+     * Fetch the feed, or null if it is unchanged since the last applied sync or could not be fetched
+     */
+    private PlaylistFeedFetcher.Feed fetchFeed(boolean force) {
+        try {
+            PlaylistFeedFetcher.Feed feed = playlistFeedFetcher.fetch(force);
+            if (feed == null) {
+                logger.info("Playlist feed unchanged since last sync, skipping");
+            }
+            return feed;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Playlist sync interrupted while fetching the feed");
+        } catch (Exception e) {
+            logger.error("Error fetching playlist feed", e);
+        }
+        return null;
+    }
     
     /**
-     * Internal sync method (called within synchronized block)
+     * Apply a fetched feed (called within synchronized block and a transaction). Songs are streamed from
+     * the feed and handled in batches as they are read, so only the title sets are held for the whole sync.
      */
-    private void doSyncPlaylist() {
+    private void applyFeed(PlaylistFeedFetcher.Feed feed) {
         try {
-            List<Song> xmlSongs = fetchSongsFromXml();
-            
-            if (xmlSongs.isEmpty()) {
-                logger.warn("No songs found in XML feed, skipping sync");
-                return;
+            // Get existing song titles and durations in one query (more efficient than loading all songs)
+            Map<String, String> existingDurations = new HashMap<>();
+            for (Object[] row : songRepository.findAllTitleDurations()) {
+                existingDurations.put((String) row[0], (String) row[1]);
             }
-            
-            logger.info("Fetched {} songs from XML feed", xmlSongs.size());
-
-            // Get existing song titles from database (more efficient than loading all songs)
-            List<String> existingTitlesList = songRepository.findAllTitles();
-            Set<String> existingTitles = new HashSet<>(existingTitlesList);
+            Set<String> existingTitles = existingDurations.keySet();
             logger.info("Found {} existing songs in database", existingTitles.size());
 
-            // Build set of current XML song titles for comparison
-            Set<String> xmlTitles = new HashSet<>();
-            for (Song xmlSong : xmlSongs) {
-                String title = xmlSong.getTitle();
-                if (title != null && !title.trim().isEmpty()) {
-                    xmlTitles.add(title);
-                }
+            FeedSync feedSync = new FeedSync(existingDurations);
+            int leafCount;
+            try (InputStream in = feed.open()) {
+                leafCount = parseSongs(in, feedSync);
+            }
+            feedSync.finish();
+
+            // Set of current XML song titles for comparison
+            Set<String> xmlTitles = feedSync.xmlTitles;
+            if (xmlTitles.isEmpty()) {
+                logger.warn("No songs found in XML feed, skipping sync");
+                return;
             }
             
+            logger.info("Streamed {} songs ({} unique titles) from XML feed", leafCount, xmlTitles.size());
+            
             // Find songs that exist in database but not in XML (removed/renamed tracks)
             Set<String> removedTitles = new HashSet<>(existingTitles);
             removedTitles.removeAll(xmlTitles);
@@ -135,66 +191,17 @@ public class PlaylistSyncService {
                 logger.info("Successfully removed {} songs that were missing from XML feed", removedTitles.size());
             }
 
-            // Check for duration discrepancies between XML and database
-            checkDurationDiscrepancies(xmlSongs, existingTitles);
-
-            // Add new songs (keeping unique titles only, prevent duplicates)
-            List<Song> newSongs = new ArrayList<>();
-            Set<String> processedTitles = new HashSet<>();
-            
-            for (Song xmlSong : xmlSongs) {
-                String title = xmlSong.getTitle();
-                if (title != null && !title.trim().isEmpty() && !processedTitles.contains(title)) {
-                    processedTitles.add(title);
-                    
-                    // Only add if it doesn't exist in database
-                    if (!existingTitles.contains(title)) {
-                        // Add new song with occurrence = 0 (will be tracked by SongPlayTracker)
-                        xmlSong.setOccurrence(0);
-                        newSongs.add(xmlSong);
-                    }
-                }
+            // Apply every duration correction found while streaming in one statement
+            if (feedSync.discrepancyCount > 0) {
+                int fixedCount = fixDurations(feedSync.durationFixes);
+                logger.info("Duration discrepancy check completed: {} discrepancies found, {} fixed", 
+                          feedSync.discrepancyCount, fixedCount);
+            } else {
+                logger.info("No duration discrepancies found");
             }
 
-            if (!newSongs.isEmpty()) {
-                logger.info("Processing {} new songs for database insertion", newSongs.size());
-                
-                // Process in smaller batches for better performance with large datasets
-                int batchSize = 500;
-                int totalBatches = (int) Math.ceil((double) newSongs.size() / batchSize);
-                logger.info("Processing {} songs in {} batches", newSongs.size(), totalBatches);
-                
-                for (int i = 0; i < newSongs.size(); i += batchSize) {
-                    int endIndex = Math.min(i + batchSize, newSongs.size());
-                    List<Song> batch = newSongs.subList(i, endIndex);
-                    int currentBatch = (i / batchSize) + 1;
-                    
-                    try {
-                        // Use saveAll with exception handling for potential duplicate key violations
-                        songRepository.saveAll(batch);
-                        logger.info("Batch {}/{} completed: Saved {} songs (Total: {}/{})", 
-                                  currentBatch, totalBatches, batch.size(), endIndex, newSongs.size());
-                    } catch (Exception e) {
-                        // Handle potential duplicate key violations gracefully
-                        if (e.getMessage() != null && e.getMessage().contains("duplicate key")) {
-                            logger.warn("Duplicate key violation in batch {}/{} - some songs may already exist, continuing", 
-                                      currentBatch, totalBatches);
-                            // Try saving songs individually to identify which ones are duplicates
-                            for (Song song : batch) {
-                                try {
-                                    songRepository.save(song);
-                                } catch (Exception singleSaveError) {
-                                    logger.debug("Skipped duplicate song: {}", song.getTitle());
-                                }
-                            }
-                        } else {
-                            logger.error("Error saving batch {}/{}", currentBatch, totalBatches, e);
-                            throw e; // Re-throw for other types of errors
-                        }
-                    }
-                }
-                
-                logger.info("Successfully added {} new songs to database", newSongs.size());
+            if (feedSync.savedCount > 0) {
+                logger.info("Successfully added {} new songs to database", feedSync.savedCount);
             } else {
                 logger.info("No new songs to add, database is up to date");
             }
@@ -202,157 +209,230 @@ public class PlaylistSyncService {
             long totalSongs = songRepository.countAllSongs();
             logger.info("Playlist sync completed. Total songs in database: {}", totalSongs);
 
+            // Pick up added and removed titles once the sync is committed
+            songTitleIndex.rebuildAfterCommit();
+            songPlayAggregates.reseedAfterCommit();
+            playlistFeedFetcher.markAppliedAfterCommit(feed);
+
         } catch (Exception e) {
             logger.error("Error during playlist synchronization", e);
         }
     }
 
     /**
-     * Fetch XML document from playlist endpoint with retry logic
+     * Receives songs from the feed one at a time: new titles are inserted in batches and existing ones
+     * are compared with their database duration, collecting the corrections to apply at the end
      */
-    @Retryable(
-        value = {Exception.class}, 
-        maxAttempts = 3, 
-        backoff = @Backoff(delay = 2000, multiplier = 2)
-    )
-    private Document fetchXmlDocument() throws Exception {
-        logger.info("Fetching playlist from: {}", PLAYLIST_URL);
-        
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder builder = factory.newDocumentBuilder();
-        return builder.parse(new URL(PLAYLIST_URL).openStream());
+    private class FeedSync implements Consumer<Song> {
+        private static final int SAVE_BATCH_SIZE = 1000;
+
+        private final Map<String, String> existingDurations;
+        private final Set<String> xmlTitles = new HashSet<>();
+        private final List<Song> newSongs = new ArrayList<>(SAVE_BATCH_SIZE);
+        private final List<String[]> durationFixes = new ArrayList<>();
+        private int savedCount;
+        private int saveBatches;
+        private int discrepancyCount;
+
+        private FeedSync(Map<String, String> existingDurations) {
+            this.existingDurations = existingDurations;
+        }
+
+        @Override
+        public void accept(Song xmlSong) {
+            String title = xmlSong.getTitle();
+            // Keep unique titles only, prevent duplicates
+            if (title == null || title.trim().isEmpty() || !xmlTitles.add(title)) {
+                return;
+            }
+
+            if (existingDurations.containsKey(title)) {
+                checkDuration(title, existingDurations.get(title), xmlSong.getDuration());
+            } else {
+                // Add new song with occurrence = 0 (will be tracked by SongPlayTracker)
+                xmlSong.setOccurrence(0);
+                newSongs.add(xmlSong);
+                if (newSongs.size() >= SAVE_BATCH_SIZE) {
+                    saveNew();
+                }
+            }
+        }
+
+        /**
+         * Queue a fix when the database has a problematic duration and the XML has a valid one
+         */
+        private void checkDuration(String title, String dbDuration, String xmlDuration) {
+            if (dbDuration != null && (dbDuration.equals("0:00") || dbDuration.contains("-1"))) {
+                discrepancyCount++;
+                logger.warn("Duration discrepancy found for '{}': DB='{}', XML='{}'", 
+                          title, dbDuration, xmlDuration);
+                if (xmlDuration != null && !xmlDuration.equals("0:00") && !xmlDuration.contains("-1")) {
+                    durationFixes.add(new String[] {title, xmlDuration, dbDuration});
+                }
+            }
+        }
+
+        private void finish() {
+            saveNew();
+        }
+
+        private void saveNew() {
+            if (!newSongs.isEmpty()) {
+                saveBatches++;
+                savedCount += saveNewSongs(newSongs, saveBatches);
+                newSongs.clear();
+            }
+        }
     }
 
     /**
-     * Recovery method when all retry attempts fail
+     * Save a batch of new songs
+     * @return number of songs inserted
      */
-    @Recover
-    private Document recoverFromXmlFetchFailure(Exception ex) {
-        logger.error("Failed to fetch XML after all retry attempts. Using empty playlist.", ex);
-        // Return a minimal empty XML document
-        try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            return builder.newDocument();
-        } catch (Exception e) {
-            logger.error("Failed to create empty document", e);
-            throw new RuntimeException("Complete XML fetch failure", ex);
+    private int saveNewSongs(List<Song> batch, int batchNumber) {
+        int inserted = insertNewSongs(batch);
+        if (inserted < batch.size()) {
+            logger.info("Batch {} completed: Saved {} songs, {} already existed", batchNumber, inserted, batch.size() - inserted);
+        } else {
+            logger.info("Batch {} completed: Saved {} songs", batchNumber, inserted);
         }
+        return inserted;
     }
 
     /**
-     * Fetch songs from XML feed and parse them
+     * Insert songs in one statement, skipping titles that already exist
+     * @return number of songs inserted
      */
-    private List<Song> fetchSongsFromXml() {
-        List<Song> songs = new ArrayList<>();
+    int insertNewSongs(List<Song> songs) {
+        if (songs.isEmpty()) {
+            return 0;
+        }
+        int size = songs.size();
+        String[] titles = new String[size];
+        String[] creators = new String[size];
+        String[] albums = new String[size];
+        String[] durations = new String[size];
+        String[] locations = new String[size];
+        Timestamp[] createdAts = new Timestamp[size];
+        Integer[] occurrences = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            Song song = songs.get(i);
+            titles[i] = song.getTitle();
+            creators[i] = song.getCreator();
+            albums[i] = song.getAlbum();
+            durations[i] = song.getDuration();
+            locations[i] = song.getLocation();
+            createdAts[i] = Timestamp.valueOf(song.getCreatedAt() != null ? song.getCreatedAt() : LocalDateTime.now());
+            occurrences[i] = song.getOccurrence() != null ? song.getOccurrence() : 0;
+        }
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(INSERT_NEW_SONGS_SQL);
+            ps.setArray(1, con.createArrayOf("text", titles));
+            ps.setArray(2, con.createArrayOf("text", creators));
+            ps.setArray(3, con.createArrayOf("text", albums));
+            ps.setArray(4, con.createArrayOf("text", durations));
+            ps.setArray(5, con.createArrayOf("text", locations));
+            ps.setArray(6, con.createArrayOf("timestamp", createdAts));
+            ps.setArray(7, con.createArrayOf("int4", occurrences));
+            return ps;
+        });
+    }
 
+    /**
+     * Read leaf elements one at a time with a StAX pull parser and pass each valid song on,
+     * so memory use does not grow with the size of the feed
+     * @return number of leaf elements read
+     */
+    int parseSongs(InputStream in, Consumer<Song> consumer) throws XMLStreamException {
+        XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(in);
+        int leafCount = 0;
         try {
-            Document document = fetchXmlDocument();
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && "leaf".equals(reader.getLocalName())) {
+                    leafCount++;
+                    Song song = toSong(reader.getAttributeValue(null, "uri"), reader.getAttributeValue(null, "duration"));
+                    if (song != null) {
+                        consumer.accept(song);
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return leafCount;
+    }
 
-            NodeList leafNodes = document.getElementsByTagName("leaf");
-            logger.info("Found {} songs in XML feed", leafNodes.getLength());
+    /**
+     * Build a song from a leaf's uri and duration attributes
+     * @return the song, or null if no title could be extracted from the uri
+     */
+    Song toSong(String uriStr, String durationStr) {
+        if (uriStr == null || uriStr.trim().isEmpty()) {
+            return null;
+        }
 
-            for (int i = 0; i < leafNodes.getLength(); i++) {
-                Element leafElement = (Element) leafNodes.item(i);
-                String uriStr = leafElement.getAttribute("uri");
-                String durationStr = leafElement.getAttribute("duration");
+        // Extract and clean song title from URI
+        String cleanTitle = extractTitleFromUri(uriStr);
+        if (cleanTitle == null || cleanTitle.trim().isEmpty()) {
+            logger.debug("Could not extract valid title from URI: {}", uriStr);
+            return null;
+        }
 
-                if (uriStr != null && !uriStr.trim().isEmpty()) {
-                    Song song = new Song();
-                    
-                    // Extract and clean song title from URI
-                    String cleanTitle = extractTitleFromUri(uriStr);
-                    if (cleanTitle != null && !cleanTitle.trim().isEmpty()) {
-                        song.setTitle(cleanTitle);
-                    
-                    // Parse and format duration from seconds to MM:SS format
-                    if (durationStr != null && !durationStr.trim().isEmpty()) {
-                        try {
-                            int totalSeconds = Integer.parseInt(durationStr.trim());
-                            
-                            // Validate duration is positive - this prevents -1 duration issues
-                            if (totalSeconds < 0) {
-                                logger.warn("Invalid negative duration '{}' for song '{}' - setting to 0", durationStr, cleanTitle);
-                                totalSeconds = 0;
-                            }
-                            
-                            String formattedDuration = formatDuration(totalSeconds);
-                            song.setDuration(formattedDuration);
-                            logger.debug("Parsed duration for '{}': {} seconds -> {}", cleanTitle, totalSeconds, formattedDuration);
-                        } catch (NumberFormatException e) {
-                            logger.warn("Could not parse duration '{}' for song '{}' - setting default duration", durationStr, cleanTitle);
-                            song.setDuration("0:00"); // Set default duration instead of leaving null
-                        }
-                    } else {
-                        logger.warn("Empty or null duration for song '{}' - setting default duration", cleanTitle);
-                        song.setDuration("0:00"); // Set default duration instead of leaving null
-                    }
+        Song song = new Song();
+        song.setTitle(cleanTitle);
 
-                    
-                    // Set creation timestamp
-                    song.setCreatedAt(LocalDateTime.now());
-                    
-                        songs.add(song);
-                    } else {
-                        logger.debug("Could not extract valid title from URI: {}", uriStr);
-                    }
+        // Parse and format duration from seconds to MM:SS format
+        if (durationStr != null && !durationStr.trim().isEmpty()) {
+            try {
+                int totalSeconds = Integer.parseInt(durationStr.trim());
+                
+                // Validate duration is positive - this prevents -1 duration issues
+                if (totalSeconds < 0) {
+                    logger.warn("Invalid negative duration '{}' for song '{}' - setting to 0", durationStr, cleanTitle);
+                    totalSeconds = 0;
                 }
+                
+                String formattedDuration = formatDuration(totalSeconds);
+                song.setDuration(formattedDuration);
+                logger.debug("Parsed duration for '{}': {} seconds -> {}", cleanTitle, totalSeconds, formattedDuration);
+            } catch (NumberFormatException e) {
+                logger.warn("Could not parse duration '{}' for song '{}' - setting default duration", durationStr, cleanTitle);
+                song.setDuration("0:00"); // Set default duration instead of leaving null
             }
-
-        } catch (Exception e) {
-            logger.error("Error fetching songs from XML feed", e);
+        } else {
+            logger.warn("Empty or null duration for song '{}' - setting default duration", cleanTitle);
+            song.setDuration("0:00"); // Set default duration instead of leaving null
         }
 
-        return songs;
+        // Set creation timestamp
+        song.setCreatedAt(LocalDateTime.now());
+        return song;
     }
 
     /**
-     * Check for duration discrepancies between XML source and database
+     * Set new durations by title in one statement, only where the duration is still the one that was compared
+     * @param fixes rows of [title, new duration, old duration]
+     * @return number of songs updated
      */
-    private void checkDurationDiscrepancies(List<Song> xmlSongs, Set<String> existingTitles) {
-        logger.info("Checking for duration discrepancies...");
-        
-        int discrepancyCount = 0;
-        int fixedCount = 0;
-        
-        for (Song xmlSong : xmlSongs) {
-            String title = xmlSong.getTitle();
-            if (title != null && !title.trim().isEmpty() && existingTitles.contains(title)) {
-                try {
-                    // Find the existing song in database
-                    Optional<Song> existingSong = songRepository.findByTitle(title);
-                    if (existingSong.isPresent()) {
-                        String dbDuration = existingSong.get().getDuration();
-                        String xmlDuration = xmlSong.getDuration();
-                        
-                        // Check for problematic durations
-                        if (dbDuration != null && (dbDuration.equals("0:00") || dbDuration.contains("-1"))) {
-                            discrepancyCount++;
-                            logger.warn("Duration discrepancy found for '{}': DB='{}', XML='{}'", 
-                                      title, dbDuration, xmlDuration);
-                            
-                            // Fix the duration if XML has valid duration
-                            if (xmlDuration != null && !xmlDuration.equals("0:00") && !xmlDuration.contains("-1")) {
-                                int updated = songRepository.updateDurationByTitle(title, xmlDuration, dbDuration);
-                                if (updated > 0) {
-                                    fixedCount++;
-                                    logger.info("Fixed duration for '{}': '{}' -> '{}'", title, dbDuration, xmlDuration);
-                                }
-                            }
-                        }
-                    }
-                } catch (Exception e) {
-                    logger.error("Error checking duration for song: {}", title, e);
-                }
-            }
+    private int fixDurations(List<String[]> fixes) {
+        if (fixes.isEmpty()) {
+            return 0;
         }
-        
-        if (discrepancyCount > 0) {
-            logger.info("Duration discrepancy check completed: {} discrepancies found, {} fixed", 
-                      discrepancyCount, fixedCount);
-        } else {
-            logger.info("No duration discrepancies found");
+        String[] titles = new String[fixes.size()];
+        String[] newDurations = new String[fixes.size()];
+        String[] oldDurations = new String[fixes.size()];
+        for (int i = 0; i < fixes.size(); i++) {
+            titles[i] = fixes.get(i)[0];
+            newDurations[i] = fixes.get(i)[1];
+            oldDurations[i] = fixes.get(i)[2];
         }
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(FIX_DURATIONS_SQL);
+            ps.setArray(1, con.createArrayOf("text", titles));
+            ps.setArray(2, con.createArrayOf("text", newDurations));
+            ps.setArray(3, con.createArrayOf("text", oldDurations));
+            return ps;
+        });
     }
 
     /**
@@ -360,7 +440,7 @@ public class PlaylistSyncService {
      * Example: file:///C:/sharec/FFTBattleground-battle/4%20Elements%20II%20-%20World%20of%20Magic.mp3
      * Returns: 4 Elements II - World of Magic
      */
-    private String extractTitleFromUri(String uri) {
+    String extractTitleFromUri(String uri) {
         if (uri == null || uri.trim().isEmpty()) {
             return null;
         }
@@ -399,7 +479,7 @@ public class PlaylistSyncService {
     /**
      * Clean up song title by removing unwanted characters and formatting
      */
-    private String cleanSongTitle(String rawTitle) {
+    String cleanSongTitle(String rawTitle) {
         if (rawTitle == null || rawTitle.trim().isEmpty()) {
             return rawTitle;
         }
@@ -419,7 +499,7 @@ public class PlaylistSyncService {
      * Format duration from seconds to MM:SS or H:MM:SS format
      * Handles negative durations by converting them to 0:00
      */
-    private String formatDuration(int totalSeconds) {
+    String formatDuration(int totalSeconds) {
         // Critical fix: Handle negative durations to prevent "0:-1" format
         if (totalSeconds < 0) {
             logger.warn("Negative duration detected: {} seconds - converting to 0:00", totalSeconds);
@@ -437,6 +517,16 @@ public class PlaylistSyncService {
         }
     }
 
+    /**
+     * StAX factory that does not read DTDs or external entities; factories are thread safe once configured
+     */
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
     /**
      * Get total song count from database
      */
@@ -449,6 +539,6 @@ public class PlaylistSyncService {
      */
     public void forceSyncPlaylist() {
         logger.info("Manual playlist sync triggered");
-        syncPlaylist();
+        syncPlaylist(true);
     }
 }
\ No newline at end of file
@@ -0,0 +1,134 @@
+package com.twitchchat.service;
+
+import com.twitchchat.repository.SongRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory catalog totals (songs, plays, songs played at least once) for the status and stats
+ * endpoints. Seeded from the database at startup and after each playlist sync, and advanced by
+ * the tracker as plays are committed, so reading them never touches the database.
+ * <p>
+ * Writers bracket each commit of plays and its recordPlays call with beginPlayCommit and
+ * endPlayCommit. A reseed waits for those in progress and holds new ones off while it queries,
+ * so every play is either in the reseed's totals or recorded on top of them, never both.
+ */
+@Component
+public class SongPlayAggregates {
+    private static final Logger logger = LoggerFactory.getLogger(SongPlayAggregates.class);
+
+    @Autowired
+    private SongRepository songRepository;
+
+    private final AtomicLong totalSongs = new AtomicLong();
+    private final AtomicLong totalPlays = new AtomicLong();
+    private volatile Set<Long> playedSongIds = ConcurrentHashMap.newKeySet();
+    private volatile boolean seeded;
+    private final ReadWriteLock reseedLock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    public void initialize() {
+        reseed();
+    }
+
+    /**
+     * Reload the totals from the songs table
+     * @return true if the totals were reloaded, false if the query failed and the previous values were kept
+     */
+    public synchronized boolean reseed() {
+        reseedLock.writeLock().lock();
+        try {
+            long songs = songRepository.countAllSongs();
+            List<Object[]> played = songRepository.findPlayedSongOccurrences();
+
+            Set<Long> ids = ConcurrentHashMap.newKeySet(played.size());
+            long plays = 0;
+            for (Object[] row : played) {
+                ids.add(((Number) row[0]).longValue());
+                plays += ((Number) row[1]).longValue();
+            }
+
+            playedSongIds = ids;
+            totalPlays.set(plays);
+            totalSongs.set(songs);
+            seeded = true;
+            logger.info("Song play totals loaded: {} songs, {} played, {} plays", songs, ids.size(), plays);
+            return true;
+        } catch (Exception e) {
+            logger.error("Failed to load song play totals: {}", e.getMessage());
+            return false;
+        } finally {
+            reseedLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reseed once the current transaction commits, or immediately if there is none
+     */
+    public void reseedAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reseed();
+                }
+            });
+        } else {
+            reseed();
+        }
+    }
+
+    /**
+     * Call before committing plays that will be passed to recordPlays; must be paired with
+     * endPlayCommit once they are recorded, or the commit failed
+     */
+    public void beginPlayCommit() {
+        reseedLock.readLock().lock();
+    }
+
+    public void endPlayCommit() {
+        reseedLock.readLock().unlock();
+    }
+
+    /**
+     * Count committed plays of one song
+     */
+    public void recordPlays(long songId, int plays) {
+        totalPlays.addAndGet(plays);
+        playedSongIds.add(songId);
+    }
+
+    public long getTotalSongs() {
+        ensureSeeded();
+        return totalSongs.get();
+    }
+
+    public long getTotalPlays() {
+        ensureSeeded();
+        return totalPlays.get();
+    }
+
+    public long getPlayedSongsCount() {
+        ensureSeeded();
+        return playedSongIds.size();
+    }
+
+    private void ensureSeeded() {
+        // Retry a failed startup load on first use rather than reporting zeroes
+        if (!seeded) {
+            reseed();
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.twitchchat.service;
+
+import com.twitchchat.config.SongPlayRollupProperties;
+import com.twitchchat.model.Song;
+import com.twitchchat.model.SongPlayRollup;
+import com.twitchchat.repository.SongRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Hourly and daily play counts per song, stored in song_play_rollups and mirrored in memory for
+ * the trending windows. Plays are added to both as they are committed, and the in-memory rings
+ * hold the last 25 hourly and 31 daily buckets, so trending never reads the play history.
+ */
+@Service
+public class SongPlayRollups {
+    private static final Logger logger = LoggerFactory.getLogger(SongPlayRollups.class);
+
+    static final String UPSERT_ROLLUP_SQL = "INSERT INTO song_play_rollups (song_id, granularity, bucket_start, play_count) " +
+            "VALUES (?, ?, ?, ?) ON CONFLICT (song_id, granularity, bucket_start) " +
+            "DO UPDATE SET play_count = song_play_rollups.play_count + EXCLUDED.play_count";
+    static final String SELECT_RECENT_SQL = "SELECT song_id, granularity, bucket_start, play_count FROM song_play_rollups " +
+            "WHERE (granularity = 'H' AND bucket_start >= ?) OR (granularity = 'D' AND bucket_start >= ?)";
+    static final String DELETE_EXPIRED_SQL = "DELETE FROM song_play_rollups WHERE granularity = ? AND bucket_start < ?";
+
+    private static final int HOURLY_SLOTS = 25;
+    private static final int DAILY_SLOTS = 31;
+
+    @Autowired
+    private SongPlayRollupProperties rollupProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SongRepository songRepository;
+
+    private final BucketRing hourly = new BucketRing(ChronoUnit.HOURS, HOURLY_SLOTS);
+    private final BucketRing daily = new BucketRing(ChronoUnit.DAYS, DAILY_SLOTS);
+
+    /**
+     * Trending windows served from the in-memory rings
+     */
+    public enum Window {
+        HOURS_24("24h", ChronoUnit.HOURS, 24),
+        DAYS_7("7d", ChronoUnit.DAYS, 7),
+        DAYS_30("30d", ChronoUnit.DAYS, 30);
+
+        private final String label;
+        private final ChronoUnit unit;
+        private final int buckets;
+
+        Window(String label, ChronoUnit unit, int buckets) {
+            this.label = label;
+            this.unit = unit;
+            this.buckets = buckets;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        /**
+         * Parse a window parameter such as "24h", "7d" or "30d"
+         */
+        public static Window fromLabel(String label) {
+            for (Window window : values()) {
+                if (window.label.equalsIgnoreCase(label)) {
+                    return window;
+                }
+            }
+            throw new IllegalArgumentException("Unknown trending window '" + label + "', expected 24h, 7d or 30d");
+        }
+    }
+
+    @PostConstruct
+    public void loadRecentBuckets() {
+        if (!rollupProperties.isEnabled()) {
+            logger.info("Song play rollups disabled");
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime hourlyFrom = now.truncatedTo(ChronoUnit.HOURS).minusHours(HOURLY_SLOTS - 1);
+        LocalDateTime dailyFrom = now.truncatedTo(ChronoUnit.DAYS).minusDays(DAILY_SLOTS - 1);
+        try {
+            int[] rows = new int[1];
+            jdbcTemplate.query(SELECT_RECENT_SQL, rs -> {
+                BucketRing ring = SongPlayRollup.HOURLY.equals(rs.getString(2)) ? hourly : daily;
+                ring.add(rs.getTimestamp(3).toLocalDateTime(), rs.getLong(1), rs.getLong(4));
+                rows[0]++;
+            }, Timestamp.valueOf(hourlyFrom), Timestamp.valueOf(dailyFrom));
+            logger.info("Loaded {} recent song play rollup buckets", rows[0]);
+        } catch (Exception e) {
+            logger.error("Failed to load recent song play rollups, trending starts empty: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Check if plays should be added to the rollups
+     */
+    public boolean isEnabled() {
+        return rollupProperties.isEnabled();
+    }
+
+    /**
+     * Write a batch's bucket increments, inside the caller's transaction if there is one
+     */
+    public void persist(RollupBatch batch) {
+        if (batch.counts.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<SongPlayRollup.Key, long[]>> rows = new ArrayList<>(batch.counts.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT_ROLLUP_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.getKey().getSongId());
+            ps.setString(2, row.getKey().getGranularity());
+            ps.setTimestamp(3, Timestamp.valueOf(row.getKey().getBucketStart()));
+            ps.setLong(4, row.getValue()[0]);
+        });
+    }
+
+    /**
+     * Add a committed batch to the in-memory buckets
+     */
+    public void apply(RollupBatch batch) {
+        for (Map.Entry<SongPlayRollup.Key, long[]> row : batch.counts.entrySet()) {
+            SongPlayRollup.Key key = row.getKey();
+            BucketRing ring = SongPlayRollup.HOURLY.equals(key.getGranularity()) ? hourly : daily;
+            ring.add(key.getBucketStart(), key.getSongId(), row.getValue()[0]);
+        }
+    }
+
+    /**
+     * Get the most played songs within a window, most plays first
+     */
+    public List<Map<String, Object>> getTrending(Window window, int limit) {
+        LocalDateTime from = LocalDateTime.now().truncatedTo(window.unit).minus(window.buckets - 1, window.unit);
+        BucketRing ring = window.unit == ChronoUnit.HOURS ? hourly : daily;
+        int effectiveLimit = Math.min(Math.max(limit, 1), rollupProperties.getMaxLimit());
+
+        List<Map.Entry<Long, Long>> top = ring.sumSince(from).entrySet().stream()
+            .sorted(Map.Entry.<Long, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+            .limit(effectiveLimit)
+            .collect(Collectors.toList());
+
+        Map<Long, Song> songs = new HashMap<>();
+        if (!top.isEmpty()) {
+            songs = songRepository.findAllById(top.stream().map(Map.Entry::getKey).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(Song::getId, Function.identity()));
+        }
+
+        List<Map<String, Object>> trending = new ArrayList<>(top.size());
+        for (Map.Entry<Long, Long> entry : top) {
+            Song song = songs.get(entry.getKey());
+            if (song == null) {
+                // Removed by a playlist sync since it was played
+                continue;
+            }
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("rank", trending.size() + 1);
+            item.put("songId", song.getId());
+            item.put("title", song.getTitle());
+            item.put("creator", song.getCreator());
+            item.put("duration", song.getDuration());
+            item.put("plays", entry.getValue());
+            trending.add(item);
+        }
+        return trending;
+    }
+
+    /**
+     * Delete rollup rows past their retention once an hour
+     */
+    @Scheduled(cron = "0 15 * * * *")
+    public void pruneExpired() {
+        if (!rollupProperties.isEnabled()) {
+            return;
+        }
+        try {
+            LocalDateTime today = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS);
+            int hourlyRows = deleteBefore(SongPlayRollup.HOURLY, today.minusDays(rollupProperties.getHourlyRetentionDays()));
+            int dailyRows = deleteBefore(SongPlayRollup.DAILY, today.minusDays(rollupProperties.getDailyRetentionDays()));
+            if (hourlyRows + dailyRows > 0) {
+                logger.info("Pruned {} hourly and {} daily song play rollups", hourlyRows, dailyRows);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to prune song play rollups: {}", e.getMessage(), e);
+        }
+    }
+
+    private int deleteBefore(String granularity, LocalDateTime cutoff) {
+        return jdbcTemplate.update(DELETE_EXPIRED_SQL, granularity, Timestamp.valueOf(cutoff));
+    }
+
+    /**
+     * Plays grouped into their hourly and daily buckets, written and applied together
+     */
+    public static class RollupBatch {
+        private final Map<SongPlayRollup.Key, long[]> counts = new LinkedHashMap<>();
+
+        public void add(long songId, LocalDateTime playedAt) {
+            increment(new SongPlayRollup.Key(songId, SongPlayRollup.HOURLY, playedAt.truncatedTo(ChronoUnit.HOURS)));
+            increment(new SongPlayRollup.Key(songId, SongPlayRollup.DAILY, playedAt.truncatedTo(ChronoUnit.DAYS)));
+        }
+
+        private void increment(SongPlayRollup.Key key) {
+            counts.computeIfAbsent(key, k -> new long[1])[0]++;
+        }
+    }
+
+    /**
+     * Fixed number of consecutive buckets; a slot is reused once its bucket falls out of the ring
+     */
+    private static class BucketRing {
+        private final ChronoUnit unit;
+        private final LocalDateTime[] starts;
+        private final Map<Long, Long>[] counts;
+
+        @SuppressWarnings("unchecked")
+        private BucketRing(ChronoUnit unit, int slots) {
+            this.unit = unit;
+            this.starts = new LocalDateTime[slots];
+            this.counts = new Map[slots];
+        }
+
+        private synchronized void add(LocalDateTime bucketStart, long songId, long plays) {
+            long ordinal = bucketStart.toEpochSecond(ZoneOffset.UTC) / unit.getDuration().getSeconds();
+            int slot = (int) Math.floorMod(ordinal, (long) starts.length);
+            if (starts[slot] == null || starts[slot].isBefore(bucketStart)) {
+                starts[slot] = bucketStart;
+                counts[slot] = new HashMap<>();
+            } else if (starts[slot].isAfter(bucketStart)) {
+                // Older than the ring covers
+                return;
+            }
+            counts[slot].merge(songId, plays, Long::sum);
+        }
+
+        private synchronized Map<Long, Long> sumSince(LocalDateTime from) {
+            Map<Long, Long> totals = new HashMap<>();
+            for (int slot = 0; slot < starts.length; slot++) {
+                if (starts[slot] != null && !starts[slot].isBefore(from)) {
+                    counts[slot].forEach((songId, plays) -> totals.merge(songId, plays, Long::sum));
+                }
+            }
+            return totals;
+        }
+    }
+}
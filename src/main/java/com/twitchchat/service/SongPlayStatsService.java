@@ -0,0 +1,167 @@
+package com.twitchchat.service;
+
+import com.twitchchat.config.SongPlayStatsProperties;
+import com.twitchchat.dto.SongPlayStatsRow;
+import com.twitchchat.repository.SongPlayStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves song pages sorted by play totals from the song_play_stats table and reconciles the
+ * table from TrackPlay rows at startup, on a schedule and on demand
+ */
+@Service
+public class SongPlayStatsService {
+    private static final Logger logger = LoggerFactory.getLogger(SongPlayStatsService.class);
+
+    private static final Set<String> PLAY_STATS_SORT_PROPERTIES = new HashSet<>(Arrays.asList(
+        "trackPlayCount", "firstPlayedAt", "lastPlayedAt"));
+
+    private static final Set<String> SONG_SORT_PROPERTIES = new HashSet<>(Arrays.asList(
+        "title", "creator", "album", "duration", "location", "createdAt", "occurrence"));
+
+    @Autowired
+    private SongPlayStatsRepository songPlayStatsRepository;
+
+    @Autowired
+    private SongPlayStatsProperties statsProperties;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private volatile LocalDateTime lastRebuildAt;
+    private volatile long lastRebuildMillis;
+    private volatile int lastRebuildRows;
+
+    /**
+     * Check if plays are being recorded into song_play_stats
+     */
+    public boolean isEnabled() {
+        return statsProperties.isEnabled();
+    }
+
+    /**
+     * Get a page of songs with their play totals
+     */
+    public Page<SongPlayStatsRow> fetchSongs(int page, int size, String sortBy, String sortDirection) {
+        if (PLAY_STATS_SORT_PROPERTIES.contains(sortBy)) {
+            return findSortedByPlayStats(null, page, size, sortBy, sortDirection);
+        }
+        return songPlayStatsRepository.findSongsWithPlayStats(PageRequest.of(page, size, toSort(sortBy, sortDirection)));
+    }
+
+    /**
+     * Search songs by title and get a page of them with their play totals
+     */
+    public Page<SongPlayStatsRow> searchSongs(String searchTerm, int page, int size, String sortBy, String sortDirection) {
+        if (searchTerm == null || searchTerm.trim().isEmpty()) {
+            return fetchSongs(page, size, sortBy, sortDirection);
+        }
+        if (PLAY_STATS_SORT_PROPERTIES.contains(sortBy)) {
+            return findSortedByPlayStats(searchTerm.trim(), page, size, sortBy, sortDirection);
+        }
+        return songPlayStatsRepository.searchSongsWithPlayStats(searchTerm.trim(),
+                PageRequest.of(page, size, toSort(sortBy, sortDirection)));
+    }
+
+    /**
+     * Page by a play total, reading song_play_stats in index order instead of sorting the joined catalog
+     */
+    private Page<SongPlayStatsRow> findSortedByPlayStats(String searchTerm, int page, int size, String sortBy, String sortDirection) {
+        String property = "trackPlayCount".equals(sortBy) ? "playCount" : sortBy;
+        return songPlayStatsRepository.findSongsSortedByPlayStats(searchTerm, property,
+                "desc".equalsIgnoreCase(sortDirection), PageRequest.of(page, size));
+    }
+
+    /**
+     * Map a SongPlayCountView song column sort property onto the joined query, keeping songs without a value last
+     */
+    private static Sort toSort(String sortBy, String sortDirection) {
+        Sort.Direction direction = "desc".equalsIgnoreCase(sortDirection) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort;
+        if ("updatedAt".equals(sortBy)) {
+            sort = nullsLast(direction, "s.updatedAt");
+        } else {
+            sort = Sort.by(direction, SONG_SORT_PROPERTIES.contains(sortBy) ? sortBy : "title");
+        }
+        // Stable order across pages when the sort key ties
+        return sort.and(Sort.by(Sort.Direction.ASC, "id"));
+    }
+
+    private static Sort nullsLast(Sort.Direction direction, String path) {
+        return JpaSort.unsafe(Sort.Direction.ASC, "CASE WHEN (" + path + " IS NULL) THEN 1 ELSE 0 END")
+                .and(JpaSort.unsafe(direction, path));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (statsProperties.isEnabled() && statsProperties.isRebuildOnStartup()) {
+            rebuildQuietly();
+        }
+    }
+
+    @Scheduled(cron = "${app.track-play.stats.rebuild-cron:0 30 4 * * *}")
+    public void scheduledRebuild() {
+        if (statsProperties.isEnabled()) {
+            rebuildQuietly();
+        }
+    }
+
+    /**
+     * Recompute song_play_stats from track_plays in one transaction. Play updates wait on the
+     * table lock, so plays committed during the rebuild are applied on top of the new totals.
+     * @return number of songs with plays
+     */
+    public int rebuild() {
+        long start = System.nanoTime();
+        Integer rows = transactionTemplate.execute(status -> {
+            songPlayStatsRepository.lockForRebuild();
+            songPlayStatsRepository.deleteAllRows();
+            return songPlayStatsRepository.insertFromTrackPlays();
+        });
+
+        lastRebuildRows = rows != null ? rows : 0;
+        lastRebuildMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        lastRebuildAt = LocalDateTime.now();
+        logger.info("Rebuilt song_play_stats from track_plays: {} songs in {} ms", lastRebuildRows, lastRebuildMillis);
+        return lastRebuildRows;
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.error("Failed to rebuild song_play_stats: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Get the result of the last rebuild
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", statsProperties.isEnabled());
+        stats.put("lastRebuildAt", lastRebuildAt);
+        stats.put("lastRebuildMillis", lastRebuildMillis);
+        stats.put("lastRebuildRows", lastRebuildRows);
+        return stats;
+    }
+}
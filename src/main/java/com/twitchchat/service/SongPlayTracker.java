@@ -1,9 +1,12 @@
 package com.twitchchat.service;
 
+import com.twitchchat.config.ExecutionConfig;
+import com.twitchchat.config.SongPlayStatsProperties;
 import com.twitchchat.config.TrackPlayProperties;
 import com.twitchchat.event.TrackPlayEvent;
 import com.twitchchat.model.Song;
 import com.twitchchat.model.TrackPlay;
+import com.twitchchat.repository.SongPlayStatsRepository;
 import com.twitchchat.repository.SongRepository;
 import com.twitchchat.repository.TrackPlayRepository;
 import org.slf4j.Logger;
@@ -11,8 +14,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
@@ -32,12 +37,36 @@ public class SongPlayTracker {
     @Autowired
     private TrackPlayProperties trackPlayProperties;
     
+    @Autowired
+    private TrackPlayWriteBehind trackPlayWriteBehind;
+    
+    @Autowired
+    private SongTitleIndex songTitleIndex;
+    
+    @Autowired
+    private SongPlayAggregates songPlayAggregates;
+    
+    @Autowired
+    private SongPlayStatsRepository songPlayStatsRepository;
+    
+    @Autowired
+    private SongPlayStatsProperties songPlayStatsProperties;
+    
+    @Autowired
+    private SongPlayRollups songPlayRollups;
+    
+    @Autowired
+    private MostPlayedWindows mostPlayedWindows;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
     /**
-     * Asynchronously track a song play and update its occurrence count
+     * Asynchronously track a song play and update its occurrence count on the track play executor
      * @param event The TrackPlayEvent containing song information
      * @return CompletableFuture<Boolean> indicating if the song was found and updated
      */
-    @Async
+    @Async(ExecutionConfig.TRACK_PLAY_EXECUTOR)
     public CompletableFuture<Boolean> trackSongPlayAsync(TrackPlayEvent event) {
         try {
             // Check if track play updates are enabled
@@ -54,8 +83,7 @@ public class SongPlayTracker {
             }
             
             // Full database update mode
-            boolean result = trackSongPlay(event.getSongTitle());
-            return CompletableFuture.completedFuture(result);
+            return trackSongPlay(event.getSongTitle(), LocalDateTime.now());
         } catch (Exception e) {
             logger.error("Error tracking song play asynchronously: {}", e.getMessage(), e);
             return CompletableFuture.completedFuture(false);
@@ -63,39 +91,133 @@ public class SongPlayTracker {
     }
     
     /**
-     * Track a song play and update its occurrence count
+     * Track a play that was spilled while the track play executor was full. Direct writes run on the
+     * calling thread; with write-behind the play is queued and the future completes when its batch does.
      * @param songTitle The title of the song that was played
-     * @return true if the song was found and updated, false otherwise
+     * @param playedAt When the play was announced
+     * @return future completed with true once the play is persisted, false if it is not tracked (disabled,
+     *         log-only or the song does not exist), or exceptionally if the play could not be written
      */
-    private boolean trackSongPlay(String songTitle) {
-        Optional<Song> songOpt = songRepository.findByTitle(songTitle);
-        
-        if (songOpt.isPresent()) {
-            Song song = songOpt.get();
-            
-            // Update song occurrence count and timestamp only if enabled
-            if (trackPlayProperties.isUpdateOccurrences()) {
-                song.setOccurrence(song.getOccurrence() + 1);
-                song.setUpdatedAt(LocalDateTime.now());
-                songRepository.save(song);
-                logger.debug("Updated occurrence count for '{}' - occurrence now: {}", songTitle, song.getOccurrence());
+    public CompletableFuture<Boolean> trackSpilledPlay(String songTitle, LocalDateTime playedAt) {
+        if (!trackPlayProperties.isEnabled() || trackPlayProperties.isLogOnly()) {
+            logger.info("Track play updates are disabled or log-only, skipping spilled play for: {}", songTitle);
+            return CompletableFuture.completedFuture(false);
+        }
+        try {
+            Long songId = resolveSongId(songTitle);
+            if (songId == null) {
+                logger.warn("Song '{}' not found in database, dropping spilled play", songTitle);
+                return CompletableFuture.completedFuture(false);
             }
-            
-            // Create and save track play record if enabled
-            TrackPlay trackPlay = null;
-            if (trackPlayProperties.isRecordTrackPlays()) {
-                trackPlay = new TrackPlay(song);
-                trackPlayRepository.save(trackPlay);
-                logger.debug("Created TrackPlay record for '{}' - TrackPlay ID: {}", songTitle, trackPlay.getId());
+            if (trackPlayWriteBehind.isEnabled()) {
+                // false from write-behind means the queue was full or the batch failed, not a missing song
+                return trackPlayWriteBehind.enqueue(songId, playedAt).thenApply(persisted -> {
+                    if (!persisted) {
+                        throw new IllegalStateException("Spilled play of '" + songTitle + "' was not written");
+                    }
+                    return true;
+                });
             }
-            
-            logger.info("Tracked play for '{}' - occurrence updates: {}, TrackPlay recording: {}", 
-                       songTitle, trackPlayProperties.isUpdateOccurrences(), trackPlayProperties.isRecordTrackPlays());
-            return true;
-        } else {
+            return CompletableFuture.completedFuture(recordPlay(songId, songTitle, playedAt));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
+    /**
+     * Track a song play and update its occurrence count, through the write-behind queue when enabled
+     * @param songTitle The title of the song that was played
+     * @param playedAt When the play was announced
+     * @return future completed with true once the play is persisted, false if the song was not found or the write failed
+     */
+    private CompletableFuture<Boolean> trackSongPlay(String songTitle, LocalDateTime playedAt) {
+        Long songId = resolveSongId(songTitle);
+        if (songId == null) {
             logger.warn("Song '{}' not found in database, cannot track play", songTitle);
-            return false;
+            return CompletableFuture.completedFuture(false);
+        }
+        
+        if (trackPlayWriteBehind.isEnabled()) {
+            logger.info("Queued play for '{}' - occurrence updates: {}, TrackPlay recording: {}",
+                       songTitle, trackPlayProperties.isUpdateOccurrences(), trackPlayProperties.isRecordTrackPlays());
+            return trackPlayWriteBehind.enqueue(songId, playedAt);
+        }
+        return CompletableFuture.completedFuture(recordPlay(songId, songTitle, playedAt));
+    }
+    
+    /**
+     * Write one play directly in its own transaction
+     * @return true once the play is committed, false if the song was removed meanwhile
+     */
+    private boolean recordPlay(long songId, String songTitle, LocalDateTime playedAt) {
+        // All writes of one play commit together, so a failed play can be retried without counting it twice
+        boolean updateOccurrences = trackPlayProperties.isUpdateOccurrences();
+        SongPlayRollups.RollupBatch rollups = new SongPlayRollups.RollupBatch();
+        if (songPlayRollups.isEnabled()) {
+            rollups.add(songId, playedAt);
+        }
+        songPlayAggregates.beginPlayCommit();
+        try {
+            Boolean persisted = transactionTemplate.execute(status -> {
+                // Increment in the database so concurrent plays of the same song are never lost
+                if (updateOccurrences && songRepository.incrementOccurrences(List.of(songId), List.of(1), List.of(playedAt)) == 0) {
+                    return false;
+                }
+                
+                // Create and save track play record if enabled
+                if (trackPlayProperties.isRecordTrackPlays()) {
+                    TrackPlay trackPlay = new TrackPlay(songRepository.getReferenceById(songId));
+                    // A replayed spilled play keeps its original time, as stats, rollups and updated_at do
+                    trackPlay.setPlayedAt(playedAt);
+                    trackPlayRepository.save(trackPlay);
+                    if (songPlayStatsProperties.isEnabled()) {
+                        songPlayStatsRepository.recordPlays(songId, 1, playedAt, playedAt);
+                    }
+                    logger.debug("Created TrackPlay record for '{}' - TrackPlay ID: {}", songTitle, trackPlay.getId());
+                }
+                
+                if (songPlayRollups.isEnabled()) {
+                    songPlayRollups.persist(rollups);
+                }
+                return true;
+            });
+            if (!Boolean.TRUE.equals(persisted)) {
+                logger.warn("Song '{}' was removed from the database, cannot track play", songTitle);
+                return false;
+            }
+            if (updateOccurrences) {
+                songPlayAggregates.recordPlays(songId, 1);
+            }
+        } finally {
+            songPlayAggregates.endPlayCommit();
+        }
+        
+        if (songPlayRollups.isEnabled()) {
+            songPlayRollups.apply(rollups);
+        }
+        if (mostPlayedWindows.isEnabled()) {
+            mostPlayedWindows.record(songId, playedAt);
+        }
+        
+        logger.info("Tracked play for '{}' - occurrence updates: {}, TrackPlay recording: {}", 
+                   songTitle, trackPlayProperties.isUpdateOccurrences(), trackPlayProperties.isRecordTrackPlays());
+        return true;
+    }
+    
+    /**
+     * Resolve a played title to a song id from the title index, or until the index is loaded from the
+     * database with the same matching: the exact title first, then the normalized title
+     */
+    private Long resolveSongId(String songTitle) {
+        if (songTitleIndex.isLoaded()) {
+            SongTitleIndex.Entry entry = songTitleIndex.lookup(songTitle);
+            return entry != null ? entry.getId() : null;
+        }
+        Optional<Long> exact = songRepository.findByTitle(songTitle).map(Song::getId);
+        if (exact.isPresent()) {
+            return exact.get();
         }
+        return songRepository.findIdByNormalizedTitle(SongTitleIndex.normalize(songTitle)).orElse(null);
     }
     
     /**
@@ -103,9 +225,7 @@ public class SongPlayTracker {
      * @return The total play count
      */
     public long getTotalPlays() {
-        return songRepository.findAll().stream()
-            .mapToLong(song -> song.getOccurrence())
-            .sum();
+        return songPlayAggregates.getTotalPlays();
     }
     
     /**
@@ -113,8 +233,6 @@ public class SongPlayTracker {
      * @return The count of played songs
      */
     public long getPlayedSongsCount() {
-        return songRepository.findAll().stream()
-            .filter(song -> song.getOccurrence() > 0)
-            .count();
+        return songPlayAggregates.getPlayedSongsCount();
     }
 }
\ No newline at end of file
@@ -0,0 +1,237 @@
+package com.twitchchat.service;
+
+import com.twitchchat.repository.SongRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory index of song title to song id and duration, so recognising a track play needs no
+ * database round-trip. The index is built at startup and rebuilt after each successful playlist
+ * sync; readers always see one complete snapshot, which is replaced with a single write.
+ * <p>
+ * Matching is more lenient than the former exact title query: a title that matches no song
+ * exactly is matched again ignoring case and surrounding or repeated whitespace. Titles that
+ * collide after normalizing resolve to the song with the lowest id. Until the index is loaded,
+ * SongPlayTracker applies the same two steps against the database.
+ */
+@Component
+public class SongTitleIndex {
+    private static final Logger logger = LoggerFactory.getLogger(SongTitleIndex.class);
+
+    @Autowired
+    private SongRepository songRepository;
+
+    private volatile Snapshot snapshot;
+    private volatile LocalDateTime builtAt;
+    private volatile long buildMillis;
+
+    private final AtomicLong lookupCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong rebuildCount = new AtomicLong();
+
+    @PostConstruct
+    public void initialize() {
+        rebuild();
+    }
+
+    /**
+     * Check if the index has been built; until then callers should fall back to the database
+     */
+    public boolean isLoaded() {
+        return snapshot != null;
+    }
+
+    /**
+     * Look up a song by exact title, then ignoring case and surrounding or repeated whitespace
+     * @return the indexed song, or null if no song has this title
+     */
+    public Entry lookup(String title) {
+        Snapshot current = snapshot;
+        if (current == null || title == null) {
+            return null;
+        }
+
+        lookupCount.incrementAndGet();
+        Entry entry = current.exact.get(title);
+        if (entry == null) {
+            entry = current.normalized.get(normalize(title));
+        }
+        if (entry == null) {
+            missCount.incrementAndGet();
+        }
+        return entry;
+    }
+
+    /**
+     * Reload the index from the songs table and swap it in
+     * @return true if the index was rebuilt, false if the load failed and the previous snapshot was kept
+     */
+    public boolean rebuild() {
+        long start = System.nanoTime();
+        try {
+            // Rows come lowest id first, so putIfAbsent keeps the lowest id on a collision
+            List<Object[]> rows = songRepository.findAllTitleIndexRows();
+            int capacity = Math.max(rows.size() * 4 / 3 + 1, 16);
+            Map<String, Entry> exact = new HashMap<>(capacity);
+            Map<String, Entry> normalized = new HashMap<>(capacity);
+            int collisions = 0;
+            for (Object[] row : rows) {
+                String title = (String) row[1];
+                if (title == null) {
+                    continue;
+                }
+                Entry entry = new Entry(((Number) row[0]).longValue(), title, (String) row[2]);
+                exact.putIfAbsent(title, entry);
+                if (normalized.putIfAbsent(normalize(title), entry) != null) {
+                    collisions++;
+                }
+            }
+
+            snapshot = new Snapshot(exact, normalized);
+            builtAt = LocalDateTime.now();
+            buildMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            rebuildCount.incrementAndGet();
+            logger.info("Song title index built with {} titles in {} ms", exact.size(), buildMillis);
+            if (collisions > 0) {
+                logger.warn("{} song titles differ only by case or whitespace, the lowest id of each wins normalized lookups",
+                            collisions);
+            }
+            return true;
+        } catch (Exception e) {
+            logger.error("Failed to build song title index, {}: {}",
+                        isLoaded() ? "keeping previous snapshot" : "lookups will use the database", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Rebuild once the current transaction commits, or immediately if there is none,
+     * so the index never sees songs that are later rolled back
+     */
+    public void rebuildAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rebuild();
+                }
+            });
+        } else {
+            rebuild();
+        }
+    }
+
+    /**
+     * Get index size, age and hit counters
+     */
+    public Map<String, Object> getStats() {
+        Snapshot current = snapshot;
+        long lookups = lookupCount.get();
+        long misses = missCount.get();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("loaded", current != null);
+        stats.put("titles", current != null ? current.exact.size() : 0);
+        stats.put("builtAt", builtAt);
+        stats.put("buildMillis", buildMillis);
+        stats.put("rebuilds", rebuildCount.get());
+        stats.put("lookups", lookups);
+        stats.put("misses", misses);
+        stats.put("hitRate", lookups > 0 ? (double) (lookups - misses) / lookups : 0.0);
+        return stats;
+    }
+
+    /**
+     * Normalize a title for lookup: trimmed, runs of whitespace collapsed to one space, lower case
+     */
+    static String normalize(String title) {
+        StringBuilder normalized = new StringBuilder(title.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < title.length(); i++) {
+            char c = title.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = normalized.length() > 0;
+            } else {
+                if (pendingSpace) {
+                    normalized.append(' ');
+                    pendingSpace = false;
+                }
+                normalized.append(c);
+            }
+        }
+        return normalized.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Exact and normalized title maps, swapped in together
+     */
+    private static class Snapshot {
+        private final Map<String, Entry> exact;
+        private final Map<String, Entry> normalized;
+
+        private Snapshot(Map<String, Entry> exact, Map<String, Entry> normalized) {
+            this.exact = Collections.unmodifiableMap(exact);
+            this.normalized = Collections.unmodifiableMap(normalized);
+        }
+    }
+
+    /**
+     * Indexed song id, stored title and duration
+     */
+    public static class Entry {
+        private final long id;
+        private final String title;
+        private final String duration;
+
+        private Entry(long id, String title, String duration) {
+            this.id = id;
+            this.title = title;
+            this.duration = duration;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String getDuration() {
+            return duration;
+        }
+
+        /**
+         * Duration in seconds parsed from "m:ss" or "h:mm:ss", or -1 if it is missing or malformed
+         */
+        public int getDurationSeconds() {
+            if (duration == null || duration.isEmpty()) {
+                return -1;
+            }
+            int seconds = 0;
+            for (String part : duration.trim().split(":")) {
+                try {
+                    seconds = seconds * 60 + Integer.parseInt(part);
+                } catch (NumberFormatException e) {
+                    return -1;
+                }
+            }
+            return seconds;
+        }
+    }
+}
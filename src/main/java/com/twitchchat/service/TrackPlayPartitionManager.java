@@ -0,0 +1,317 @@
+package com.twitchchat.service;
+
+import com.twitchchat.config.TrackPlayPartitionProperties;
+import com.twitchchat.model.SongPlayRollup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.PreparedStatement;
+import java.sql.ResultSetMetaData;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Maintains monthly range partitions of track_plays on played_at: creates partitions ahead of
+ * time and, once a month falls out of retention, exports it if configured, then summarises it
+ * into monthly rollups and detaches and drops it. A partition whose export fails stays attached
+ * and is retried on the next run. Plays that landed in the default partition because their month
+ * had no partition yet are moved into the month's partition when it is created. Does nothing until
+ * track_plays has been converted to a partitioned table with migrate_track_plays_partitioned.sql.
+ */
+@Service
+public class TrackPlayPartitionManager {
+    private static final Logger logger = LoggerFactory.getLogger(TrackPlayPartitionManager.class);
+
+    static final String PARTITION_PREFIX = "track_plays_p";
+    private static final Pattern PARTITION_NAME = Pattern.compile(PARTITION_PREFIX + "(\\d{4})(\\d{2})");
+    private static final DateTimeFormatter MONTH_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    static final String IS_PARTITIONED_SQL = "SELECT COUNT(*) FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace " +
+            "WHERE c.relname = 'track_plays' AND c.relkind = 'p' AND n.nspname = current_schema()";
+    static final String LIST_PARTITIONS_SQL = "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent " +
+            "JOIN pg_namespace n ON n.oid = p.relnamespace " +
+            "WHERE p.relname = 'track_plays' AND n.nspname = current_schema() ORDER BY c.relname";
+    static final String DEFAULT_PARTITION_SQL = "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent " +
+            "JOIN pg_namespace n ON n.oid = p.relnamespace " +
+            "WHERE p.relname = 'track_plays' AND n.nspname = current_schema() AND pg_get_expr(c.relpartbound, c.oid) = 'DEFAULT'";
+    static final String DEFAULT_MONTHS_SQL = "SELECT DISTINCT CAST(date_trunc('month', played_at) AS date) FROM %s";
+    static final String HAS_ROWS_SQL = "SELECT EXISTS (SELECT 1 FROM %s WHERE %s)";
+    static final String MOVE_ROWS_SQL = "WITH moved AS (DELETE FROM %s WHERE %s RETURNING *) INSERT INTO %s SELECT * FROM moved";
+    private static final int EXPORT_FETCH_SIZE = 1000;
+    static final String SUMMARISE_SQL = "INSERT INTO song_play_rollups (song_id, granularity, bucket_start, play_count) " +
+            "SELECT song_id, '" + SongPlayRollup.MONTHLY + "', date_trunc('month', played_at), COUNT(*) FROM %s " +
+            "GROUP BY song_id, date_trunc('month', played_at) " +
+            "ON CONFLICT (song_id, granularity, bucket_start) DO UPDATE SET play_count = EXCLUDED.play_count";
+
+    @Autowired
+    private TrackPlayPartitionProperties partitionProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private volatile LocalDateTime lastMaintenanceAt;
+    private volatile List<String> lastCreated = new ArrayList<>();
+    private volatile List<String> lastArchived = new ArrayList<>();
+    private volatile boolean warnedNotPartitioned;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void maintainOnStartup() {
+        scheduledMaintenance();
+    }
+
+    @Scheduled(cron = "${app.track-play.partitions.maintenance-cron:0 10 3 * * *}")
+    public void scheduledMaintenance() {
+        if (!partitionProperties.isEnabled()) {
+            return;
+        }
+        try {
+            maintain();
+        } catch (Exception e) {
+            logger.error("Track play partition maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Check if track_plays is a partitioned table
+     */
+    public boolean isPartitioned() {
+        Integer count = jdbcTemplate.queryForObject(IS_PARTITIONED_SQL, Integer.class);
+        return count != null && count > 0;
+    }
+
+    /**
+     * Create upcoming monthly partitions and archive the ones past retention
+     */
+    public synchronized void maintain() {
+        if (!isPartitioned()) {
+            if (!warnedNotPartitioned) {
+                logger.warn("track_plays is not partitioned, skipping partition maintenance (see migrate_track_plays_partitioned.sql)");
+                warnedNotPartitioned = true;
+            }
+            return;
+        }
+
+        List<String> created = createPartitions();
+        List<String> archived = new ArrayList<>();
+        if (partitionProperties.getRetentionMonths() > 0) {
+            YearMonth oldestKept = YearMonth.now().minusMonths(partitionProperties.getRetentionMonths() - 1L);
+            for (String partition : listPartitions()) {
+                YearMonth month = monthOf(partition);
+                if (month != null && month.isBefore(oldestKept) && archive(partition)) {
+                    archived.add(partition);
+                }
+            }
+        }
+
+        lastCreated = created;
+        lastArchived = archived;
+        lastMaintenanceAt = LocalDateTime.now();
+        if (!created.isEmpty() || !archived.isEmpty()) {
+            logger.info("Track play partitions maintained: created {}, archived {}", created, archived);
+        }
+    }
+
+    /**
+     * Create the partitions for the next months and for every month with plays in the default partition
+     */
+    private List<String> createPartitions() {
+        List<String> existing = listPartitions();
+        String defaultPartition = findDefaultPartition();
+        Set<YearMonth> months = new TreeSet<>();
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= partitionProperties.getMonthsAhead(); i++) {
+            months.add(current.plusMonths(i));
+        }
+        if (defaultPartition != null) {
+            for (LocalDate month : jdbcTemplate.queryForList(String.format(DEFAULT_MONTHS_SQL, defaultPartition), LocalDate.class)) {
+                months.add(YearMonth.from(month));
+            }
+        }
+
+        List<String> created = new ArrayList<>();
+        for (YearMonth month : months) {
+            String partition = partitionName(month);
+            if (existing.contains(partition)) {
+                continue;
+            }
+            try {
+                createPartition(partition, month, defaultPartition);
+                created.add(partition);
+            } catch (Exception e) {
+                logger.error("Could not create track play partition {}: {}", partition, e.getMessage(), e);
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Create one month's partition. The default partition cannot stay attached while it holds rows
+     * for the new range, so in that case it is detached, its rows for the month are moved into the
+     * new partition and it is attached again, all in one transaction that blocks writes to track_plays.
+     */
+    private void createPartition(String partition, YearMonth month, String defaultPartition) {
+        String bounds = "FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')";
+        String inMonth = "played_at >= '" + month.atDay(1) + "' AND played_at < '" + month.plusMonths(1).atDay(1) + "'";
+        if (defaultPartition == null
+                || !Boolean.TRUE.equals(jdbcTemplate.queryForObject(String.format(HAS_ROWS_SQL, defaultPartition, inMonth), Boolean.class))) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partition + " PARTITION OF track_plays " + bounds);
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("ALTER TABLE track_plays DETACH PARTITION " + defaultPartition);
+            jdbcTemplate.execute("CREATE TABLE " + partition + " PARTITION OF track_plays " + bounds);
+            int moved = jdbcTemplate.update(String.format(MOVE_ROWS_SQL, defaultPartition, inMonth, partition));
+            jdbcTemplate.execute("ALTER TABLE track_plays ATTACH PARTITION " + defaultPartition + " DEFAULT");
+            logger.info("Moved {} track plays from {} into new partition {}", moved, defaultPartition, partition);
+        });
+    }
+
+    private String findDefaultPartition() {
+        List<String> partitions = jdbcTemplate.queryForList(DEFAULT_PARTITION_SQL, String.class);
+        return partitions.isEmpty() ? null : partitions.get(0);
+    }
+
+    /**
+     * Export a partition if configured, then summarise it into monthly rollups, detach and drop it in
+     * one transaction. Any failure leaves the partition attached, so the next run retries it.
+     */
+    private boolean archive(String partition) {
+        if (partitionProperties.getArchiveMode() == TrackPlayPartitionProperties.ArchiveMode.EXPORT) {
+            try {
+                Path file = export(partition);
+                logger.info("Exported track play partition {} to {}", partition, file);
+            } catch (Exception e) {
+                logger.error("Could not export track play partition {}, keeping it attached: {}",
+                            partition, e.getMessage(), e);
+                return false;
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update(String.format(SUMMARISE_SQL, partition));
+                jdbcTemplate.execute("ALTER TABLE track_plays DETACH PARTITION " + partition);
+                jdbcTemplate.execute("DROP TABLE " + partition);
+            });
+        } catch (Exception e) {
+            logger.error("Could not archive track play partition {}, keeping it attached: {}", partition, e.getMessage(), e);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Stream a partition to a gzipped CSV file, replacing any earlier export of it. The query runs in a
+     * read-only transaction with a fetch size, so the driver uses a cursor instead of loading the month.
+     */
+    private Path export(String partition) throws IOException {
+        Path directory = Paths.get(partitionProperties.getExportDirectory());
+        Files.createDirectories(directory);
+        Path file = directory.resolve(partition + ".csv.gz");
+
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(file)), StandardCharsets.UTF_8))) {
+            boolean[] header = {false};
+            String sql = "SELECT * FROM " + partition + " ORDER BY played_at";
+            TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+            readOnly.setReadOnly(true);
+            readOnly.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(sql);
+                ps.setFetchSize(EXPORT_FETCH_SIZE);
+                return ps;
+            }, (RowCallbackHandler) rs -> {
+                try {
+                    ResultSetMetaData meta = rs.getMetaData();
+                    if (!header[0]) {
+                        for (int c = 1; c <= meta.getColumnCount(); c++) {
+                            writer.write((c > 1 ? "," : "") + meta.getColumnName(c));
+                        }
+                        writer.write('\n');
+                        header[0] = true;
+                    }
+                    for (int c = 1; c <= meta.getColumnCount(); c++) {
+                        Object value = rs.getObject(c);
+                        writer.write((c > 1 ? "," : "") + (value != null ? value.toString() : ""));
+                    }
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+        }
+        return file;
+    }
+
+    private List<String> listPartitions() {
+        return jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class);
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(MONTH_SUFFIX);
+    }
+
+    static YearMonth monthOf(String partition) {
+        Matcher matcher = PARTITION_NAME.matcher(partition);
+        int month = matcher.matches() ? Integer.parseInt(matcher.group(2)) : 0;
+        if (month < 1 || month > 12) {
+            return null;
+        }
+        return YearMonth.of(Integer.parseInt(matcher.group(1)), month);
+    }
+
+    /**
+     * Get current partitions and the result of the last maintenance run
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", partitionProperties.isEnabled());
+        try {
+            boolean partitioned = isPartitioned();
+            stats.put("partitioned", partitioned);
+            if (partitioned) {
+                stats.put("partitions", listPartitions());
+            }
+        } catch (Exception e) {
+            stats.put("error", e.getMessage());
+        }
+        stats.put("retentionMonths", partitionProperties.getRetentionMonths());
+        stats.put("archiveMode", partitionProperties.getArchiveMode());
+        stats.put("lastMaintenanceAt", lastMaintenanceAt);
+        stats.put("lastCreated", lastCreated);
+        stats.put("lastArchived", lastArchived);
+        return stats;
+    }
+}
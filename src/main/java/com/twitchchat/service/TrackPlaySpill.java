@@ -0,0 +1,195 @@
+package com.twitchchat.service;
+
+import com.twitchchat.config.ExecutionProperties;
+import com.twitchchat.event.TrackPlayEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Durable overflow for track plays rejected by a full track play executor under the SPILL policy.
+ * Plays are appended to the spill file (played at, tab, song title) and replayed on the scheduler
+ * thread every drain interval. With write-behind the whole file is queued at once and the drain
+ * waits for the batches, so it holds the shared scheduler thread for about one flush window rather
+ * than one per play; otherwise plays are written one at a time on the scheduler thread. A play whose
+ * write fails is kept for the next drain, while a play of a song that no longer exists is dropped.
+ * Replay is at-least-once: plays from a drain interrupted by a crash are replayed again on the next start.
+ */
+@Service
+public class TrackPlaySpill {
+    private static final Logger logger = LoggerFactory.getLogger(TrackPlaySpill.class);
+
+    @Autowired
+    private ExecutionProperties executionProperties;
+
+    @Autowired
+    private SongPlayTracker songPlayTracker;
+
+    private final AtomicLong spilledCount = new AtomicLong();
+    private final AtomicLong replayedCount = new AtomicLong();
+    private final AtomicLong lostCount = new AtomicLong();
+
+    /**
+     * Handle a play the track play executor rejected
+     * @return true if the play was written to the spill file
+     */
+    public boolean spill(TrackPlayEvent event) {
+        if (executionProperties.getTrackPlayRejectionPolicy() != ExecutionProperties.RejectionPolicy.SPILL) {
+            lostCount.incrementAndGet();
+            logger.warn("Track play executor is full, dropped play for: {}", event.getSongTitle());
+            return false;
+        }
+        String line = LocalDateTime.now() + "\t" + event.getSongTitle().replaceAll("[\\t\\r\\n]", " ");
+        try {
+            synchronized (this) {
+                Path file = spillFile();
+                if (file.getParent() != null) {
+                    Files.createDirectories(file.getParent());
+                }
+                try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    writer.write(line);
+                    writer.newLine();
+                }
+            }
+            spilledCount.incrementAndGet();
+            return true;
+        } catch (IOException e) {
+            lostCount.incrementAndGet();
+            logger.error("Could not spill play for '{}': {}", event.getSongTitle(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Replay spilled plays; the spill file is moved aside first so new spills go to a fresh file
+     */
+    @Scheduled(fixedDelayString = "${app.execution.track-play-spill-drain-interval-ms:5000}")
+    public void drain() {
+        Path draining = drainingFile();
+        List<String> lines;
+        try {
+            if (!Files.exists(draining)) {
+                synchronized (this) {
+                    if (!Files.exists(spillFile())) {
+                        return;
+                    }
+                    Files.move(spillFile(), draining, StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+            lines = Files.readAllLines(draining, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.error("Failed to read spilled track plays: {}", e.getMessage(), e);
+            return;
+        }
+
+        int replayed = 0;
+        int dropped = 0;
+        try {
+            // Queue every play before waiting, so write-behind commits them in as few batches as possible
+            List<CompletableFuture<Boolean>> results = new ArrayList<>(lines.size());
+            int submitted = 0;
+            while (submitted < lines.size()) {
+                CompletableFuture<Boolean> result = replay(lines.get(submitted++));
+                results.add(result);
+                if (result.isCompletedExceptionally()) {
+                    // A direct write failed, so the database is likely unavailable: keep the rest for the next run
+                    break;
+                }
+            }
+            CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).exceptionally(e -> null).join();
+
+            List<String> failed = new ArrayList<>();
+            Throwable firstError = null;
+            for (int i = 0; i < results.size(); i++) {
+                CompletableFuture<Boolean> result = results.get(i);
+                if (result.isCompletedExceptionally()) {
+                    failed.add(lines.get(i));
+                    if (firstError == null) {
+                        firstError = result.handle((persisted, e) -> e).join();
+                    }
+                } else if (result.join()) {
+                    replayed++;
+                } else {
+                    dropped++;
+                }
+            }
+            failed.addAll(lines.subList(submitted, lines.size()));
+
+            if (failed.isEmpty()) {
+                Files.delete(draining);
+                logger.info("Replayed {} spilled track plays ({} dropped)", replayed, dropped);
+            } else {
+                // Keep only the plays that were not written
+                Files.write(draining, failed, StandardCharsets.UTF_8);
+                logger.error("Failed to replay {} of {} spilled track plays, kept for the next run: {}",
+                            failed.size(), lines.size(), firstError != null ? firstError.getMessage() : "not attempted");
+            }
+        } catch (IOException e) {
+            logger.error("Could not update {}: {}", draining, e.getMessage(), e);
+        } finally {
+            replayedCount.addAndGet(replayed);
+            lostCount.addAndGet(dropped);
+        }
+    }
+
+    /**
+     * Replay one spill file line; malformed lines are dropped
+     */
+    private CompletableFuture<Boolean> replay(String line) {
+        int tab = line.indexOf('\t');
+        LocalDateTime playedAt = null;
+        if (tab > 0) {
+            try {
+                playedAt = LocalDateTime.parse(line.substring(0, tab));
+            } catch (DateTimeParseException e) {
+                // Dropped below
+            }
+        }
+        if (playedAt == null) {
+            logger.warn("Dropping malformed spilled track play: {}", line);
+            return CompletableFuture.completedFuture(false);
+        }
+        return songPlayTracker.trackSpilledPlay(line.substring(tab + 1), playedAt);
+    }
+
+    private Path spillFile() {
+        return Paths.get(executionProperties.getTrackPlaySpillFile());
+    }
+
+    private Path drainingFile() {
+        return Paths.get(executionProperties.getTrackPlaySpillFile() + ".draining");
+    }
+
+    /**
+     * Get spill and replay counters
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("policy", executionProperties.getTrackPlayRejectionPolicy());
+        stats.put("spilled", spilledCount.get());
+        stats.put("replayed", replayedCount.get());
+        stats.put("lost", lostCount.get());
+        stats.put("pending", Files.exists(spillFile()) || Files.exists(drainingFile()));
+        return stats;
+    }
+}
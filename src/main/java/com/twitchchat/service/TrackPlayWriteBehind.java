@@ -0,0 +1,436 @@
+package com.twitchchat.service;
+
+import com.twitchchat.config.SongPlayStatsProperties;
+import com.twitchchat.config.TrackPlayBatchProperties;
+import com.twitchchat.config.TrackPlayProperties;
+import com.twitchchat.pipeline.LatencyHistogram;
+import com.twitchchat.repository.SongRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind stage for track play persistence. Plays are queued in memory and flushed every
+ * flush interval or max batch size, whichever comes first, as one transaction holding a batched
+ * insert of track_plays rows, the matching song_play_stats and rollup upserts and one
+ * UPDATE adding every song's play count to its occurrence. Each play's future
+ * completes once its batch has committed. A batch whose transaction fails, e.g. on a deadlock or
+ * a failover, is retried whole with bounded backoff before its futures complete with false. The
+ * queue is drained before the bean is destroyed.
+ * <p>
+ * The track_plays insert is plain SQL rather than the TrackPlay mapping, so it only fills
+ * song_id and played_at: the id must come from a column default (IDENTITY or a sequence) and
+ * every other NOT NULL column needs a default. This is checked against the live schema at
+ * startup and write-behind stays disabled, falling back to the JPA path, if it does not hold.
+ */
+@Service
+public class TrackPlayWriteBehind {
+    private static final Logger logger = LoggerFactory.getLogger(TrackPlayWriteBehind.class);
+
+    static final String INSERT_TRACK_PLAY_SQL = "INSERT INTO track_plays (song_id, played_at) VALUES (?, ?)";
+    static final String TRACK_PLAY_COLUMNS_SQL = "SELECT column_name, is_nullable, column_default, is_identity " +
+            "FROM information_schema.columns WHERE table_schema = current_schema() AND table_name = 'track_plays'";
+    static final String UPSERT_PLAY_STATS_SQL = "INSERT INTO song_play_stats (song_id, play_count, first_played_at, last_played_at) " +
+            "VALUES (?, ?, ?, ?) ON CONFLICT (song_id) DO UPDATE SET play_count = song_play_stats.play_count + EXCLUDED.play_count, " +
+            "first_played_at = LEAST(song_play_stats.first_played_at, EXCLUDED.first_played_at), " +
+            "last_played_at = GREATEST(song_play_stats.last_played_at, EXCLUDED.last_played_at)";
+
+    @Autowired
+    private TrackPlayBatchProperties batchProperties;
+
+    @Autowired
+    private TrackPlayProperties trackPlayProperties;
+
+    @Autowired
+    private SongPlayStatsProperties statsProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SongRepository songRepository;
+
+    @Autowired
+    private SongPlayAggregates songPlayAggregates;
+
+    @Autowired
+    private SongPlayRollups songPlayRollups;
+
+    @Autowired
+    private MostPlayedWindows mostPlayedWindows;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private BlockingQueue<PendingPlay> queue;
+    private Thread flushThread;
+    private volatile boolean running;
+
+    private final AtomicLong enqueuedCount = new AtomicLong();
+    private final AtomicLong flushedCount = new AtomicLong();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong retryCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final LatencyHistogram flushLatency = new LatencyHistogram();
+    private volatile int lastBatchSize;
+
+    @PostConstruct
+    public void start() {
+        if (!batchProperties.isEnabled()) {
+            logger.info("Track play write-behind disabled - plays are written individually");
+            return;
+        }
+        if (trackPlayProperties.isRecordTrackPlays() && !checkTrackPlayColumns()) {
+            return;
+        }
+
+        queue = new ArrayBlockingQueue<>(Math.max(batchProperties.getQueueCapacity(), 1));
+        running = true;
+        flushThread = new Thread(this::runFlusher, "track-play-flush");
+        flushThread.setDaemon(true);
+        flushThread.start();
+        logger.info("Track play write-behind started (flush every {} ms or {} plays)",
+                   batchProperties.getFlushIntervalMs(), batchProperties.getMaxBatchSize());
+    }
+
+    /**
+     * Check that INSERT_TRACK_PLAY_SQL can insert a row: song_id and played_at exist and every
+     * other NOT NULL column, the id included, is filled by the database
+     */
+    private boolean checkTrackPlayColumns() {
+        List<Map<String, Object>> columns;
+        try {
+            columns = jdbcTemplate.queryForList(TRACK_PLAY_COLUMNS_SQL);
+        } catch (Exception e) {
+            logger.error("Could not read the track_plays columns, write-behind disabled: {}", e.getMessage(), e);
+            return false;
+        }
+
+        List<String> unfilled = new ArrayList<>();
+        boolean hasSongId = false;
+        boolean hasPlayedAt = false;
+        for (Map<String, Object> column : columns) {
+            String name = (String) column.get("column_name");
+            if ("song_id".equals(name)) {
+                hasSongId = true;
+            } else if ("played_at".equals(name)) {
+                hasPlayedAt = true;
+            } else if ("NO".equals(column.get("is_nullable")) && column.get("column_default") == null
+                    && !"YES".equals(column.get("is_identity"))) {
+                unfilled.add(name);
+            }
+        }
+
+        if (!hasSongId || !hasPlayedAt || !unfilled.isEmpty()) {
+            logger.error("track_plays does not fit the write-behind insert (song_id: {}, played_at: {}, " +
+                         "NOT NULL columns without a default: {}), write-behind disabled",
+                         hasSongId, hasPlayedAt, unfilled);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Check if plays should be queued instead of written directly
+     */
+    public boolean isEnabled() {
+        return queue != null;
+    }
+
+    /**
+     * Queue one play of a song
+     * @return future completed with true once the play is committed, false if it could not be persisted
+     */
+    public CompletableFuture<Boolean> enqueue(long songId, LocalDateTime playedAt) {
+        PendingPlay play = new PendingPlay(songId, playedAt);
+        if (!running) {
+            // Shutting down, write through so the play is not lost
+            flush(Collections.singletonList(play));
+            return play.result;
+        }
+
+        try {
+            if (queue.offer(play, batchProperties.getFlushIntervalMs(), TimeUnit.MILLISECONDS)) {
+                enqueuedCount.incrementAndGet();
+                if (!running) {
+                    // Raced with shutdown after its final drain
+                    drainRemaining();
+                }
+            } else {
+                rejectedCount.incrementAndGet();
+                logger.warn("Track play queue full ({} pending), dropped play of song {}", queue.size(), songId);
+                play.result.complete(false);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            play.result.complete(false);
+        }
+        return play.result;
+    }
+
+    private void runFlusher() {
+        int maxBatchSize = Math.max(batchProperties.getMaxBatchSize(), 1);
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(batchProperties.getFlushIntervalMs());
+        List<PendingPlay> batch = new ArrayList<>(maxBatchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingPlay first = queue.poll(intervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                // The first play opens the window; flush when it closes or the batch is full
+                batch.add(first);
+                long deadline = System.nanoTime() + intervalNanos;
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    PendingPlay next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                flush(batch);
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Unexpected error in track play flusher: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Write one batch in a single transaction and complete its futures
+     */
+    private void flush(List<PendingPlay> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean committed = false;
+        boolean updateOccurrences = trackPlayProperties.isUpdateOccurrences();
+        boolean recordTrackPlays = trackPlayProperties.isRecordTrackPlays();
+        boolean updatePlayStats = recordTrackPlays && statsProperties.isEnabled();
+        Map<Long, PlayCount> counts = updateOccurrences || updatePlayStats ? countPlays(batch) : Collections.emptyMap();
+        SongPlayRollups.RollupBatch rollups = new SongPlayRollups.RollupBatch();
+        if (songPlayRollups.isEnabled()) {
+            for (PendingPlay play : batch) {
+                rollups.add(play.songId, play.playedAt);
+            }
+        }
+        long backoffMs = batchProperties.getRetryBackoffMs();
+        for (int attempt = 0; ; attempt++) {
+            Exception failure = null;
+            songPlayAggregates.beginPlayCommit();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (recordTrackPlays) {
+                        jdbcTemplate.batchUpdate(INSERT_TRACK_PLAY_SQL, batch, batch.size(), (ps, play) -> {
+                            ps.setLong(1, play.songId);
+                            ps.setTimestamp(2, Timestamp.valueOf(play.playedAt));
+                        });
+                    }
+                    if (updatePlayStats) {
+                        upsertPlayStats(counts);
+                    }
+                    if (updateOccurrences) {
+                        incrementOccurrences(counts);
+                    }
+                    songPlayRollups.persist(rollups);
+                });
+                committed = true;
+                songPlayRollups.apply(rollups);
+                if (mostPlayedWindows.isEnabled()) {
+                    for (PendingPlay play : batch) {
+                        mostPlayedWindows.record(play.songId, play.playedAt);
+                    }
+                }
+                if (updateOccurrences) {
+                    for (Map.Entry<Long, PlayCount> entry : counts.entrySet()) {
+                        songPlayAggregates.recordPlays(entry.getKey(), entry.getValue().count);
+                    }
+                }
+                flushedCount.addAndGet(batch.size());
+                logger.debug("Flushed {} track plays", batch.size());
+            } catch (Exception e) {
+                failure = e;
+            } finally {
+                songPlayAggregates.endPlayCommit();
+            }
+
+            if (committed) {
+                if (failure != null) {
+                    logger.error("Error after committing {} track plays: {}", batch.size(), failure.getMessage(), failure);
+                }
+                break;
+            }
+            // The transaction rolled back as a whole, so the batch can be written again without counting it twice
+            if (attempt >= batchProperties.getMaxRetries() || !sleepBeforeRetry(backoffMs)) {
+                failedCount.addAndGet(batch.size());
+                logger.error("Error flushing {} track plays after {} attempts: {}", batch.size(), attempt + 1, failure.getMessage(), failure);
+                break;
+            }
+            retryCount.incrementAndGet();
+            logger.warn("Flushing {} track plays failed (attempt {}), retrying in {} ms: {}",
+                       batch.size(), attempt + 1, backoffMs, failure.getMessage());
+            backoffMs *= 2;
+        }
+
+        flushCount.incrementAndGet();
+        lastBatchSize = batch.size();
+        flushLatency.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        for (PendingPlay play : batch) {
+            play.result.complete(committed);
+        }
+    }
+
+    /**
+     * Wait before retrying a failed flush
+     * @return false if interrupted, in which case the batch is not retried
+     */
+    private static boolean sleepBeforeRetry(long backoffMs) {
+        try {
+            Thread.sleep(backoffMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static Map<Long, PlayCount> countPlays(List<PendingPlay> batch) {
+        Map<Long, PlayCount> counts = new LinkedHashMap<>();
+        for (PendingPlay play : batch) {
+            counts.computeIfAbsent(play.songId, id -> new PlayCount()).add(play.playedAt);
+        }
+        return counts;
+    }
+
+    private void upsertPlayStats(Map<Long, PlayCount> counts) {
+        jdbcTemplate.batchUpdate(UPSERT_PLAY_STATS_SQL, new ArrayList<>(counts.entrySet()), counts.size(), (ps, entry) -> {
+            ps.setLong(1, entry.getKey());
+            ps.setLong(2, entry.getValue().count);
+            ps.setTimestamp(3, Timestamp.valueOf(entry.getValue().firstPlayedAt));
+            ps.setTimestamp(4, Timestamp.valueOf(entry.getValue().lastPlayedAt));
+        });
+    }
+
+    /**
+     * Add each song's play count to its occurrence in one statement
+     */
+    private void incrementOccurrences(Map<Long, PlayCount> counts) {
+        List<Long> ids = new ArrayList<>(counts.size());
+        List<Integer> deltas = new ArrayList<>(counts.size());
+        List<LocalDateTime> playedAts = new ArrayList<>(counts.size());
+        for (Map.Entry<Long, PlayCount> entry : counts.entrySet()) {
+            ids.add(entry.getKey());
+            deltas.add(entry.getValue().count);
+            playedAts.add(entry.getValue().lastPlayedAt);
+        }
+        songRepository.incrementOccurrences(ids, deltas, playedAts);
+    }
+
+    private synchronized void drainRemaining() {
+        List<PendingPlay> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        flush(remaining);
+    }
+
+    /**
+     * Get queue depth, flush counters and flush latency percentiles
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", isEnabled());
+        stats.put("queueDepth", queue != null ? queue.size() : 0);
+        stats.put("queueCapacity", batchProperties.getQueueCapacity());
+        stats.put("enqueued", enqueuedCount.get());
+        stats.put("flushed", flushedCount.get());
+        stats.put("failed", failedCount.get());
+        stats.put("retries", retryCount.get());
+        stats.put("rejected", rejectedCount.get());
+        stats.put("flushes", flushCount.get());
+        stats.put("lastBatchSize", lastBatchSize);
+        stats.put("flushLatency", flushLatency.getSummary());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+
+        running = false;
+        try {
+            flushThread.join(batchProperties.getShutdownTimeoutMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (flushThread.isAlive()) {
+            logger.warn("Track play flusher did not stop within {} ms", batchProperties.getShutdownTimeoutMs());
+        }
+
+        drainRemaining();
+        logger.info("Track play write-behind drained ({} plays flushed, {} failed)", flushedCount.get(), failedCount.get());
+    }
+
+    /**
+     * A queued play and the future completed when it is committed
+     */
+    private static class PendingPlay {
+        private final long songId;
+        private final LocalDateTime playedAt;
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        private PendingPlay(long songId, LocalDateTime playedAt) {
+            this.songId = songId;
+            this.playedAt = playedAt;
+        }
+    }
+
+    private static class PlayCount {
+        private int count;
+        private LocalDateTime firstPlayedAt;
+        private LocalDateTime lastPlayedAt;
+
+        private void add(LocalDateTime playedAt) {
+            count++;
+            if (firstPlayedAt == null || playedAt.isBefore(firstPlayedAt)) {
+                firstPlayedAt = playedAt;
+            }
+            if (lastPlayedAt == null || playedAt.isAfter(lastPlayedAt)) {
+                lastPlayedAt = playedAt;
+            }
+        }
+    }
+}
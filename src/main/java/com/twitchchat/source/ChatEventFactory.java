@@ -0,0 +1,34 @@
+package com.twitchchat.source;
+
+import com.github.twitch4j.chat.events.channel.ChannelMessageEvent;
+import com.github.twitch4j.chat.events.channel.IRCMessageEvent;
+import com.github.twitch4j.common.events.domain.EventChannel;
+import com.github.twitch4j.common.events.domain.EventUser;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds twitch4j ChannelMessageEvents for locally produced chat.
+ * Parsing a raw IRC line costs tens of microseconds, so one parsed PRIVMSG per channel is reused
+ * as the underlying IRC event; the user, channel and message text of each event are its own.
+ */
+public final class ChatEventFactory {
+    private static final Map<String, IRCMessageEvent> TEMPLATES = new ConcurrentHashMap<>();
+
+    private ChatEventFactory() {
+    }
+
+    public static ChannelMessageEvent create(String channel, String username, String message) {
+        IRCMessageEvent template = TEMPLATES.computeIfAbsent(channel, ChatEventFactory::parseTemplate);
+        return new ChannelMessageEvent(new EventChannel(channel, channel), template,
+                new EventUser(username, username), message);
+    }
+
+    @SuppressWarnings("deprecation")
+    private static IRCMessageEvent parseTemplate(String channel) {
+        String raw = ":local!local@local.tmi.twitch.tv PRIVMSG #" + channel + " :local";
+        return new IRCMessageEvent(raw, Collections.emptyMap(), Collections.emptyMap(), Collections.emptyList());
+    }
+}
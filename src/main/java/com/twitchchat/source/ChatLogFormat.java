@@ -0,0 +1,73 @@
+package com.twitchchat.source;
+
+/**
+ * Line format of recorded chat logs: epochMillis, channel, username and message separated by
+ * tabs, with backslash, tab, CR and LF escaped so every record stays on one line
+ */
+final class ChatLogFormat {
+
+    private ChatLogFormat() {
+    }
+
+    static String format(long epochMillis, String channel, String username, String message) {
+        StringBuilder line = new StringBuilder(64 + (message != null ? message.length() : 0));
+        line.append(epochMillis).append('\t');
+        escape(line, channel).append('\t');
+        escape(line, username).append('\t');
+        escape(line, message);
+        return line.toString();
+    }
+
+    /**
+     * Parse one line into {epochMillis, channel, username, message}, or null if it is malformed
+     */
+    static String[] parse(String line) {
+        String[] fields = line.split("\t", -1);
+        if (fields.length != 4) {
+            return null;
+        }
+        for (int i = 1; i < fields.length; i++) {
+            fields[i] = unescape(fields[i]);
+        }
+        return fields;
+    }
+
+    private static StringBuilder escape(StringBuilder out, String value) {
+        if (value == null) {
+            return out;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\': out.append("\\\\"); break;
+                case '\t': out.append("\\t"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                default: out.append(c);
+            }
+        }
+        return out;
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder out = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                switch (next) {
+                    case 't': out.append('\t'); break;
+                    case 'n': out.append('\n'); break;
+                    case 'r': out.append('\r'); break;
+                    default: out.append(next);
+                }
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+}
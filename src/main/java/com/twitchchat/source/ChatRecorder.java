@@ -0,0 +1,97 @@
+package com.twitchchat.source;
+
+import com.github.twitch4j.chat.events.channel.ChannelMessageEvent;
+import com.twitchchat.config.ChatSourceProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Appends live chat traffic to a log file that the REPLAY chat source can play back
+ */
+@Component
+public class ChatRecorder {
+    private static final Logger logger = LoggerFactory.getLogger(ChatRecorder.class);
+    private static final int FLUSH_EVERY = 64;
+
+    @Autowired
+    private ChatSourceProperties sourceProperties;
+
+    private BufferedWriter writer;
+    private volatile boolean recording;
+    private final AtomicLong recordedCount = new AtomicLong();
+
+    @PostConstruct
+    public void open() {
+        if (!sourceProperties.isRecord() || sourceProperties.isLocal()) {
+            return;
+        }
+
+        try {
+            Path path = Paths.get(sourceProperties.getRecordFile());
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            recording = true;
+            logger.info("Recording chat traffic to {}", path.toAbsolutePath());
+        } catch (IOException e) {
+            logger.error("Failed to open chat recording file, recording disabled: {}", e.getMessage(), e);
+        }
+    }
+
+    public boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * Append one chat message to the recording
+     */
+    public synchronized void record(ChannelMessageEvent event) {
+        if (!recording) {
+            return;
+        }
+        try {
+            writer.write(ChatLogFormat.format(System.currentTimeMillis(), event.getChannel().getName(),
+                    event.getUser().getName(), event.getMessage()));
+            writer.newLine();
+            if (recordedCount.incrementAndGet() % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+        } catch (IOException e) {
+            recording = false;
+            logger.error("Error writing chat recording, recording stopped: {}", e.getMessage(), e);
+        }
+    }
+
+    public long getRecordedCount() {
+        return recordedCount.get();
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (writer == null) {
+            return;
+        }
+        recording = false;
+        try {
+            writer.close();
+            logger.info("Chat recording closed ({} messages recorded)", recordedCount.get());
+        } catch (IOException e) {
+            logger.error("Error closing chat recording: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.twitchchat.source;
+
+import com.github.twitch4j.chat.events.channel.ChannelMessageEvent;
+import com.twitchchat.config.ChatSourceProperties;
+import com.twitchchat.config.TwitchProperties;
+import com.twitchchat.model.Song;
+import com.twitchchat.pipeline.ChatLatencyTracker;
+import com.twitchchat.repository.SongRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Chat source used in place of the twitch4j client: replays a recorded chat log at real time,
+ * N times faster or as fast as possible, or generates synthetic chat with periodic track play
+ * announcements. Events go through the same handler path as live chat, and the latency report
+ * is logged when a finite run completes.
+ */
+@Component
+public class LocalChatSource {
+    private static final Logger logger = LoggerFactory.getLogger(LocalChatSource.class);
+    private static final int SONG_SAMPLE_SIZE = 500;
+
+    private static final List<String> WORDS = Arrays.asList(
+        "gg", "lol", "bet", "red", "blue", "champ", "that", "was", "close", "nice", "crit", "miss",
+        "ramza", "agrias", "summon", "faith", "brave", "zodiac", "poach", "ninja", "monk", "calc",
+        "the", "on", "is", "pog", "kek", "why", "again", "unit", "dead", "alive", "odds", "allin");
+
+    private static final List<String> FALLBACK_SONGS = Arrays.asList(
+        "Antipyretic", "Apoplexy", "Back to the Battle", "Bland Logo", "Decisive Battle",
+        "Desert Land", "Ovelia's Worry", "Pray, Believe", "Trisection", "Under the Stars");
+
+    @Autowired
+    private ChatSourceProperties sourceProperties;
+
+    @Autowired
+    private TwitchProperties twitchProperties;
+
+    @Autowired
+    private SongRepository songRepository;
+
+    @Autowired
+    private ChatLatencyTracker latencyTracker;
+
+    private volatile Thread sourceThread;
+    private volatile boolean running;
+    private final AtomicLong emittedCount = new AtomicLong();
+    private final AtomicLong trackPlayCount = new AtomicLong();
+
+    /**
+     * Start producing chat events on a background thread
+     */
+    public synchronized void start(Consumer<ChannelMessageEvent> sink) {
+        if (sourceThread != null) {
+            return;
+        }
+
+        running = true;
+        latencyTracker.reset();
+        sourceThread = new Thread(() -> {
+            try {
+                if (sourceProperties.getType() == ChatSourceProperties.Type.REPLAY) {
+                    replay(sink);
+                } else {
+                    generate(sink);
+                }
+                logger.info("Local chat source finished ({} messages, {} track plays): {}",
+                           emittedCount.get(), trackPlayCount.get(), latencyTracker.getReport());
+            } catch (Exception e) {
+                logger.error("Local chat source failed: {}", e.getMessage(), e);
+            } finally {
+                running = false;
+            }
+        }, "local-chat-source");
+        sourceThread.setDaemon(true);
+        sourceThread.start();
+        logger.info("Local chat source started (type: {})", sourceProperties.getType());
+    }
+
+    /**
+     * Replay a recorded chat log, preserving the recorded gaps divided by the speed factor
+     */
+    private void replay(Consumer<ChannelMessageEvent> sink) throws IOException {
+        double speed = sourceProperties.getSpeed();
+        do {
+            try (BufferedReader reader = Files.newBufferedReader(Paths.get(sourceProperties.getReplayFile()), StandardCharsets.UTF_8)) {
+                long firstRecorded = -1;
+                long startNanos = System.nanoTime();
+                String line;
+                while (running && (line = reader.readLine()) != null) {
+                    String[] record = ChatLogFormat.parse(line);
+                    if (record == null) {
+                        continue;
+                    }
+
+                    long recorded = Long.parseLong(record[0]);
+                    if (firstRecorded < 0) {
+                        firstRecorded = recorded;
+                    }
+                    if (speed > 0) {
+                        long offsetNanos = (long) (TimeUnit.MILLISECONDS.toNanos(recorded - firstRecorded) / speed);
+                        parkUntil(startNanos + offsetNanos);
+                    }
+                    emit(sink, record[1], record[2], record[3]);
+                }
+            }
+        } while (running && sourceProperties.isLoop());
+    }
+
+    /**
+     * Generate synthetic chat at a fixed rate across the configured channels
+     */
+    private void generate(Consumer<ChannelMessageEvent> sink) {
+        SplittableRandom random = new SplittableRandom(sourceProperties.getSeed());
+        List<String> channels = twitchProperties.getCleanChannelNames();
+        List<Song> songs = loadSongs();
+        int users = Math.max(sourceProperties.getUsers(), 1);
+        int trackPlayEvery = sourceProperties.getTrackPlayEvery();
+        long count = sourceProperties.getCount();
+        long intervalNanos = sourceProperties.getRate() > 0 ? TimeUnit.SECONDS.toNanos(1) / sourceProperties.getRate() : 0;
+        long startNanos = System.nanoTime();
+
+        for (long i = 0; running && (count <= 0 || i < count); i++) {
+            if (intervalNanos > 0) {
+                parkUntil(startNanos + i * intervalNanos);
+            }
+
+            String channel = channels.get((int) (i % channels.size()));
+            if (trackPlayEvery > 0 && i % trackPlayEvery == trackPlayEvery - 1) {
+                emit(sink, channel, sourceProperties.getTrackPlayUsername(), trackPlayAnnouncement(songs, random));
+                trackPlayCount.incrementAndGet();
+            } else {
+                emit(sink, channel, String.format("viewer%04d", random.nextInt(users)), chatLine(random));
+            }
+        }
+    }
+
+    private void emit(Consumer<ChannelMessageEvent> sink, String channel, String username, String message) {
+        sink.accept(ChatEventFactory.create(channel, username, message));
+        emittedCount.incrementAndGet();
+    }
+
+    private String trackPlayAnnouncement(List<Song> songs, SplittableRandom random) {
+        String title;
+        String duration;
+        if (songs.isEmpty()) {
+            title = FALLBACK_SONGS.get(random.nextInt(FALLBACK_SONGS.size()));
+            duration = String.format("%d:%02d", 1 + random.nextInt(4), random.nextInt(60));
+        } else {
+            Song song = songs.get(random.nextInt(songs.size()));
+            title = song.getTitle();
+            duration = song.getDuration() != null ? song.getDuration() : "0:00";
+        }
+        return sourceProperties.getTrackPlayTemplate()
+                .replace("{title}", title)
+                .replace("{duration}", duration);
+    }
+
+    private static String chatLine(SplittableRandom random) {
+        int words = 1 + random.nextInt(8);
+        StringBuilder line = new StringBuilder(words * 6);
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                line.append(' ');
+            }
+            line.append(WORDS.get(random.nextInt(WORDS.size())));
+        }
+        return line.toString();
+    }
+
+    /**
+     * Sample real song titles so announcements match the playlist, falling back to built-in titles
+     */
+    private List<Song> loadSongs() {
+        try {
+            return new ArrayList<>(songRepository.findAll(PageRequest.of(0, SONG_SAMPLE_SIZE)).getContent());
+        } catch (Exception e) {
+            logger.warn("Could not load songs for synthetic track plays, using built-in titles: {}", e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    private void parkUntil(long deadlineNanos) {
+        long remaining;
+        while (running && (remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    /**
+     * Get source counters
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("type", sourceProperties.getType());
+        stats.put("running", running);
+        stats.put("emitted", emittedCount.get());
+        stats.put("trackPlays", trackPlayCount.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread thread = sourceThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.twitchchat.topk;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Approximate heavy hitters over a sliding time window. The window is split into panes, each with
+ * its own Space-Saving summary, plus one summary for the whole window that every item also goes
+ * into. When the oldest pane expires it is dropped and the window summary is rebuilt from the
+ * remaining panes, so the window slides in pane-sized steps. An item a pane no longer tracks may
+ * still have had up to that pane's minimum count there, so the rebuild adds that minimum to both
+ * its count and its error, keeping count - error a lower bound. Memory is (panes + 1) * capacity
+ * counters regardless of how many items pass through. Thread-safe.
+ */
+public class SlidingTopK<T> {
+
+    private final Duration window;
+    private final long paneMillis;
+    private final int capacity;
+    private final List<SpaceSaving<T>> panes;
+    private final long[] paneOrdinals;
+    private SpaceSaving<T> windowSummary;
+    private long currentOrdinal = Long.MIN_VALUE;
+
+    public SlidingTopK(Duration window, int paneCount, int capacity) {
+        if (paneCount < 1) {
+            throw new IllegalArgumentException("paneCount must be positive");
+        }
+        this.window = window;
+        this.paneMillis = Math.max(window.toMillis() / paneCount, 1);
+        this.capacity = capacity;
+        this.panes = new ArrayList<>(Collections.nCopies(paneCount, null));
+        this.paneOrdinals = new long[paneCount];
+        this.windowSummary = new SpaceSaving<>(capacity);
+    }
+
+    /**
+     * Count one occurrence of an item at the given time; occurrences older than the window are ignored
+     */
+    public synchronized void offer(T item, long epochMillis) {
+        long ordinal = Math.floorDiv(epochMillis, paneMillis);
+        advance(Math.max(ordinal, currentOrdinal));
+        if (ordinal <= currentOrdinal - panes.size()) {
+            return;
+        }
+
+        int slot = (int) Math.floorMod(ordinal, (long) panes.size());
+        SpaceSaving<T> pane = panes.get(slot);
+        if (pane == null || paneOrdinals[slot] != ordinal) {
+            pane = new SpaceSaving<>(capacity);
+            panes.set(slot, pane);
+            paneOrdinals[slot] = ordinal;
+        }
+        pane.offer(item);
+        windowSummary.offer(item);
+    }
+
+    /**
+     * Get up to k items with the highest counts in the window ending now, highest first
+     */
+    public synchronized List<SpaceSaving.Entry<T>> top(int k, long nowMillis) {
+        advance(Math.floorDiv(nowMillis, paneMillis));
+        return windowSummary.top(k);
+    }
+
+    /**
+     * Number of items counted in the window as of the last offer or query
+     */
+    public synchronized long getTotal() {
+        return windowSummary.getTotal();
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    /**
+     * Move the window forward to end at the given pane, dropping expired panes
+     */
+    private void advance(long ordinal) {
+        if (ordinal <= currentOrdinal) {
+            return;
+        }
+        long previous = currentOrdinal;
+        currentOrdinal = ordinal;
+        if (previous == Long.MIN_VALUE) {
+            return;
+        }
+
+        boolean expired = false;
+        for (int slot = 0; slot < panes.size(); slot++) {
+            if (panes.get(slot) != null && paneOrdinals[slot] <= ordinal - panes.size()) {
+                panes.set(slot, null);
+                expired = true;
+            }
+        }
+        if (expired) {
+            rebuildWindowSummary();
+        }
+    }
+
+    private void rebuildWindowSummary() {
+        // Every item gets the sum of the pane minimums, the most it can have had in panes that do not
+        // track it; a pane that does track it swaps its minimum for the item's own count and error
+        long minimums = 0;
+        long total = 0;
+        for (SpaceSaving<T> pane : panes) {
+            if (pane != null) {
+                minimums += pane.getMinCount();
+                total += pane.getTotal();
+            }
+        }
+
+        Map<T, long[]> merged = new HashMap<>();
+        for (SpaceSaving<T> pane : panes) {
+            if (pane == null) {
+                continue;
+            }
+            long minCount = pane.getMinCount();
+            for (Map.Entry<T, long[]> entry : pane.snapshot().entrySet()) {
+                long[] sum = merged.computeIfAbsent(entry.getKey(), key -> new long[2]);
+                sum[0] += entry.getValue()[0] - minCount;
+                sum[1] += entry.getValue()[1] - minCount;
+            }
+        }
+        for (long[] sum : merged.values()) {
+            sum[0] += minimums;
+            sum[1] += minimums;
+        }
+        windowSummary = SpaceSaving.of(capacity, merged, total);
+    }
+}
@@ -0,0 +1,298 @@
+package com.twitchchat.topk;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy hitter summary (Metwally et al.) over a fixed number of counters, kept in a
+ * stream-summary: counters hang off a list of buckets ordered by count, so an increment is O(1)
+ * and the top K are read in O(K) from the highest bucket down. Any item whose true frequency is
+ * above n / capacity is guaranteed to be tracked; a reported count overestimates the true one by
+ * at most its error. Not thread-safe.
+ */
+public class SpaceSaving<T> {
+
+    private final int capacity;
+    private final Map<T, Counter<T>> counters;
+    private Bucket<T> lowest;
+    private Bucket<T> highest;
+    private long total;
+
+    public SpaceSaving(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 4 / 3 + 1);
+    }
+
+    /**
+     * Build a summary from exact or estimated counts, keeping the capacity largest
+     */
+    public static <T> SpaceSaving<T> of(int capacity, Map<T, long[]> countsAndErrors) {
+        long total = 0;
+        for (long[] countAndError : countsAndErrors.values()) {
+            total += countAndError[0];
+        }
+        return of(capacity, countsAndErrors, total);
+    }
+
+    /**
+     * Build a summary from estimated counts, keeping the capacity largest, over a known number of items
+     */
+    public static <T> SpaceSaving<T> of(int capacity, Map<T, long[]> countsAndErrors, long total) {
+        List<Map.Entry<T, long[]>> entries = new ArrayList<>(countsAndErrors.entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]));
+        SpaceSaving<T> summary = new SpaceSaving<>(capacity);
+
+        // Append from the highest count down so every counter lands at the low end of the list
+        for (int i = 0; i < entries.size() && i < capacity; i++) {
+            Map.Entry<T, long[]> entry = entries.get(i);
+            summary.appendLowest(entry.getKey(), entry.getValue()[0], entry.getValue()[1]);
+        }
+        summary.total = total;
+        return summary;
+    }
+
+    /**
+     * Count one occurrence of an item
+     */
+    public void offer(T item) {
+        total++;
+        Counter<T> counter = counters.get(item);
+        if (counter != null) {
+            increment(counter);
+            return;
+        }
+
+        if (counters.size() < capacity) {
+            counter = new Counter<>(item, 0);
+            counters.put(item, counter);
+            if (lowest != null && lowest.count == 1) {
+                lowest.attach(counter);
+            } else {
+                Bucket<T> bucket = new Bucket<>(1);
+                insertBefore(bucket, lowest);
+                bucket.attach(counter);
+            }
+            return;
+        }
+
+        // Take over a counter with the minimum count; its count becomes the new item's error bound
+        Counter<T> victim = lowest.head;
+        counters.remove(victim.item);
+        victim.item = item;
+        victim.error = lowest.count;
+        counters.put(item, victim);
+        increment(victim);
+    }
+
+    /**
+     * Get up to k items with the highest counts, highest first
+     */
+    public List<Entry<T>> top(int k) {
+        List<Entry<T>> result = new ArrayList<>(Math.min(Math.max(k, 0), counters.size()));
+        for (Bucket<T> bucket = highest; bucket != null && result.size() < k; bucket = bucket.lower) {
+            for (Counter<T> counter = bucket.head; counter != null && result.size() < k; counter = counter.next) {
+                result.add(new Entry<>(counter.item, bucket.count, counter.error));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Counts and error bounds of every tracked item, for merging summaries
+     */
+    public Map<T, long[]> snapshot() {
+        Map<T, long[]> snapshot = new HashMap<>(counters.size() * 4 / 3 + 1);
+        for (Counter<T> counter : counters.values()) {
+            snapshot.put(counter.item, new long[] {counter.bucket.count, counter.error});
+        }
+        return snapshot;
+    }
+
+    /**
+     * Number of items offered
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Most occurrences an untracked item can have had: the minimum count once every counter is in
+     * use, and 0 before that since nothing has been evicted yet
+     */
+    public long getMinCount() {
+        return counters.size() < capacity || lowest == null ? 0 : lowest.count;
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public boolean isEmpty() {
+        return counters.isEmpty();
+    }
+
+    private void increment(Counter<T> counter) {
+        Bucket<T> bucket = counter.bucket;
+        long count = bucket.count + 1;
+
+        if (bucket.head == counter && counter.next == null
+                && (bucket.higher == null || bucket.higher.count != count)) {
+            // Sole counter in its bucket and no bucket at the next count: bump in place
+            bucket.count = count;
+            return;
+        }
+
+        Bucket<T> target = bucket.higher;
+        if (target == null || target.count != count) {
+            target = new Bucket<>(count);
+            insertAfter(target, bucket);
+        }
+        bucket.detach(counter);
+        if (bucket.head == null) {
+            remove(bucket);
+        }
+        target.attach(counter);
+    }
+
+    private void appendLowest(T item, long count, long error) {
+        Counter<T> counter = new Counter<>(item, error);
+        counters.put(item, counter);
+        if (lowest != null && lowest.count == count) {
+            lowest.attach(counter);
+        } else {
+            Bucket<T> bucket = new Bucket<>(count);
+            insertBefore(bucket, lowest);
+            bucket.attach(counter);
+        }
+    }
+
+    private void insertBefore(Bucket<T> bucket, Bucket<T> successor) {
+        if (successor == null) {
+            lowest = bucket;
+            highest = bucket;
+            return;
+        }
+        bucket.higher = successor;
+        bucket.lower = successor.lower;
+        if (successor.lower != null) {
+            successor.lower.higher = bucket;
+        } else {
+            lowest = bucket;
+        }
+        successor.lower = bucket;
+    }
+
+    private void insertAfter(Bucket<T> bucket, Bucket<T> predecessor) {
+        bucket.lower = predecessor;
+        bucket.higher = predecessor.higher;
+        if (predecessor.higher != null) {
+            predecessor.higher.lower = bucket;
+        } else {
+            highest = bucket;
+        }
+        predecessor.higher = bucket;
+    }
+
+    private void remove(Bucket<T> bucket) {
+        if (bucket.lower != null) {
+            bucket.lower.higher = bucket.higher;
+        } else {
+            lowest = bucket.higher;
+        }
+        if (bucket.higher != null) {
+            bucket.higher.lower = bucket.lower;
+        } else {
+            highest = bucket.lower;
+        }
+    }
+
+    /**
+     * A tracked item with its estimated count and maximum overestimation
+     */
+    public static class Entry<T> {
+        private final T item;
+        private final long count;
+        private final long error;
+
+        public Entry(T item, long count, long error) {
+            this.item = item;
+            this.count = count;
+            this.error = error;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getError() {
+            return error;
+        }
+
+        /**
+         * Lower bound of the true count
+         */
+        public long getGuaranteedCount() {
+            return count - error;
+        }
+    }
+
+    private static class Bucket<T> {
+        private long count;
+        private Bucket<T> lower;
+        private Bucket<T> higher;
+        private Counter<T> head;
+
+        private Bucket(long count) {
+            this.count = count;
+        }
+
+        private void attach(Counter<T> counter) {
+            counter.bucket = this;
+            counter.prev = null;
+            counter.next = head;
+            if (head != null) {
+                head.prev = counter;
+            }
+            head = counter;
+        }
+
+        private void detach(Counter<T> counter) {
+            if (counter.prev != null) {
+                counter.prev.next = counter.next;
+            } else {
+                head = counter.next;
+            }
+            if (counter.next != null) {
+                counter.next.prev = counter.prev;
+            }
+            counter.prev = null;
+            counter.next = null;
+        }
+    }
+
+    private static class Counter<T> {
+        private T item;
+        private long error;
+        private Bucket<T> bucket;
+        private Counter<T> prev;
+        private Counter<T> next;
+
+        private Counter(T item, long error) {
+            this.item = item;
+            this.error = error;
+        }
+    }
+}
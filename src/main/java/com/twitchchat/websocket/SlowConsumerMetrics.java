@@ -0,0 +1,66 @@
+package com.twitchchat.websocket;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters for frames dropped and sessions evicted by slow consumer protection, per topic
+ */
+@Component
+public class SlowConsumerMetrics {
+    private static final String UNKNOWN_TOPIC = "(none)";
+
+    private final ConcurrentMap<String, AtomicLong> droppedFrames = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLong> evictedSessions = new ConcurrentHashMap<>();
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final AtomicLong totalDroppedFrames = new AtomicLong();
+    private final AtomicLong totalEvictedSessions = new AtomicLong();
+
+    void sessionOpened() {
+        activeSessions.incrementAndGet();
+    }
+
+    void sessionClosed() {
+        activeSessions.decrementAndGet();
+    }
+
+    void frameDropped(String topic) {
+        totalDroppedFrames.incrementAndGet();
+        counter(droppedFrames, topic).incrementAndGet();
+    }
+
+    void sessionEvicted(String topic) {
+        totalEvictedSessions.incrementAndGet();
+        counter(evictedSessions, topic).incrementAndGet();
+    }
+
+    /**
+     * Get dropped frame and evicted session counts, in total and per topic
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("activeSessions", activeSessions.get());
+        stats.put("droppedFrames", totalDroppedFrames.get());
+        stats.put("evictedSessions", totalEvictedSessions.get());
+        stats.put("droppedFramesByTopic", snapshot(droppedFrames));
+        stats.put("evictedSessionsByTopic", snapshot(evictedSessions));
+        return stats;
+    }
+
+    private static AtomicLong counter(ConcurrentMap<String, AtomicLong> counters, String topic) {
+        return counters.computeIfAbsent(topic != null ? topic : UNKNOWN_TOPIC, key -> new AtomicLong());
+    }
+
+    private static Map<String, Long> snapshot(ConcurrentMap<String, AtomicLong> counters) {
+        Map<String, Long> snapshot = new TreeMap<>();
+        counters.forEach((topic, count) -> snapshot.put(topic, count.get()));
+        return snapshot;
+    }
+}
@@ -0,0 +1,238 @@
+package com.twitchchat.websocket;
+
+import com.twitchchat.config.WebSocketTransportProperties.SlowSessionPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe session wrapper that applies a slow consumer policy once a client falls behind.
+ * Like Spring's ConcurrentWebSocketSessionDecorator only one thread writes to the underlying
+ * session at a time and the others queue their frames, but an overflowing queue is handled per
+ * the configured policy and every dropped frame or evicted session is counted against its topic.
+ * A send that blocks for longer than the send time limit always closes the session.
+ */
+public class SlowConsumerSessionDecorator extends WebSocketSessionDecorator {
+    private static final Logger logger = LoggerFactory.getLogger(SlowConsumerSessionDecorator.class);
+    private static final String MESSAGE_COMMAND = "MESSAGE\n";
+    private static final String DESTINATION_HEADER = "\ndestination:";
+
+    private final int sendTimeLimit;
+    private final int bufferSizeLimit;
+    private final SlowSessionPolicy policy;
+    private final int downsampleRate;
+    private final SlowConsumerMetrics metrics;
+
+    private final Queue<WebSocketMessage<?>> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger bufferSize = new AtomicInteger();
+    private final Lock flushLock = new ReentrantLock();
+    private final Lock closeLock = new ReentrantLock();
+    private final AtomicLong downsampleCounter = new AtomicLong();
+
+    private volatile long sendStartTime;
+    private volatile boolean limitExceeded;
+    private volatile boolean closeInProgress;
+
+    public SlowConsumerSessionDecorator(WebSocketSession delegate, int sendTimeLimit, int bufferSizeLimit,
+                                        SlowSessionPolicy policy, int downsampleRate, SlowConsumerMetrics metrics) {
+        super(delegate);
+        this.sendTimeLimit = sendTimeLimit;
+        this.bufferSizeLimit = bufferSizeLimit;
+        this.policy = policy;
+        this.downsampleRate = Math.max(downsampleRate, 1);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        if (shouldNotSend()) {
+            return;
+        }
+
+        if (!admit(message)) {
+            return;
+        }
+
+        buffer.add(message);
+        bufferSize.addAndGet(message.getPayloadLength());
+        if (bufferSize.get() > overflowLimit()) {
+            handleOverflow(message);
+        }
+
+        do {
+            if (!tryFlushMessageBuffer()) {
+                checkSendTimeLimit(message);
+                break;
+            }
+        } while (!buffer.isEmpty() && !shouldNotSend());
+    }
+
+    /**
+     * Number of bytes queued for this session
+     */
+    public int getBufferSize() {
+        return bufferSize.get();
+    }
+
+    /**
+     * Milliseconds the current send has been in progress, or 0 if no send is in progress
+     */
+    public long getTimeSinceSendStarted() {
+        long start = sendStartTime;
+        return start > 0 ? System.currentTimeMillis() - start : 0;
+    }
+
+    @Override
+    public void close(CloseStatus status) throws IOException {
+        closeLock.lock();
+        try {
+            if (closeInProgress) {
+                return;
+            }
+            if (!CloseStatus.SESSION_NOT_RELIABLE.equals(status)) {
+                try {
+                    checkSendTimeLimit(null);
+                } catch (SessionLimitExceededException ex) {
+                    // Ignore, a send in progress is stuck
+                }
+                if (limitExceeded) {
+                    status = CloseStatus.SESSION_NOT_RELIABLE;
+                }
+            }
+            closeInProgress = true;
+            super.close(status);
+        } finally {
+            closeLock.unlock();
+        }
+    }
+
+    /**
+     * While backlogged in DOWNSAMPLE mode, only every Nth chat frame is queued
+     */
+    private boolean admit(WebSocketMessage<?> message) {
+        if (policy != SlowSessionPolicy.DOWNSAMPLE || bufferSize.get() <= bufferSizeLimit || !isMessageFrame(message)) {
+            return true;
+        }
+        if (downsampleCounter.getAndIncrement() % downsampleRate == 0) {
+            return true;
+        }
+        metrics.frameDropped(destinationOf(message));
+        return false;
+    }
+
+    private int overflowLimit() {
+        // Downsampling already thins the stream at the limit, so it only starts dropping at twice the limit
+        return policy == SlowSessionPolicy.DOWNSAMPLE ? bufferSizeLimit * 2 : bufferSizeLimit;
+    }
+
+    /**
+     * Drop the oldest queued STOMP MESSAGE frames until the buffer is back under the limit. Other
+     * frames (RECEIPT, ERROR, heartbeats) are never dropped, as losing them breaks the protocol, so
+     * a backlog that is still over the limit once no MESSAGE frame is left closes the session.
+     */
+    private void handleOverflow(WebSocketMessage<?> message) throws SessionLimitExceededException {
+        if (policy == SlowSessionPolicy.DROP_SESSION) {
+            evict(message, String.format("Send buffer size %d bytes for session '%s' exceeded the allowed limit %d",
+                    bufferSize.get(), getId(), bufferSizeLimit));
+        }
+
+        int limit = overflowLimit();
+        for (WebSocketMessage<?> queued : buffer) {
+            if (bufferSize.get() <= limit) {
+                return;
+            }
+            // remove only succeeds for one thread, so a frame taken by a concurrent flush is not counted twice
+            if (isMessageFrame(queued) && buffer.remove(queued)) {
+                bufferSize.addAndGet(-queued.getPayloadLength());
+                metrics.frameDropped(destinationOf(queued));
+            }
+        }
+        if (bufferSize.get() > limit) {
+            evict(message, String.format("Send buffer size %d bytes for session '%s' exceeded the allowed limit %d " +
+                    "with no MESSAGE frames left to drop", bufferSize.get(), getId(), limit));
+        }
+    }
+
+    private boolean tryFlushMessageBuffer() throws IOException {
+        if (flushLock.tryLock()) {
+            try {
+                while (true) {
+                    WebSocketMessage<?> message = buffer.poll();
+                    if (message == null || shouldNotSend()) {
+                        break;
+                    }
+                    bufferSize.addAndGet(-message.getPayloadLength());
+                    sendStartTime = System.currentTimeMillis();
+                    getDelegate().sendMessage(message);
+                    sendStartTime = 0;
+                }
+            } finally {
+                sendStartTime = 0;
+                flushLock.unlock();
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private void checkSendTimeLimit(WebSocketMessage<?> message) throws SessionLimitExceededException {
+        if (getTimeSinceSendStarted() > sendTimeLimit && closeLock.tryLock()) {
+            try {
+                if (!shouldNotSend() && getTimeSinceSendStarted() > sendTimeLimit) {
+                    evict(message, String.format("Send time %d (ms) for session '%s' exceeded the allowed limit %d",
+                            getTimeSinceSendStarted(), getId(), sendTimeLimit));
+                }
+            } finally {
+                closeLock.unlock();
+            }
+        }
+    }
+
+    private void evict(WebSocketMessage<?> message, String reason) throws SessionLimitExceededException {
+        limitExceeded = true;
+        buffer.clear();
+        bufferSize.set(0);
+        metrics.sessionEvicted(message != null ? destinationOf(message) : null);
+        logger.info("Evicting slow WebSocket session {}: {}", getId(), reason);
+        throw new SessionLimitExceededException(reason, CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    private boolean shouldNotSend() {
+        return limitExceeded || closeInProgress;
+    }
+
+    private static boolean isMessageFrame(WebSocketMessage<?> message) {
+        return message instanceof TextMessage && ((TextMessage) message).getPayload().startsWith(MESSAGE_COMMAND);
+    }
+
+    /**
+     * Destination header of a STOMP MESSAGE frame, or null for other frames
+     */
+    static String destinationOf(WebSocketMessage<?> message) {
+        if (!isMessageFrame(message)) {
+            return null;
+        }
+        String payload = ((TextMessage) message).getPayload();
+        int headerEnd = payload.indexOf("\n\n");
+        int start = payload.indexOf(DESTINATION_HEADER);
+        if (start < 0 || (headerEnd >= 0 && start > headerEnd)) {
+            return null;
+        }
+        start += DESTINATION_HEADER.length();
+        int end = payload.indexOf('\n', start);
+        return end < 0 ? payload.substring(start) : payload.substring(start, end);
+    }
+}
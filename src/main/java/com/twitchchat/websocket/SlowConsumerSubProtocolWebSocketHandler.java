@@ -0,0 +1,46 @@
+package com.twitchchat.websocket;
+
+import com.twitchchat.config.WebSocketTransportProperties;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+/**
+ * STOMP sub-protocol handler that wraps each session in a SlowConsumerSessionDecorator instead
+ * of Spring's default decorator. Send time and buffer limits come from the WebSocket transport
+ * registration, the policy from WebSocketTransportProperties.
+ */
+public class SlowConsumerSubProtocolWebSocketHandler extends SubProtocolWebSocketHandler {
+
+    private final WebSocketTransportProperties transportProperties;
+    private final SlowConsumerMetrics metrics;
+
+    public SlowConsumerSubProtocolWebSocketHandler(MessageChannel clientInboundChannel,
+                                                   SubscribableChannel clientOutboundChannel,
+                                                   WebSocketTransportProperties transportProperties,
+                                                   SlowConsumerMetrics metrics) {
+        super(clientInboundChannel, clientOutboundChannel);
+        this.transportProperties = transportProperties;
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected WebSocketSession decorateSession(WebSocketSession session) {
+        return new SlowConsumerSessionDecorator(session, getSendTimeLimit(), getSendBufferSizeLimit(),
+                transportProperties.getSlowSessionPolicy(), transportProperties.getDownsampleRate(), metrics);
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        metrics.sessionOpened();
+        super.afterConnectionEstablished(session);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+        metrics.sessionClosed();
+        super.afterConnectionClosed(session, closeStatus);
+    }
+}
@@ -0,0 +1,76 @@
+package com.twitchchat;
+
+import com.twitchchat.config.RecentChatProperties;
+import com.twitchchat.model.ChatMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecentChatBufferTest {
+
+    @Test
+    void roundsCapacityUpToAPowerOfTwo() {
+        assertThat(buffer(5).getCapacity()).isEqualTo(8);
+        assertThat(buffer(8).getCapacity()).isEqualTo(8);
+        assertThat(buffer(0).getCapacity()).isEqualTo(2);
+    }
+
+    @Test
+    void returnsTheMostRecentMessagesOldestFirst() {
+        RecentChatBuffer buffer = buffer(8);
+        for (int i = 0; i < 5; i++) {
+            buffer.add(message(i, "alpha"));
+        }
+
+        assertThat(texts(buffer.getRecent(3))).containsExactly("m2", "m3", "m4");
+        assertThat(texts(buffer.getRecent(100))).containsExactly("m0", "m1", "m2", "m3", "m4");
+        assertThat(buffer.getRecent(0)).isEmpty();
+        assertThat(buffer.getRecent(-1)).isEmpty();
+    }
+
+    @Test
+    void overwritesTheOldestMessagesWhenFull() {
+        RecentChatBuffer buffer = buffer(4);
+        for (int i = 0; i < 10; i++) {
+            buffer.add(message(i, "alpha"));
+        }
+
+        assertThat(texts(buffer.getRecent(10))).containsExactly("m6", "m7", "m8", "m9");
+        assertThat(buffer.getTotalRecorded()).isEqualTo(10);
+    }
+
+    @Test
+    void filtersByChannelIgnoringCase() {
+        RecentChatBuffer buffer = buffer(8);
+        buffer.add(message(0, "alpha"));
+        buffer.add(message(1, "beta"));
+        buffer.add(message(2, "alpha"));
+        buffer.add(message(3, "beta"));
+
+        assertThat(texts(buffer.getRecent(10, "ALPHA"))).containsExactly("m0", "m2");
+        assertThat(texts(buffer.getRecent(1, "beta"))).containsExactly("m3");
+        assertThat(buffer.getRecent(10, "gamma")).isEmpty();
+    }
+
+    @Test
+    void emptyBufferReturnsNothing() {
+        assertThat(buffer(4).getRecent(10)).isEmpty();
+    }
+
+    private static RecentChatBuffer buffer(int capacity) {
+        RecentChatProperties properties = new RecentChatProperties();
+        properties.setCapacity(capacity);
+        return new RecentChatBuffer(properties);
+    }
+
+    private static ChatMessage message(int i, String channel) {
+        return new ChatMessage("viewer" + i, "m" + i, channel);
+    }
+
+    private static List<String> texts(List<ChatMessage> messages) {
+        return messages.stream().map(ChatMessage::getMessage).collect(Collectors.toList());
+    }
+}
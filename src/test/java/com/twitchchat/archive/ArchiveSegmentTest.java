@@ -0,0 +1,135 @@
+package com.twitchchat.archive;
+
+import com.twitchchat.model.ChatMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ArchiveSegmentTest {
+
+    private Path directory;
+
+    @BeforeEach
+    void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("archive-segment-test");
+    }
+
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Test
+    void readsBackRecordsInTheRequestedRange() throws IOException {
+        ArchiveSegment segment = ArchiveSegment.create(1, directory.resolve("1.seg"), 64 * 1024, 4);
+        for (int i = 0; i < 100; i++) {
+            append(segment, 1000 + i * 10, "viewer" + i, "channel", "message " + i);
+        }
+
+        List<ChatMessage> results = new ArrayList<>();
+        assertThat(segment.read(1205, 1300, 1000, results)).isFalse();
+        assertThat(results).extracting(ChatMessage::getMessage)
+                .containsExactly("message 21", "message 22", "message 23", "message 24", "message 25",
+                                 "message 26", "message 27", "message 28", "message 29", "message 30");
+        assertThat(results.get(0).getEpochMillis()).isEqualTo(1210);
+        assertThat(results.get(0).getUsername()).isEqualTo("viewer21");
+        assertThat(results.get(0).getChannel()).isEqualTo("channel");
+
+        assertThat(segment.getFirstTimestamp()).isEqualTo(1000);
+        assertThat(segment.getLastTimestamp()).isEqualTo(1990);
+    }
+
+    @Test
+    void readStopsAtTheLimitAndReportsWhenNewerRecordsMayFollow() throws IOException {
+        ArchiveSegment segment = ArchiveSegment.create(1, directory.resolve("1.seg"), 64 * 1024, 4);
+        for (int i = 0; i < 10; i++) {
+            append(segment, 1000 + i, "viewer", "channel", "message " + i);
+        }
+
+        List<ChatMessage> limited = new ArrayList<>();
+        segment.read(0, Long.MAX_VALUE, 3, limited);
+        assertThat(limited).extracting(ChatMessage::getMessage).containsExactly("message 0", "message 1", "message 2");
+
+        List<ChatMessage> all = new ArrayList<>();
+        assertThat(segment.read(0, Long.MAX_VALUE, 100, all)).isTrue();
+        assertThat(all).hasSize(10);
+    }
+
+    @Test
+    void roundTripsUtf8Text() throws IOException {
+        ArchiveSegment segment = ArchiveSegment.create(1, directory.resolve("1.seg"), 4096, 1);
+        append(segment, 1000, "zuschauer", "kanal", "Grüße 👋 チャット");
+
+        List<ChatMessage> results = new ArrayList<>();
+        segment.read(0, Long.MAX_VALUE, 10, results);
+        assertThat(results.get(0).getMessage()).isEqualTo("Grüße 👋 チャット");
+    }
+
+    @Test
+    void rejectsRecordsThatDoNotFit() throws IOException {
+        ArchiveSegment segment = ArchiveSegment.create(1, directory.resolve("1.seg"), 256, 1);
+        assertThat(segment.isEmpty()).isTrue();
+        int appended = 0;
+        while (append(segment, 1000 + appended, "viewer", "channel", "a message of about forty bytes")) {
+            appended++;
+        }
+
+        assertThat(appended).isGreaterThan(0);
+        assertThat(segment.getWritePosition()).isLessThanOrEqualTo(256 - 4);
+        List<ChatMessage> results = new ArrayList<>();
+        segment.read(0, Long.MAX_VALUE, 100, results);
+        assertThat(results).hasSize(appended);
+    }
+
+    @Test
+    void reopenRecoversRecordsAndKeepsAppending() throws IOException {
+        Path path = directory.resolve("1.seg");
+        ArchiveSegment segment = ArchiveSegment.create(1, path, 64 * 1024, 4);
+        for (int i = 0; i < 50; i++) {
+            append(segment, 1000 + i, "viewer", "channel", "message " + i);
+        }
+        int writePosition = segment.getWritePosition();
+        segment.force();
+
+        ArchiveSegment reopened = ArchiveSegment.open(1, path, 4);
+        assertThat(reopened.getWritePosition()).isEqualTo(writePosition);
+        assertThat(reopened.getFirstTimestamp()).isEqualTo(1000);
+        assertThat(reopened.getLastTimestamp()).isEqualTo(1049);
+
+        append(reopened, 1050, "viewer", "channel", "message 50");
+        List<ChatMessage> results = new ArrayList<>();
+        reopened.read(1045, Long.MAX_VALUE, 100, results);
+        assertThat(results).extracting(ChatMessage::getMessage)
+                .containsExactly("message 45", "message 46", "message 47", "message 48", "message 49", "message 50");
+    }
+
+    @Test
+    void openRejectsFilesThatAreNotSegments() throws IOException {
+        Path path = directory.resolve("other.seg");
+        Files.write(path, new byte[64]);
+
+        assertThatThrownBy(() -> ArchiveSegment.open(1, path, 4)).isInstanceOf(IOException.class);
+    }
+
+    private static boolean append(ArchiveSegment segment, long timestamp, String username, String channel, String message) {
+        return segment.append(timestamp, username.getBytes(StandardCharsets.UTF_8),
+                channel.getBytes(StandardCharsets.UTF_8), message.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,220 @@
+package com.twitchchat.execution;
+
+import com.twitchchat.config.ExecutionProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Floods an executor with tasks that block on a latch, standing in for a stalled database, and
+ * checks the pool and queue stay bounded and each rejection policy applies to the overflow
+ */
+class ManagedExecutorTest {
+    private static final int CORE_POOL_SIZE = 2;
+    private static final int MAX_POOL_SIZE = 4;
+    private static final int QUEUE_CAPACITY = 10;
+    private static final int CAPACITY = MAX_POOL_SIZE + QUEUE_CAPACITY;
+    private static final int SUBMISSIONS = 200;
+    private static final int PRODUCERS = 8;
+
+    private final CountDownLatch slowDatabase = new CountDownLatch(1);
+    private final AtomicInteger ran = new AtomicInteger();
+    private final List<ManagedExecutor> executors = new ArrayList<>();
+
+    @AfterEach
+    void release() {
+        slowDatabase.countDown();
+        for (ManagedExecutor executor : executors) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void abortThrowsForEveryTaskBeyondPoolAndQueue() throws Exception {
+        ManagedExecutor executor = executor(ExecutionProperties.Mode.PLATFORM, ExecutionProperties.RejectionPolicy.ABORT);
+
+        int thrown = flood(executor);
+
+        Map<String, Object> stats = executor.getStats();
+        assertBounded(stats);
+        assertThat(thrown).isEqualTo(SUBMISSIONS - CAPACITY);
+        assertThat(stats.get("rejected")).isEqualTo((long) (SUBMISSIONS - CAPACITY));
+        assertThat(stats.get("poolSize")).isEqualTo(MAX_POOL_SIZE);
+        assertThat(stats.get("queueRemainingCapacity")).isEqualTo(0);
+
+        slowDatabase.countDown();
+        awaitCompleted(executor, CAPACITY);
+        assertThat(ran.get()).isEqualTo(CAPACITY);
+    }
+
+    @Test
+    void spillRethrowsSoTheCallerCanSpill() throws Exception {
+        ManagedExecutor executor = executor(ExecutionProperties.Mode.PLATFORM, ExecutionProperties.RejectionPolicy.SPILL);
+
+        assertThat(flood(executor)).isEqualTo(SUBMISSIONS - CAPACITY);
+        assertBounded(executor.getStats());
+    }
+
+    @Test
+    void discardDropsOverflowSilently() throws Exception {
+        ManagedExecutor executor = executor(ExecutionProperties.Mode.PLATFORM, ExecutionProperties.RejectionPolicy.DISCARD);
+
+        assertThat(flood(executor)).isZero();
+
+        Map<String, Object> stats = executor.getStats();
+        assertBounded(stats);
+        assertThat(stats.get("discarded")).isEqualTo((long) (SUBMISSIONS - CAPACITY));
+
+        slowDatabase.countDown();
+        awaitCompleted(executor, CAPACITY);
+        assertThat(ran.get()).isEqualTo(CAPACITY);
+    }
+
+    @Test
+    void callerRunsRunsOverflowOnTheSubmittingThread() throws Exception {
+        ManagedExecutor executor = executor(ExecutionProperties.Mode.PLATFORM, ExecutionProperties.RejectionPolicy.CALLER_RUNS);
+        for (int i = 0; i < CAPACITY; i++) {
+            executor.execute(this::slowTask);
+        }
+        assertBounded(executor.getStats());
+
+        // The overflow task blocks its submitter, which is what throttles the producer
+        AtomicReference<String> ranOn = new AtomicReference<>();
+        Thread producer = new Thread(() -> executor.execute(() -> {
+            ranOn.set(Thread.currentThread().getName());
+            slowTask();
+        }), "producer");
+        producer.start();
+        producer.join(200);
+        assertThat(producer.isAlive()).isTrue();
+        assertThat(executor.getStats().get("callerRuns")).isEqualTo(1L);
+
+        slowDatabase.countDown();
+        producer.join(5000);
+        assertThat(ranOn.get()).isEqualTo("producer");
+        awaitCompleted(executor, CAPACITY + 1);
+        // The pool never grew; only the producer ran a task beyond it
+        assertThat(executor.getStats().get("largestPoolSize")).isEqualTo(MAX_POOL_SIZE);
+        assertThat((int) executor.getStats().get("peakActiveTasks")).isLessThanOrEqualTo(MAX_POOL_SIZE + 1);
+    }
+
+    @Test
+    void virtualModeCapsUnfinishedTasksAtTheSameCapacity() throws Exception {
+        // Falls back to platform threads before Java 21; the cap is the same either way
+        ManagedExecutor executor = executor(ExecutionProperties.Mode.VIRTUAL, ExecutionProperties.RejectionPolicy.ABORT);
+
+        assertThat(flood(executor)).isEqualTo(SUBMISSIONS - CAPACITY);
+        assertThat((int) executor.getStats().get("activeTasks") + (int) executor.getStats().get("queuedTasks"))
+                .isEqualTo(CAPACITY);
+
+        slowDatabase.countDown();
+        awaitCompleted(executor, CAPACITY);
+    }
+
+    @Test
+    void shutDownExecutorAlwaysThrows() {
+        ManagedExecutor executor = executor(ExecutionProperties.Mode.PLATFORM, ExecutionProperties.RejectionPolicy.DISCARD);
+        executor.shutdown();
+
+        assertThatThrownBy(() -> executor.execute(ran::incrementAndGet)).isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    void failedTasksAreCounted() throws Exception {
+        ManagedExecutor executor = executor(ExecutionProperties.Mode.PLATFORM, ExecutionProperties.RejectionPolicy.ABORT);
+        executor.execute(() -> {
+            throw new IllegalStateException("query failed");
+        });
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((long) executor.getStats().get("failed") == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(executor.getStats().get("failed")).isEqualTo(1L);
+    }
+
+    /**
+     * Submit SUBMISSIONS slow tasks from PRODUCERS threads at once
+     * @return number of submissions that threw RejectedExecutionException
+     */
+    private int flood(ManagedExecutor executor) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger thrown = new AtomicInteger();
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < PRODUCERS; p++) {
+            Thread producer = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < SUBMISSIONS / PRODUCERS; i++) {
+                    try {
+                        executor.execute(this::slowTask);
+                    } catch (RejectedExecutionException e) {
+                        thrown.incrementAndGet();
+                    }
+                }
+            });
+            producer.start();
+            producers.add(producer);
+        }
+        start.countDown();
+        for (Thread producer : producers) {
+            producer.join(10_000);
+        }
+        return thrown.get();
+    }
+
+    private void slowTask() {
+        try {
+            slowDatabase.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ran.incrementAndGet();
+    }
+
+    private static void assertBounded(Map<String, Object> stats) {
+        assertThat((int) stats.get("activeTasks")).isLessThanOrEqualTo(MAX_POOL_SIZE);
+        assertThat((int) stats.get("peakActiveTasks")).isLessThanOrEqualTo(MAX_POOL_SIZE);
+        // queuedTasks also counts tasks handed to a new thread that has not started them yet
+        assertThat((int) stats.get("activeTasks") + (int) stats.get("queuedTasks")).isLessThanOrEqualTo(CAPACITY);
+        if (stats.containsKey("poolSize")) {
+            assertThat((int) stats.get("poolSize")).isLessThanOrEqualTo(MAX_POOL_SIZE);
+            assertThat((int) stats.get("largestPoolSize")).isLessThanOrEqualTo(MAX_POOL_SIZE);
+            assertThat(QUEUE_CAPACITY - (int) stats.get("queueRemainingCapacity")).isBetween(0, QUEUE_CAPACITY);
+        }
+    }
+
+    private static void awaitCompleted(ManagedExecutor executor, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while ((long) executor.getStats().get("completed") < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(executor.getStats().get("completed")).isEqualTo(expected);
+    }
+
+    private ManagedExecutor executor(ExecutionProperties.Mode mode, ExecutionProperties.RejectionPolicy policy) {
+        ExecutionProperties properties = new ExecutionProperties();
+        properties.setMode(mode);
+        properties.setCorePoolSize(CORE_POOL_SIZE);
+        properties.setMaxPoolSize(MAX_POOL_SIZE);
+        properties.setQueueCapacity(QUEUE_CAPACITY);
+        properties.setShutdownTimeoutMs(1000);
+        ManagedExecutor executor = ManagedExecutor.create("test-" + policy.name().toLowerCase(), properties, policy);
+        executors.add(executor);
+        return executor;
+    }
+}
@@ -0,0 +1,58 @@
+package com.twitchchat.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IsoTimestampFormatterTest {
+
+    @Test
+    void formatsUtcInstantWithMillis() {
+        assertThat(IsoTimestampFormatter.format(0L)).isEqualTo("1970-01-01T00:00:00.000Z");
+        assertThat(IsoTimestampFormatter.format(1752928496789L)).isEqualTo("2025-07-19T12:34:56.789Z");
+    }
+
+    @Test
+    void padsMillisToThreeDigits() {
+        assertThat(IsoTimestampFormatter.format(1752928496005L)).endsWith(":56.005Z");
+        assertThat(IsoTimestampFormatter.format(1752928496050L)).endsWith(":56.050Z");
+    }
+
+    @Test
+    void formatsTimesBeforeTheEpoch() {
+        assertThat(IsoTimestampFormatter.format(-1L)).isEqualTo("1969-12-31T23:59:59.999Z");
+    }
+
+    @Test
+    void cachedPrefixFollowsTheSecond() {
+        // Same second twice, then the next one, then back to an earlier one
+        assertThat(IsoTimestampFormatter.format(1752928496001L)).isEqualTo("2025-07-19T12:34:56.001Z");
+        assertThat(IsoTimestampFormatter.format(1752928496999L)).isEqualTo("2025-07-19T12:34:56.999Z");
+        assertThat(IsoTimestampFormatter.format(1752928497000L)).isEqualTo("2025-07-19T12:34:57.000Z");
+        assertThat(IsoTimestampFormatter.format(1752928496500L)).isEqualTo("2025-07-19T12:34:56.500Z");
+    }
+
+    @Test
+    void matchesTheJdkFormatter() {
+        DateTimeFormatter expected = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+                .withZone(ZoneOffset.UTC);
+        Random random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            long millis = 1_500_000_000_000L + (long) (random.nextDouble() * 500_000_000_000L);
+            assertThat(IsoTimestampFormatter.format(millis)).isEqualTo(expected.format(Instant.ofEpochMilli(millis)));
+        }
+    }
+
+    @Test
+    void chatMessageFormatsItsTimestampLazilyAndOnce() {
+        ChatMessage chatMessage = new ChatMessage("viewer", "hi", "channel", 1752928496789L);
+        String timestamp = chatMessage.getTimestamp();
+        assertThat(timestamp).isEqualTo("2025-07-19T12:34:56.789Z");
+        assertThat(chatMessage.getTimestamp()).isSameAs(timestamp);
+    }
+}
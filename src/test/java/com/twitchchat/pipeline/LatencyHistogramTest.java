@@ -0,0 +1,102 @@
+package com.twitchchat.pipeline;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyHistogramTest {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    void emptyHistogramReportsZeroes() {
+        assertThat(histogram.getPercentile(99)).isZero();
+        Map<String, Object> summary = histogram.getSummary();
+        assertThat(summary).containsEntry("count", 0L).containsEntry("meanMicros", 0L).containsEntry("maxMicros", 0L);
+    }
+
+    @Test
+    void smallValuesAreExact() {
+        for (int i = 1; i <= 20; i++) {
+            histogram.record(i);
+        }
+
+        assertThat(histogram.getPercentile(50)).isEqualTo(10);
+        assertThat(histogram.getPercentile(100)).isEqualTo(20);
+        assertThat(histogram.getPercentile(0)).isEqualTo(1);
+        assertThat(histogram.getSummary()).containsEntry("meanMicros", 10L).containsEntry("maxMicros", 20L);
+    }
+
+    @Test
+    void percentilesAreWithinThreePercentOfExact() {
+        Random random = new Random(11);
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            // Log-uniform from 1 us to about 10 s
+            values[i] = (long) Math.exp(random.nextDouble() * Math.log(10_000_000));
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double percentile : new double[] {50, 90, 99, 99.9}) {
+            long exact = values[(int) Math.ceil(values.length * percentile / 100.0) - 1];
+            assertThat((double) histogram.getPercentile(percentile)).isCloseTo(exact, within(exact * 0.032 + 1));
+        }
+        assertThat(histogram.getSummary()).containsEntry("maxMicros", values[values.length - 1]);
+    }
+
+    @Test
+    void percentileNeverExceedsTheMaximum() {
+        // 32 starts the bucket [32, 34), whose midpoint is 33
+        histogram.record(32);
+        assertThat(histogram.getPercentile(50)).isEqualTo(32);
+    }
+
+    @Test
+    void negativeValuesAreRecordedAsZero() {
+        histogram.record(-5);
+        assertThat(histogram.getCount()).isEqualTo(1);
+        assertThat(histogram.getPercentile(100)).isZero();
+    }
+
+    @Test
+    void handlesTheLargestValues() {
+        long value = Long.MAX_VALUE / 2;
+        histogram.record(value);
+        assertThat((double) histogram.getPercentile(50)).isCloseTo(value, within(value * 0.032));
+        assertThat(histogram.getSummary()).containsEntry("maxMicros", value);
+    }
+
+    @Test
+    void resetClearsEverything() {
+        histogram.record(100);
+        histogram.reset();
+        assertThat(histogram.getCount()).isZero();
+        assertThat(histogram.getPercentile(50)).isZero();
+        assertThat(histogram.getSummary()).containsEntry("maxMicros", 0L);
+    }
+
+    @Test
+    void concurrentRecordsAreAllCounted() throws InterruptedException {
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    histogram.record(i % 1000);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(histogram.getCount()).isEqualTo(400_000);
+        assertThat(histogram.getSummary()).containsEntry("maxMicros", 999L);
+    }
+}
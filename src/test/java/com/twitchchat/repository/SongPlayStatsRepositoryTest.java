@@ -0,0 +1,100 @@
+package com.twitchchat.repository;
+
+import com.twitchchat.dto.SongPlayStatsRow;
+import com.twitchchat.model.Song;
+import com.twitchchat.model.SongPlayStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pages sorted by play totals put played songs in stats order and songs without plays where a
+ * count of 0 or a missing play time sorts, across page boundaries. Runs against the PostgreSQL
+ * database in DATABASE_URL; the rows it adds are rolled back.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@EnabledIfEnvironmentVariable(named = "DATABASE_URL", matches = ".+")
+class SongPlayStatsRepositoryTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 7, 19, 20, 0);
+
+    @Autowired
+    private SongRepository songRepository;
+
+    @Autowired
+    private SongPlayStatsRepository songPlayStatsRepository;
+
+    private String prefix;
+
+    @BeforeEach
+    void createSongs() {
+        prefix = "Play Stats Paging Test " + System.nanoTime();
+        createSong("A", 5L, NOW.minusHours(3));
+        createSong("B", 2L, NOW.minusHours(1));
+        createSong("C", 2L, NOW.minusHours(5));
+        createSong("D", null, null);
+        createSong("E", null, null);
+        songPlayStatsRepository.flush();
+    }
+
+    @Test
+    void mostPlayedPagesEndWithUnplayedSongs() {
+        assertThat(pages("playCount", true)).containsExactly("A", "B", "C", "D", "E");
+    }
+
+    @Test
+    void leastPlayedPagesStartWithUnplayedSongs() {
+        assertThat(pages("playCount", false)).containsExactly("D", "E", "B", "C", "A");
+    }
+
+    @Test
+    void lastPlayedPagesKeepUnplayedSongsLast() {
+        assertThat(pages("lastPlayedAt", true)).containsExactly("B", "A", "C", "D", "E");
+        assertThat(pages("lastPlayedAt", false)).containsExactly("C", "A", "B", "D", "E");
+    }
+
+    /**
+     * Read every page of two songs and return the title suffixes in order
+     */
+    private List<String> pages(String property, boolean descending) {
+        List<String> titles = new ArrayList<>();
+        for (int page = 0; page < 3; page++) {
+            Page<SongPlayStatsRow> rows = songPlayStatsRepository.findSongsSortedByPlayStats(
+                    prefix, property, descending, PageRequest.of(page, 2));
+            assertThat(rows.getTotalElements()).isEqualTo(5);
+            titles.addAll(rows.getContent().stream()
+                    .map(row -> row.getTitle().substring(prefix.length() + 1))
+                    .collect(Collectors.toList()));
+        }
+        return titles;
+    }
+
+    private void createSong(String suffix, Long plays, LocalDateTime lastPlayedAt) {
+        Song song = new Song();
+        song.setTitle(prefix + " " + suffix);
+        song.setOccurrence(0);
+        song = songRepository.saveAndFlush(song);
+        if (plays != null) {
+            SongPlayStats stats = new SongPlayStats();
+            stats.setSongId(song.getId());
+            stats.setPlayCount(plays);
+            stats.setFirstPlayedAt(lastPlayedAt.minusDays(1));
+            stats.setLastPlayedAt(lastPlayedAt);
+            songPlayStatsRepository.save(stats);
+        }
+    }
+}
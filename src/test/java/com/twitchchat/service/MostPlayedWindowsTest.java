@@ -0,0 +1,57 @@
+package com.twitchchat.service;
+
+import com.twitchchat.config.MostPlayedProperties;
+import com.twitchchat.model.Song;
+import com.twitchchat.repository.SongRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MostPlayedWindowsTest {
+
+    private MostPlayedWindows windows;
+
+    @BeforeEach
+    void setUp() {
+        Song song = new Song("Battle Theme", "Sakimoto", "FFT", "2:30");
+        song.setId(1L);
+        SongRepository songRepository = mock(SongRepository.class);
+        when(songRepository.findAllById(any())).thenReturn(Collections.singletonList(song));
+
+        windows = new MostPlayedWindows();
+        ReflectionTestUtils.setField(windows, "mostPlayedProperties", new MostPlayedProperties());
+        ReflectionTestUtils.setField(windows, "songRepository", songRepository);
+        windows.initialize();
+    }
+
+    @Test
+    void defaultWindowsKeepTheirConfiguredLabels() {
+        assertThat(windows.getWindowLabels()).containsExactly("1h", "24h", "7d");
+    }
+
+    @Test
+    void defaultWindowServesTheApiDefault() {
+        windows.record(1L, LocalDateTime.now());
+        windows.record(1L, LocalDateTime.now());
+
+        List<Map<String, Object>> top = windows.getMostPlayed("24h", 10);
+        assertThat(top).hasSize(1);
+        assertThat(top.get(0)).containsEntry("songId", 1L).containsEntry("plays", 2L);
+    }
+
+    @Test
+    void unknownWindowIsRejected() {
+        assertThatThrownBy(() -> windows.getMostPlayed("1d", 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
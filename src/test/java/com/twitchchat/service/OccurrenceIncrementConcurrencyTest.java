@@ -0,0 +1,103 @@
+package com.twitchchat.service;
+
+import com.twitchchat.model.Song;
+import com.twitchchat.repository.SongRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Parallel occurrence increments against one song must not lose updates. Runs against the
+ * PostgreSQL database in DATABASE_URL; each increment commits on its own, so the test is not
+ * wrapped in a rolled-back transaction and removes its songs afterwards.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfEnvironmentVariable(named = "DATABASE_URL", matches = ".+")
+class OccurrenceIncrementConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int INCREMENTS = 200;
+
+    @Autowired
+    private SongRepository songRepository;
+
+    private final List<Long> songIds = new ArrayList<>();
+
+    @BeforeEach
+    void createSongs() {
+        for (int i = 0; i < 2; i++) {
+            Song song = new Song();
+            song.setTitle("Occurrence Concurrency Test " + i + " " + System.nanoTime());
+            song.setOccurrence(0);
+            songIds.add(songRepository.save(song).getId());
+        }
+    }
+
+    @AfterEach
+    void deleteSongs() {
+        songRepository.deleteAllById(songIds);
+    }
+
+    @Test
+    void parallelIncrementOccurrenceCountsEveryCall() throws Exception {
+        long songId = songIds.get(0);
+        runInParallel(() -> songRepository.incrementOccurrences(List.of(songId), List.of(1), List.of(LocalDateTime.now())));
+
+        assertThat(songRepository.findById(songId).orElseThrow().getOccurrence()).isEqualTo(INCREMENTS);
+    }
+
+    @Test
+    void parallelBatchIncrementsCountEveryDelta() throws Exception {
+        runInParallel(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            return songRepository.incrementOccurrences(songIds, List.of(1, 3), List.of(now, now));
+        });
+
+        assertThat(songRepository.findById(songIds.get(0)).orElseThrow().getOccurrence()).isEqualTo(INCREMENTS);
+        assertThat(songRepository.findById(songIds.get(1)).orElseThrow().getOccurrence()).isEqualTo(INCREMENTS * 3);
+    }
+
+    /**
+     * Run the update INCREMENTS times spread over THREADS threads, all released at once
+     */
+    private void runInParallel(Callable<Integer> update) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < INCREMENTS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return update.call();
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> result : results) {
+                assertThat(result.get(30, TimeUnit.SECONDS)).isPositive();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
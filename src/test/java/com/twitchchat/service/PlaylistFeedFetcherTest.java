@@ -0,0 +1,154 @@
+package com.twitchchat.service;
+
+import com.sun.net.httpserver.HttpServer;
+import com.twitchchat.config.PlaylistFeedProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the fetcher against a local feed server that answers If-None-Match with 304.
+ */
+class PlaylistFeedFetcherTest {
+
+    private HttpServer server;
+    private volatile String body = "<playlist><song>Battle Theme</song></playlist>";
+    private volatile String etag = "\"v1\"";
+    private volatile String lastIfNoneMatch;
+    private final AtomicInteger okResponses = new AtomicInteger();
+
+    private Path cacheDirectory;
+    private PlaylistFeedFetcher fetcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/playlist.xml", exchange -> {
+            lastIfNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            if (etag.equals(lastIfNoneMatch)) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("ETag", etag);
+                exchange.sendResponseHeaders(200, bytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+                okResponses.incrementAndGet();
+            }
+            exchange.close();
+        });
+        server.start();
+
+        cacheDirectory = Files.createTempDirectory("playlist-feed-test");
+        PlaylistFeedProperties properties = new PlaylistFeedProperties();
+        properties.setUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/playlist.xml");
+        properties.setCacheDirectory(cacheDirectory.toString());
+        fetcher = new PlaylistFeedFetcher();
+        ReflectionTestUtils.setField(fetcher, "feedProperties", properties);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        server.stop(0);
+        try (var paths = Files.walk(cacheDirectory)) {
+            paths.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void firstFetchReturnsFeedWithItsHash() throws Exception {
+        PlaylistFeedFetcher.Feed feed = fetcher.fetch(false);
+
+        assertThat(feed).isNotNull();
+        assertThat(feed.getSha256()).hasSize(64);
+        assertThat(read(feed)).isEqualTo(body);
+        assertThat(lastIfNoneMatch).isNull();
+        assertThat(fetcher.getStats().get("lastStatus")).isEqualTo(PlaylistFeedFetcher.Status.CHANGED);
+    }
+
+    @Test
+    void appliedFeedIsRevalidatedWithItsEtag() throws Exception {
+        applyFirstFeed();
+
+        assertThat(fetcher.fetch(false)).isNull();
+        assertThat(lastIfNoneMatch).isEqualTo("\"v1\"");
+        assertThat(okResponses.get()).isEqualTo(1);
+        assertThat(fetcher.getStats().get("lastStatus")).isEqualTo(PlaylistFeedFetcher.Status.NOT_MODIFIED);
+        assertThat(fetcher.getStats().get("skipped")).isEqualTo(1L);
+    }
+
+    @Test
+    void sameContentUnderNewEtagIsSkippedByHash() throws Exception {
+        applyFirstFeed();
+        etag = "\"v2\"";
+
+        assertThat(fetcher.fetch(false)).isNull();
+        assertThat(fetcher.getStats().get("lastStatus")).isEqualTo(PlaylistFeedFetcher.Status.UNCHANGED_HASH);
+        // The new validator is kept, so the next check gets a 304
+        assertThat(fetcher.getStats().get("etag")).isEqualTo("\"v2\"");
+        assertThat(fetcher.fetch(false)).isNull();
+        assertThat(fetcher.getStats().get("lastStatus")).isEqualTo(PlaylistFeedFetcher.Status.NOT_MODIFIED);
+    }
+
+    @Test
+    void changedContentIsReturned() throws Exception {
+        String firstHash = applyFirstFeed();
+        body = "<playlist><song>Another Theme</song></playlist>";
+        etag = "\"v2\"";
+
+        PlaylistFeedFetcher.Feed feed = fetcher.fetch(false);
+        assertThat(feed).isNotNull();
+        assertThat(feed.getSha256()).isNotEqualTo(firstHash);
+        assertThat(read(feed)).isEqualTo(body);
+    }
+
+    @Test
+    void forceSkipsValidatorsAndHash() throws Exception {
+        String firstHash = applyFirstFeed();
+
+        PlaylistFeedFetcher.Feed feed = fetcher.fetch(true);
+        assertThat(feed).isNotNull();
+        assertThat(feed.getSha256()).isEqualTo(firstHash);
+        assertThat(lastIfNoneMatch).isNull();
+    }
+
+    @Test
+    void appliedHashSurvivesRestart() throws Exception {
+        applyFirstFeed();
+
+        PlaylistFeedFetcher restarted = new PlaylistFeedFetcher();
+        ReflectionTestUtils.setField(restarted, "feedProperties", ReflectionTestUtils.getField(fetcher, "feedProperties"));
+        restarted.loadCacheMetadata();
+
+        assertThat(restarted.fetch(false)).isNull();
+        assertThat(lastIfNoneMatch).isEqualTo("\"v1\"");
+    }
+
+    /**
+     * Fetch the first feed and mark it applied (immediately, as no transaction is active)
+     */
+    private String applyFirstFeed() throws Exception {
+        PlaylistFeedFetcher.Feed feed = fetcher.fetch(false);
+        fetcher.markAppliedAfterCommit(feed);
+        assertThat(Files.exists(cacheDirectory.resolve("playlist.xml"))).isTrue();
+        return feed.getSha256();
+    }
+
+    private static String read(PlaylistFeedFetcher.Feed feed) throws Exception {
+        try (InputStream in = feed.open()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.twitchchat.service;
+
+import com.twitchchat.dto.SongWithTrackPlayCount;
+import com.twitchchat.model.Song;
+import com.twitchchat.repository.SongRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The songs-with-play-counts pages must issue the same, fixed number of statements whatever the
+ * page size: the page, its count and one grouped play stats query. Runs against the PostgreSQL
+ * database in DATABASE_URL; the songs it adds are rolled back.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(PlaylistService.class)
+@EnabledIfEnvironmentVariable(named = "DATABASE_URL", matches = ".+")
+class PlaylistServiceStatementCountTest {
+    private static final int SONGS = 60;
+    private static final int MAX_STATEMENTS_PER_PAGE = 3;
+
+    @Autowired
+    private PlaylistService playlistService;
+
+    @Autowired
+    private SongRepository songRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private String titlePrefix;
+
+    @BeforeEach
+    void createSongs() {
+        titlePrefix = "Statement Count Test " + System.nanoTime();
+        List<Song> songs = new ArrayList<>();
+        for (int i = 0; i < SONGS; i++) {
+            Song song = new Song();
+            song.setTitle(titlePrefix + " " + i);
+            song.setOccurrence(0);
+            songs.add(song);
+        }
+        songRepository.saveAllAndFlush(songs);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void fetchIssuesFixedStatementsPerPage() {
+        long small = statementsFor(() -> playlistService.fetchSongsWithTrackPlayCounts(0, 5, "title", "asc"), 5);
+        long large = statementsFor(() -> playlistService.fetchSongsWithTrackPlayCounts(0, 50, "title", "asc"), 50);
+
+        assertThat(large).isEqualTo(small);
+        assertThat(large).isLessThanOrEqualTo(MAX_STATEMENTS_PER_PAGE);
+    }
+
+    @Test
+    void searchIssuesFixedStatementsPerPage() {
+        long small = statementsFor(() -> playlistService.searchSongsWithTrackPlayCounts(titlePrefix, 0, 5, "title", "asc"), 5);
+        long large = statementsFor(() -> playlistService.searchSongsWithTrackPlayCounts(titlePrefix, 0, 50, "title", "asc"), 50);
+
+        assertThat(large).isEqualTo(small);
+        assertThat(large).isLessThanOrEqualTo(MAX_STATEMENTS_PER_PAGE);
+    }
+
+    @Test
+    void updatedAtSortIssuesFixedStatementsPerPage() {
+        long small = statementsFor(() -> playlistService.searchSongsWithTrackPlayCounts(titlePrefix, 0, 5, "updatedAt", "desc"), 5);
+        long large = statementsFor(() -> playlistService.searchSongsWithTrackPlayCounts(titlePrefix, 0, 50, "updatedAt", "desc"), 50);
+
+        assertThat(large).isEqualTo(small);
+        assertThat(large).isLessThanOrEqualTo(MAX_STATEMENTS_PER_PAGE);
+    }
+
+    /**
+     * Count the statements prepared while loading one full page
+     */
+    private long statementsFor(Supplier<Page<SongWithTrackPlayCount>> load, int pageSize) {
+        statistics.clear();
+        Page<SongWithTrackPlayCount> page = load.get();
+        // The service returns an empty page on errors, which would also issue few statements
+        assertThat(page.getContent()).hasSize(pageSize);
+        return statistics.getPrepareStatementCount();
+    }
+}
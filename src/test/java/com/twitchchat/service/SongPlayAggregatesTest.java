@@ -0,0 +1,93 @@
+package com.twitchchat.service;
+
+import com.twitchchat.repository.SongRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SongPlayAggregatesTest {
+
+    private SongRepository songRepository;
+    private SongPlayAggregates aggregates;
+
+    @BeforeEach
+    void setUp() {
+        songRepository = mock(SongRepository.class);
+        aggregates = new SongPlayAggregates();
+        ReflectionTestUtils.setField(aggregates, "songRepository", songRepository);
+    }
+
+    @Test
+    void recordedPlaysAddToSeededTotals() {
+        givenCatalog(10, Collections.singletonList(new Object[] {1L, 5L}));
+        aggregates.reseed();
+
+        aggregates.recordPlays(1L, 2);
+        aggregates.recordPlays(2L, 1);
+
+        assertThat(aggregates.getTotalSongs()).isEqualTo(10);
+        assertThat(aggregates.getTotalPlays()).isEqualTo(8);
+        assertThat(aggregates.getPlayedSongsCount()).isEqualTo(2);
+    }
+
+    @Test
+    void failedReseedKeepsPreviousTotals() {
+        givenCatalog(10, Collections.singletonList(new Object[] {1L, 5L}));
+        aggregates.reseed();
+
+        when(songRepository.countAllSongs()).thenThrow(new IllegalStateException("connection refused"));
+        assertThat(aggregates.reseed()).isFalse();
+        assertThat(aggregates.getTotalPlays()).isEqualTo(5);
+    }
+
+    @Test
+    void playCommittedDuringReseedIsAppliedOnTopOfItsResult() throws Exception {
+        CountDownLatch queryStarted = new CountDownLatch(1);
+        CountDownLatch releaseQuery = new CountDownLatch(1);
+        when(songRepository.countAllSongs()).thenReturn(10L);
+        when(songRepository.findPlayedSongOccurrences()).thenAnswer(invocation -> {
+            queryStarted.countDown();
+            releaseQuery.await(5, TimeUnit.SECONDS);
+            return Collections.singletonList(new Object[] {1L, 5L});
+        });
+
+        Thread reseed = new Thread(aggregates::reseed);
+        reseed.start();
+        assertThat(queryStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // A play that commits while the reseed query runs, which the query does not see
+        CountDownLatch recorded = new CountDownLatch(1);
+        Thread play = new Thread(() -> {
+            aggregates.beginPlayCommit();
+            try {
+                aggregates.recordPlays(2L, 1);
+            } finally {
+                aggregates.endPlayCommit();
+            }
+            recorded.countDown();
+        });
+        play.start();
+
+        assertThat(recorded.await(200, TimeUnit.MILLISECONDS)).isFalse();
+        releaseQuery.countDown();
+        reseed.join(5000);
+        play.join(5000);
+
+        assertThat(aggregates.getTotalPlays()).isEqualTo(6);
+        assertThat(aggregates.getPlayedSongsCount()).isEqualTo(2);
+    }
+
+    private void givenCatalog(long songs, List<Object[]> played) {
+        when(songRepository.countAllSongs()).thenReturn(songs);
+        when(songRepository.findPlayedSongOccurrences()).thenReturn(played);
+    }
+}
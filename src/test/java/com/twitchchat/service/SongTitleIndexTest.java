@@ -0,0 +1,81 @@
+package com.twitchchat.service;
+
+import com.twitchchat.repository.SongRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SongTitleIndexTest {
+
+    private SongRepository songRepository;
+    private SongTitleIndex index;
+
+    @BeforeEach
+    void setUp() {
+        songRepository = mock(SongRepository.class);
+        index = new SongTitleIndex();
+        ReflectionTestUtils.setField(index, "songRepository", songRepository);
+    }
+
+    @Test
+    void normalizeTrimsCollapsesWhitespaceAndLowerCases() {
+        assertThat(SongTitleIndex.normalize("  Battle   Theme\t- FFT \n")).isEqualTo("battle theme - fft");
+        assertThat(SongTitleIndex.normalize("already normal")).isEqualTo("already normal");
+        assertThat(SongTitleIndex.normalize(" \t ")).isEmpty();
+    }
+
+    @Test
+    void lookupBeforeRebuildReturnsNull() {
+        assertThat(index.isLoaded()).isFalse();
+        assertThat(index.lookup("Battle Theme")).isNull();
+    }
+
+    @Test
+    void lookupMatchesIgnoringCaseAndWhitespace() {
+        givenRows(row(1L, "Battle Theme", "2:30"));
+        index.rebuild();
+
+        SongTitleIndex.Entry entry = index.lookup("  battle   THEME ");
+        assertThat(entry).isNotNull();
+        assertThat(entry.getId()).isEqualTo(1L);
+        assertThat(entry.getDurationSeconds()).isEqualTo(150);
+        assertThat(index.lookup("Other Theme")).isNull();
+    }
+
+    @Test
+    void exactTitleWinsOverNormalizedCollision() {
+        givenRows(row(1L, "Battle Theme", null), row(2L, "battle theme", null));
+        index.rebuild();
+
+        assertThat(index.lookup("Battle Theme").getId()).isEqualTo(1L);
+        assertThat(index.lookup("battle theme").getId()).isEqualTo(2L);
+        // No exact match, the lowest id of the collision wins
+        assertThat(index.lookup("BATTLE THEME").getId()).isEqualTo(1L);
+    }
+
+    @Test
+    void rebuildFailureKeepsPreviousSnapshot() {
+        givenRows(row(1L, "Battle Theme", null));
+        index.rebuild();
+
+        when(songRepository.findAllTitleIndexRows()).thenThrow(new IllegalStateException("connection refused"));
+        assertThat(index.rebuild()).isFalse();
+        assertThat(index.lookup("Battle Theme").getId()).isEqualTo(1L);
+    }
+
+    private void givenRows(Object[]... rows) {
+        List<Object[]> result = Arrays.asList(rows);
+        when(songRepository.findAllTitleIndexRows()).thenReturn(result);
+    }
+
+    private static Object[] row(long id, String title, String duration) {
+        return new Object[] {id, title, duration};
+    }
+}
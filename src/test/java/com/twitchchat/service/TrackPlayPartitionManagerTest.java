@@ -0,0 +1,168 @@
+package com.twitchchat.service;
+
+import com.twitchchat.config.TrackPlayPartitionProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TrackPlayPartitionManagerTest {
+    private static final String OLD_PARTITION = "track_plays_p200001";
+
+    private JdbcTemplate jdbcTemplate;
+    private TrackPlayPartitionProperties properties;
+    private TrackPlayPartitionManager manager;
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("partition-export-test");
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForObject(TrackPlayPartitionManager.IS_PARTITIONED_SQL, Integer.class)).thenReturn(1);
+        when(jdbcTemplate.queryForList(TrackPlayPartitionManager.LIST_PARTITIONS_SQL, String.class))
+                .thenReturn(Arrays.asList(OLD_PARTITION, "track_plays_default"));
+
+        properties = new TrackPlayPartitionProperties();
+        properties.setMonthsAhead(0);
+        properties.setRetentionMonths(12);
+        properties.setArchiveMode(TrackPlayPartitionProperties.ArchiveMode.EXPORT);
+        properties.setExportDirectory(directory.toString());
+
+        manager = new TrackPlayPartitionManager();
+        ReflectionTestUtils.setField(manager, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(manager, "partitionProperties", properties);
+        ReflectionTestUtils.setField(manager, "transactionTemplate", new TransactionTemplate(mock(PlatformTransactionManager.class)));
+    }
+
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Test
+    void partitionNamesRoundTripThroughTheirMonth() {
+        assertThat(TrackPlayPartitionManager.partitionName(YearMonth.of(2025, 7))).isEqualTo("track_plays_p202507");
+        assertThat(TrackPlayPartitionManager.monthOf("track_plays_p202507")).isEqualTo(YearMonth.of(2025, 7));
+        assertThat(TrackPlayPartitionManager.monthOf(TrackPlayPartitionManager.partitionName(YearMonth.of(1999, 12))))
+                .isEqualTo(YearMonth.of(1999, 12));
+    }
+
+    @Test
+    void monthOfIgnoresOtherTables() {
+        assertThat(TrackPlayPartitionManager.monthOf("track_plays_default")).isNull();
+        assertThat(TrackPlayPartitionManager.monthOf("track_plays_p2025")).isNull();
+        assertThat(TrackPlayPartitionManager.monthOf("track_plays_p202513")).isNull();
+        assertThat(TrackPlayPartitionManager.monthOf("track_plays_p202500")).isNull();
+        assertThat(TrackPlayPartitionManager.monthOf("other_p202507")).isNull();
+    }
+
+    @Test
+    void exportsBeforeSummarisingDetachingAndDropping() {
+        manager.maintain();
+
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        order.verify(jdbcTemplate).update(String.format(TrackPlayPartitionManager.SUMMARISE_SQL, OLD_PARTITION));
+        order.verify(jdbcTemplate).execute("ALTER TABLE track_plays DETACH PARTITION " + OLD_PARTITION);
+        order.verify(jdbcTemplate).execute("DROP TABLE " + OLD_PARTITION);
+        assertThat(Files.exists(directory.resolve(OLD_PARTITION + ".csv.gz"))).isTrue();
+        assertThat(archived()).containsExactly(OLD_PARTITION);
+    }
+
+    @Test
+    void exportStreamsWithAFetchSize() throws Exception {
+        manager.maintain();
+
+        ArgumentCaptor<PreparedStatementCreator> export = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        verify(jdbcTemplate).query(export.capture(), any(RowCallbackHandler.class));
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement("SELECT * FROM " + OLD_PARTITION + " ORDER BY played_at")).thenReturn(statement);
+
+        assertThat(export.getValue().createPreparedStatement(connection)).isSameAs(statement);
+        verify(statement).setFetchSize(anyInt());
+    }
+
+    @Test
+    void rowsInTheDefaultPartitionAreMovedIntoTheNewPartition() {
+        YearMonth month = YearMonth.now();
+        String partition = TrackPlayPartitionManager.partitionName(month);
+        String inMonth = "played_at >= '" + month.atDay(1) + "' AND played_at < '" + month.plusMonths(1).atDay(1) + "'";
+        when(jdbcTemplate.queryForList(TrackPlayPartitionManager.DEFAULT_PARTITION_SQL, String.class))
+                .thenReturn(Collections.singletonList("track_plays_default"));
+        when(jdbcTemplate.queryForObject(String.format(TrackPlayPartitionManager.HAS_ROWS_SQL, "track_plays_default", inMonth), Boolean.class))
+                .thenReturn(true);
+
+        manager.maintain();
+
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).execute("ALTER TABLE track_plays DETACH PARTITION track_plays_default");
+        order.verify(jdbcTemplate).execute(startsWith("CREATE TABLE " + partition + " PARTITION OF track_plays"));
+        order.verify(jdbcTemplate).update(String.format(TrackPlayPartitionManager.MOVE_ROWS_SQL, "track_plays_default", inMonth, partition));
+        order.verify(jdbcTemplate).execute("ALTER TABLE track_plays ATTACH PARTITION track_plays_default DEFAULT");
+    }
+
+    @Test
+    void failedExportKeepsThePartitionAttached() throws IOException {
+        Path notADirectory = Files.createFile(directory.resolve("not-a-directory"));
+        properties.setExportDirectory(notADirectory.resolve("export").toString());
+
+        manager.maintain();
+
+        verify(jdbcTemplate, never()).update(anyString());
+        verify(jdbcTemplate, never()).execute(startsWith("ALTER TABLE track_plays DETACH"));
+        verify(jdbcTemplate, never()).execute(startsWith("DROP TABLE"));
+        assertThat(archived()).isEmpty();
+    }
+
+    @Test
+    void dropModeSkipsTheExport() {
+        properties.setArchiveMode(TrackPlayPartitionProperties.ArchiveMode.DROP);
+
+        manager.maintain();
+
+        verify(jdbcTemplate, never()).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        verify(jdbcTemplate).execute("DROP TABLE " + OLD_PARTITION);
+        assertThat(archived()).containsExactly(OLD_PARTITION);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> archived() {
+        return (List<String>) manager.getStats().get("lastArchived");
+    }
+}
@@ -0,0 +1,143 @@
+package com.twitchchat.service;
+
+import com.twitchchat.config.ExecutionProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TrackPlaySpillTest {
+    private static final LocalDateTime PLAYED_AT = LocalDateTime.of(2025, 7, 19, 20, 15);
+
+    private Path directory;
+    private Path spillFile;
+    private SongPlayTracker songPlayTracker;
+    private TrackPlaySpill spill;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        directory = Files.createTempDirectory("track-play-spill-test");
+        spillFile = directory.resolve("spill.log");
+        ExecutionProperties properties = new ExecutionProperties();
+        properties.setTrackPlayRejectionPolicy(ExecutionProperties.RejectionPolicy.SPILL);
+        properties.setTrackPlaySpillFile(spillFile.toString());
+
+        songPlayTracker = mock(SongPlayTracker.class);
+        spill = new TrackPlaySpill();
+        ReflectionTestUtils.setField(spill, "executionProperties", properties);
+        ReflectionTestUtils.setField(spill, "songPlayTracker", songPlayTracker);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        try (var paths = Files.walk(directory)) {
+            paths.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void failedWritesAreKeptAndMissingSongsDropped() throws Exception {
+        givenSpilled("Written", "Write Failed", "Missing Song");
+        when(songPlayTracker.trackSpilledPlay(eq("Written"), eq(PLAYED_AT))).thenReturn(CompletableFuture.completedFuture(true));
+        when(songPlayTracker.trackSpilledPlay(eq("Write Failed"), eq(PLAYED_AT)))
+                .thenReturn(CompletableFuture.supplyAsync(() -> {
+                    throw new IllegalStateException("batch failed");
+                }, CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS)));
+        when(songPlayTracker.trackSpilledPlay(eq("Missing Song"), eq(PLAYED_AT))).thenReturn(CompletableFuture.completedFuture(false));
+
+        spill.drain();
+
+        Path draining = Path.of(spillFile + ".draining");
+        assertThat(Files.readAllLines(draining, StandardCharsets.UTF_8)).containsExactly(PLAYED_AT + "\tWrite Failed");
+        assertThat(spill.getStats()).containsEntry("replayed", 1L).containsEntry("lost", 1L);
+
+        // The kept play is replayed on the next run and the file is removed once it is written
+        when(songPlayTracker.trackSpilledPlay(eq("Write Failed"), eq(PLAYED_AT))).thenReturn(CompletableFuture.completedFuture(true));
+        spill.drain();
+        assertThat(Files.exists(draining)).isFalse();
+        assertThat(spill.getStats()).containsEntry("replayed", 2L).containsEntry("pending", false);
+    }
+
+    @Test
+    void wholeFileIsQueuedBeforeWaiting() throws Exception {
+        givenSpilled("One", "Two", "Three");
+        List<CompletableFuture<Boolean>> queued = new ArrayList<>();
+        when(songPlayTracker.trackSpilledPlay(any(), eq(PLAYED_AT))).thenAnswer(invocation -> {
+            CompletableFuture<Boolean> result = new CompletableFuture<>();
+            synchronized (queued) {
+                queued.add(result);
+            }
+            return result;
+        });
+
+        // Stands in for the write-behind flusher: it completes the batch only once every play is queued
+        Thread flusher = new Thread(() -> {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (System.nanoTime() < deadline) {
+                synchronized (queued) {
+                    if (queued.size() == 3) {
+                        queued.forEach(result -> result.complete(true));
+                        return;
+                    }
+                }
+                Thread.onSpinWait();
+            }
+            synchronized (queued) {
+                queued.forEach(result -> result.complete(false));
+            }
+        });
+        flusher.start();
+
+        spill.drain();
+        flusher.join(5000);
+
+        assertThat(spill.getStats()).containsEntry("replayed", 3L).containsEntry("pending", false);
+    }
+
+    @Test
+    void directWriteFailureKeepsTheRemainingPlays() throws Exception {
+        givenSpilled("Written", "Write Failed", "Not Attempted");
+        when(songPlayTracker.trackSpilledPlay(eq("Written"), eq(PLAYED_AT))).thenReturn(CompletableFuture.completedFuture(true));
+        when(songPlayTracker.trackSpilledPlay(eq("Write Failed"), eq(PLAYED_AT)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("connection refused")));
+
+        spill.drain();
+
+        assertThat(Files.readAllLines(Path.of(spillFile + ".draining"), StandardCharsets.UTF_8))
+                .containsExactly(PLAYED_AT + "\tWrite Failed", PLAYED_AT + "\tNot Attempted");
+        assertThat(spill.getStats()).containsEntry("replayed", 1L);
+    }
+
+    @Test
+    void malformedLinesAreDropped() throws Exception {
+        Files.write(spillFile, Arrays.asList("no tab here", "not-a-time\tSong"), StandardCharsets.UTF_8);
+
+        spill.drain();
+
+        assertThat(spill.getStats()).containsEntry("lost", 2L).containsEntry("pending", false);
+    }
+
+    private void givenSpilled(String... titles) throws Exception {
+        List<String> lines = new ArrayList<>();
+        for (String title : titles) {
+            lines.add(PLAYED_AT + "\t" + title);
+        }
+        Files.write(spillFile, lines, StandardCharsets.UTF_8);
+    }
+}
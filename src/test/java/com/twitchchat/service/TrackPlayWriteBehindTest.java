@@ -0,0 +1,73 @@
+package com.twitchchat.service;
+
+import com.twitchchat.config.SongPlayStatsProperties;
+import com.twitchchat.config.TrackPlayBatchProperties;
+import com.twitchchat.config.TrackPlayProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Flush retries, driven through enqueue while the flusher is not running so each play is written through.
+ */
+class TrackPlayWriteBehindTest {
+
+    private TransactionTemplate transactionTemplate;
+    private TrackPlayWriteBehind writeBehind;
+
+    @BeforeEach
+    void setUp() {
+        TrackPlayBatchProperties batchProperties = new TrackPlayBatchProperties();
+        batchProperties.setRetryBackoffMs(1);
+        transactionTemplate = mock(TransactionTemplate.class);
+
+        writeBehind = new TrackPlayWriteBehind();
+        ReflectionTestUtils.setField(writeBehind, "batchProperties", batchProperties);
+        ReflectionTestUtils.setField(writeBehind, "trackPlayProperties", mock(TrackPlayProperties.class));
+        ReflectionTestUtils.setField(writeBehind, "statsProperties", mock(SongPlayStatsProperties.class));
+        ReflectionTestUtils.setField(writeBehind, "songPlayAggregates", new SongPlayAggregates());
+        ReflectionTestUtils.setField(writeBehind, "songPlayRollups", mock(SongPlayRollups.class));
+        ReflectionTestUtils.setField(writeBehind, "mostPlayedWindows", mock(MostPlayedWindows.class));
+        ReflectionTestUtils.setField(writeBehind, "transactionTemplate", transactionTemplate);
+    }
+
+    @Test
+    void transientFailureIsRetried() {
+        doThrow(new CannotAcquireLockException("deadlock detected"))
+                .doThrow(new CannotAcquireLockException("deadlock detected"))
+                .doNothing()
+                .when(transactionTemplate).executeWithoutResult(any());
+
+        assertThat(writeBehind.enqueue(1L, LocalDateTime.now()).join()).isTrue();
+        assertThat(writeBehind.getStats()).containsEntry("flushed", 1L).containsEntry("failed", 0L).containsEntry("retries", 2L);
+    }
+
+    @Test
+    void batchFailsOnceRetriesAreExhausted() {
+        doThrow(new CannotAcquireLockException("connection refused")).when(transactionTemplate).executeWithoutResult(any());
+
+        assertThat(writeBehind.enqueue(1L, LocalDateTime.now()).join()).isFalse();
+        verify(transactionTemplate, times(4)).executeWithoutResult(any());
+        assertThat(writeBehind.getStats()).containsEntry("failed", 1L).containsEntry("retries", 3L);
+    }
+
+    @Test
+    void committedBatchIsNotRetried() {
+        doNothing().when(transactionTemplate).executeWithoutResult(any());
+
+        assertThat(writeBehind.enqueue(1L, LocalDateTime.now()).join()).isTrue();
+        verify(transactionTemplate, times(1)).executeWithoutResult(any());
+    }
+}
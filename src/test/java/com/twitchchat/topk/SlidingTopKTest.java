@@ -0,0 +1,84 @@
+package com.twitchchat.topk;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SlidingTopKTest {
+    // One minute in six ten-second panes
+    private final SlidingTopK<String> topK = new SlidingTopK<>(Duration.ofMinutes(1), 6, 10);
+
+    @Test
+    void countsItemsAcrossPanesInTheWindow() {
+        topK.offer("a", 1_000);
+        topK.offer("a", 15_000);
+        topK.offer("b", 25_000);
+        topK.offer("a", 35_000);
+
+        List<SpaceSaving.Entry<String>> top = topK.top(5, 40_000);
+        assertThat(top).extracting(SpaceSaving.Entry::getItem).containsExactly("a", "b");
+        assertThat(top).extracting(SpaceSaving.Entry::getCount).containsExactly(3L, 1L);
+        assertThat(topK.getTotal()).isEqualTo(4);
+    }
+
+    @Test
+    void dropsPanesOnceTheyLeaveTheWindow() {
+        topK.offer("a", 1_000);
+        topK.offer("a", 2_000);
+        topK.offer("b", 30_000);
+
+        // The first pane [0, 10s) expires once the window ends in the pane starting at 60s
+        List<SpaceSaving.Entry<String>> top = topK.top(5, 61_000);
+        assertThat(top).extracting(SpaceSaving.Entry::getItem).containsExactly("b");
+        assertThat(topK.getTotal()).isEqualTo(1);
+
+        assertThat(topK.top(5, 100_000)).isEmpty();
+    }
+
+    @Test
+    void ignoresOffersOlderThanTheWindow() {
+        topK.offer("b", 120_000);
+        topK.offer("a", 1_000);
+
+        assertThat(topK.top(5, 120_000)).extracting(SpaceSaving.Entry::getItem).containsExactly("b");
+    }
+
+    @Test
+    void lateOffersWithinTheWindowStillCount() {
+        topK.offer("a", 50_000);
+        topK.offer("b", 20_000);
+
+        assertThat(topK.top(5, 50_000)).extracting(SpaceSaving.Entry::getItem).containsExactlyInAnyOrder("a", "b");
+    }
+
+    @Test
+    void mergedCountsStillBoundItemsEvictedFromAPane() {
+        // Two counters per pane: in the pane at 10s "y" is evicted by "z" but was still played once there
+        SlidingTopK<String> small = new SlidingTopK<>(Duration.ofMinutes(1), 6, 2);
+        small.offer("w", 0);
+        for (String item : new String[] {"x", "x", "x", "y", "z"}) {
+            small.offer(item, 10_000);
+        }
+        small.offer("y", 20_000);
+
+        // The pane at 0s expires, so the window summary is rebuilt from the panes at 10s and 20s
+        SpaceSaving.Entry<String> y = small.top(3, 60_000).stream()
+                .filter(entry -> entry.getItem().equals("y"))
+                .findFirst()
+                .orElseThrow();
+        long trueCount = 2;
+        assertThat(y.getCount()).isGreaterThanOrEqualTo(trueCount);
+        assertThat(y.getGuaranteedCount()).isLessThanOrEqualTo(trueCount);
+        assertThat(small.getTotal()).isEqualTo(6);
+    }
+
+    @Test
+    void rejectsNonPositivePaneCount() {
+        assertThatThrownBy(() -> new SlidingTopK<String>(Duration.ofMinutes(1), 0, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
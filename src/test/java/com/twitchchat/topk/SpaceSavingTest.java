@@ -0,0 +1,120 @@
+package com.twitchchat.topk;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SpaceSavingTest {
+
+    @Test
+    void countsExactlyWhileWithinCapacity() {
+        SpaceSaving<String> summary = new SpaceSaving<>(3);
+        offer(summary, "a", "b", "a", "c", "a", "b");
+
+        List<SpaceSaving.Entry<String>> top = summary.top(3);
+        assertThat(top).extracting(SpaceSaving.Entry::getItem).containsExactly("a", "b", "c");
+        assertThat(top).extracting(SpaceSaving.Entry::getCount).containsExactly(3L, 2L, 1L);
+        assertThat(top).extracting(SpaceSaving.Entry::getError).containsOnly(0L);
+        assertThat(summary.getTotal()).isEqualTo(6);
+        assertThat(summary.size()).isEqualTo(3);
+    }
+
+    @Test
+    void newItemTakesOverMinimumCounterWithItsCountAsError() {
+        SpaceSaving<String> summary = new SpaceSaving<>(2);
+        offer(summary, "a", "a", "a", "b", "c");
+
+        List<SpaceSaving.Entry<String>> top = summary.top(2);
+        assertThat(top).extracting(SpaceSaving.Entry::getItem).containsExactly("a", "c");
+        SpaceSaving.Entry<String> replaced = top.get(1);
+        assertThat(replaced.getCount()).isEqualTo(2);
+        assertThat(replaced.getError()).isEqualTo(1);
+        assertThat(replaced.getGuaranteedCount()).isEqualTo(1);
+        assertThat(summary.snapshot()).doesNotContainKey("b");
+    }
+
+    @Test
+    void tracksFrequentItemsWithinTheirErrorBounds() {
+        SpaceSaving<Integer> summary = new SpaceSaving<>(20);
+        Map<Integer, Long> exact = new HashMap<>();
+        Random random = new Random(42);
+        int n = 100_000;
+        for (int i = 0; i < n; i++) {
+            // Items 0-4 take about half the stream, the rest is spread over 10,000 items
+            int item = random.nextBoolean() ? random.nextInt(5) : 5 + random.nextInt(10_000);
+            summary.offer(item);
+            exact.merge(item, 1L, Long::sum);
+        }
+
+        Map<Integer, long[]> tracked = summary.snapshot();
+        for (Map.Entry<Integer, Long> entry : exact.entrySet()) {
+            if (entry.getValue() > n / summary.getCapacity()) {
+                assertThat(tracked).containsKey(entry.getKey());
+            }
+        }
+        for (Map.Entry<Integer, long[]> entry : tracked.entrySet()) {
+            long count = entry.getValue()[0];
+            long error = entry.getValue()[1];
+            long trueCount = exact.get(entry.getKey());
+            assertThat(trueCount).isBetween(count - error, count);
+        }
+        assertThat(summary.top(5)).extracting(SpaceSaving.Entry::getItem).containsExactlyInAnyOrder(0, 1, 2, 3, 4);
+    }
+
+    @Test
+    void ofKeepsTheLargestCountsAndContinuesCounting() {
+        Map<String, long[]> counts = new HashMap<>();
+        counts.put("a", new long[] {10, 0});
+        counts.put("b", new long[] {7, 2});
+        counts.put("c", new long[] {7, 0});
+        counts.put("d", new long[] {1, 0});
+
+        SpaceSaving<String> summary = SpaceSaving.of(3, counts);
+        assertThat(summary.size()).isEqualTo(3);
+        assertThat(summary.getTotal()).isEqualTo(25);
+        assertThat(summary.snapshot()).doesNotContainKey("d");
+        assertThat(summary.snapshot().get("b")).containsExactly(7, 2);
+
+        offer(summary, "c", "c", "c", "c");
+        assertThat(summary.top(1).get(0).getItem()).isEqualTo("c");
+        assertThat(summary.top(1).get(0).getCount()).isEqualTo(11);
+    }
+
+    @Test
+    void minCountIsZeroUntilEveryCounterIsInUse() {
+        SpaceSaving<String> summary = new SpaceSaving<>(2);
+        offer(summary, "a", "a");
+        assertThat(summary.getMinCount()).isZero();
+
+        offer(summary, "b", "b", "b");
+        assertThat(summary.getMinCount()).isEqualTo(2);
+    }
+
+    @Test
+    void topHandlesKOutsideTheTrackedRange() {
+        SpaceSaving<String> summary = new SpaceSaving<>(4);
+        assertThat(summary.isEmpty()).isTrue();
+        assertThat(summary.top(3)).isEmpty();
+
+        offer(summary, "a", "b");
+        assertThat(summary.top(0)).isEmpty();
+        assertThat(summary.top(10)).hasSize(2);
+    }
+
+    @Test
+    void rejectsNonPositiveCapacity() {
+        assertThatThrownBy(() -> new SpaceSaving<String>(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void offer(SpaceSaving<String> summary, String... items) {
+        for (String item : items) {
+            summary.offer(item);
+        }
+    }
+}
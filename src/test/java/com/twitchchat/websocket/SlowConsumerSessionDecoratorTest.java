@@ -0,0 +1,105 @@
+package com.twitchchat.websocket;
+
+import com.twitchchat.config.WebSocketTransportProperties.SlowSessionPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Overflow handling while another thread holds the flush lock, as a send stuck on a slow client would.
+ */
+class SlowConsumerSessionDecoratorTest {
+    private static final int LIMIT = 100;
+
+    private SlowConsumerMetrics metrics;
+    private SlowConsumerSessionDecorator decorator;
+    private final CountDownLatch release = new CountDownLatch(1);
+    private Thread flusher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        metrics = new SlowConsumerMetrics();
+        decorator = new SlowConsumerSessionDecorator(mock(WebSocketSession.class), 10000, LIMIT,
+                SlowSessionPolicy.DROP_OLDEST, 4, metrics);
+
+        Lock flushLock = (Lock) ReflectionTestUtils.getField(decorator, "flushLock");
+        CountDownLatch locked = new CountDownLatch(1);
+        flusher = new Thread(() -> {
+            flushLock.lock();
+            try {
+                locked.countDown();
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                flushLock.unlock();
+            }
+        });
+        flusher.start();
+        locked.await();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        release.countDown();
+        flusher.join();
+    }
+
+    @Test
+    void dropOldestOnlyDropsMessageFrames() throws Exception {
+        decorator.sendMessage(frame("RECEIPT\nreceipt-id:1\n\n"));
+        decorator.sendMessage(frame("MESSAGE\ndestination:/topic/chat\n\nfirst"));
+        decorator.sendMessage(frame("MESSAGE\ndestination:/topic/chat\n\nsecond"));
+
+        assertThat(queuedPayloads()).containsExactly("RECEIPT\nreceipt-id:1\n\n", "MESSAGE\ndestination:/topic/chat\n\nsecond");
+        assertThat(metrics.getStats()).containsEntry("droppedFrames", 1L).containsEntry("evictedSessions", 0L);
+    }
+
+    @Test
+    void backlogWithoutMessageFramesClosesTheSession() throws Exception {
+        decorator.sendMessage(frame("RECEIPT\nreceipt-id:1\n\n"));
+        decorator.sendMessage(frame("RECEIPT\nreceipt-id:2\n\n"));
+
+        assertThatThrownBy(() -> decorator.sendMessage(frame("ERROR\nmessage:failed\n\n")))
+                .isInstanceOf(SessionLimitExceededException.class);
+        assertThat(queuedPayloads()).isEmpty();
+        assertThat(metrics.getStats()).containsEntry("droppedFrames", 0L).containsEntry("evictedSessions", 1L);
+    }
+
+    /**
+     * A frame padded to just over a third of the limit, so the third queued frame overflows
+     */
+    private static TextMessage frame(String payload) {
+        StringBuilder padded = new StringBuilder(payload);
+        while (padded.length() <= LIMIT / 3) {
+            padded.append('.');
+        }
+        return new TextMessage(padded.toString());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Queue<WebSocketMessage<?>> buffer() {
+        return (Queue<WebSocketMessage<?>>) ReflectionTestUtils.getField(decorator, "buffer");
+    }
+
+    private List<String> queuedPayloads() {
+        return buffer().stream()
+                .map(message -> ((TextMessage) message).getPayload().replaceAll("\\.+$", ""))
+                .collect(Collectors.toList());
+    }
+}